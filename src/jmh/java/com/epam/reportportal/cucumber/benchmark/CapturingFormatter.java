@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.benchmark;
+
+import cucumber.api.TestCase;
+import cucumber.api.event.EventPublisher;
+import cucumber.api.event.TestCaseStarted;
+import cucumber.api.event.TestSourceRead;
+import cucumber.api.formatter.Formatter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Cucumber plugin which collects test cases and feature sources of a run. Benchmarks use it to get test steps bound to
+ * real step definitions, which are required by code reference and test case ID calculation.
+ */
+public class CapturingFormatter implements Formatter {
+	private static final List<TestSourceRead> SOURCES = new CopyOnWriteArrayList<>();
+	private static final List<TestCase> TEST_CASES = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestSourceRead.class, SOURCES::add);
+		publisher.registerHandlerFor(TestCaseStarted.class, e -> TEST_CASES.add(e.testCase));
+	}
+
+	/**
+	 * Runs Cucumber in dry-run mode, so glue code is matched, but not executed.
+	 *
+	 * @param glue     a glue package
+	 * @param features feature paths
+	 * @throws IOException if Cucumber is unable to read the features
+	 */
+	public static void capture(String glue, String... features) throws IOException {
+		SOURCES.clear();
+		TEST_CASES.clear();
+		List<String> args = new ArrayList<>();
+		args.add("--dry-run");
+		args.add("--monochrome");
+		args.add("--glue");
+		args.add(glue);
+		args.add("--plugin");
+		args.add(CapturingFormatter.class.getName());
+		for (String feature : features) {
+			args.add(feature);
+		}
+		cucumber.api.cli.Main.run(args.toArray(new String[0]), Thread.currentThread().getContextClassLoader());
+	}
+
+	public static List<TestSourceRead> getSources() {
+		return new ArrayList<>(SOURCES);
+	}
+
+	public static List<TestCase> getTestCases() {
+		return new ArrayList<>(TEST_CASES);
+	}
+}
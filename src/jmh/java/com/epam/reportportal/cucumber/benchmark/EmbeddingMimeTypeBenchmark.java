@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.benchmark;
+package com.epam.reportportal.cucumber.benchmark;
+
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.util.MimeTypeCache;
+import com.epam.reportportal.utils.MimeTypeDetector;
+import com.epam.reportportal.utils.files.ByteSource;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.*;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures MIME type detection of attachments without a valid type: full detection against the prefix cache, and the
+ * time an embedding takes on the test thread with synchronous and asynchronous detection. Payloads are a large noise PNG
+ * and a large ZIP with the test resource archive and a random entry, both generated at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmbeddingMimeTypeBenchmark {
+	private static final String FEATURE = "Feature: Embedding feature\n\n" + "  Scenario: Embedding scenario\n"
+			+ "    Given I make a screenshot\n";
+	private static final Result PASSED = new Result(Result.Type.PASSED, 1L, null);
+	private static final int EMBEDDINGS_PER_BATCH = 100;
+
+	@State(Scope.Benchmark)
+	public static class Payloads {
+		private final MimeTypeCache cache = new MimeTypeCache();
+		private byte[] png;
+		private byte[] zip;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			Random random = new Random(42);
+			BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+			for (int y = 0; y < image.getHeight(); y++) {
+				for (int x = 0; x < image.getWidth(); x++) {
+					image.setRGB(x, y, random.nextInt());
+				}
+			}
+			ByteArrayOutputStream pngStream = new ByteArrayOutputStream();
+			ImageIO.write(image, "png", pngStream);
+			png = pngStream.toByteArray();
+
+			ByteArrayOutputStream zipStream = new ByteArrayOutputStream();
+			try (ZipOutputStream archive = new ZipOutputStream(zipStream)) {
+				archive.putNextEntry(new ZipEntry("demo.zip"));
+				archive.write(IOUtils.toByteArray(Objects.requireNonNull(getClass().getClassLoader()
+						.getResourceAsStream("files/demo.zip"))));
+				archive.closeEntry();
+				byte[] content = new byte[4 * 1024 * 1024];
+				random.nextBytes(content);
+				archive.putNextEntry(new ZipEntry("random.bin"));
+				archive.write(content);
+				archive.closeEntry();
+			}
+			zip = zipStream.toByteArray();
+		}
+	}
+
+	public static class EmbeddingReporter extends NullSinkScenarioReporter {
+		private final boolean async;
+
+		public EmbeddingReporter(boolean async) {
+			this.async = async;
+		}
+
+		@Override
+		protected ReporterParameters buildReporterParameters() {
+			ReporterParameters parameters = super.buildReporterParameters();
+			parameters.setEmbeddingAsyncDetection(async);
+			return parameters;
+		}
+
+		public void await() {
+			awaitEmbeddings();
+		}
+	}
+
+	/**
+	 * Keeps a step started for a whole trial, so embeddings have an item to be attached to.
+	 */
+	@State(Scope.Thread)
+	public static class RunningStep {
+		@Param({ "true", "false" })
+		public boolean async;
+
+		private final EventBus bus = new EventBus(TimeService.SYSTEM);
+		private EmbeddingReporter reporter;
+		private TestCase testCase;
+		private TestStep step;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			reporter = new EmbeddingReporter(async);
+			reporter.setEventPublisher(bus);
+			SyntheticFeature feature = new SyntheticFeature("features/embedding.feature", FEATURE);
+			testCase = feature.getTestCases().get(0);
+			step = testCase.getTestSteps().get(0);
+			bus.send(new TestRunStarted(0L));
+			bus.send(feature.getSourceReadEvent());
+			bus.send(new TestCaseStarted(0L, testCase));
+			bus.send(new TestStepStarted(0L, step));
+		}
+
+		@TearDown(Level.Iteration)
+		public void await() {
+			reporter.await();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			bus.send(new TestStepFinished(0L, step, PASSED));
+			bus.send(new TestCaseFinished(0L, testCase, PASSED));
+			bus.send(new TestRunFinished(0L));
+		}
+	}
+
+	@Benchmark
+	public String detect_png(Payloads payloads) throws IOException {
+		return MimeTypeDetector.detect(ByteSource.wrap(payloads.png), null);
+	}
+
+	@Benchmark
+	public String detect_png_cached(Payloads payloads) {
+		return payloads.cache.detect(payloads.png);
+	}
+
+	@Benchmark
+	public String detect_zip(Payloads payloads) throws IOException {
+		return MimeTypeDetector.detect(ByteSource.wrap(payloads.zip), null);
+	}
+
+	@Benchmark
+	public String detect_zip_cached(Payloads payloads) {
+		return payloads.cache.detect(payloads.zip);
+	}
+
+	// asynchronous embeddings are awaited after each batch, so the queue of the detection thread stays bounded
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 10, batchSize = EMBEDDINGS_PER_BATCH)
+	@Measurement(iterations = 50, batchSize = EMBEDDINGS_PER_BATCH)
+	public void embed_png(RunningStep step, Payloads payloads) {
+		step.bus.send(new EmbedEvent(0L, payloads.png, null));
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 10, batchSize = EMBEDDINGS_PER_BATCH)
+	@Measurement(iterations = 50, batchSize = EMBEDDINGS_PER_BATCH)
+	public void embed_zip(RunningStep step, Payloads payloads) {
+		step.bus.send(new EmbedEvent(0L, payloads.zip, null));
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.benchmark;
+
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures scenario start/finish throughput when every thread executes its own feature, so any slowdown with the
+ * growth of thread number is caused by state shared across features.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeatureStateContentionBenchmark {
+	private static final int MAX_THREADS = 64;
+	private static final String FEATURE = "Feature: Contention feature %d\n\n" + "  Scenario: Contention scenario\n"
+			+ "    Given I have a step\n" + "    When I have one more step\n" + "    Then I have the last step\n";
+
+	@State(Scope.Benchmark)
+	public static class Reporter {
+		private final EventBus bus = new EventBus(TimeService.SYSTEM);
+		private final List<SyntheticFeature> features = new ArrayList<>(MAX_THREADS);
+
+		@Setup(Level.Trial)
+		public void setup() {
+			new NullSinkScenarioReporter().setEventPublisher(bus);
+			bus.send(new TestRunStarted(0L));
+			for (int i = 0; i < MAX_THREADS; i++) {
+				SyntheticFeature feature = new SyntheticFeature("features/contention/feature_" + i + ".feature", String.format(FEATURE, i));
+				features.add(feature);
+				bus.send(feature.getSourceReadEvent());
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			bus.send(new TestRunFinished(0L));
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadFeature {
+		private List<Event> events;
+
+		@Setup(Level.Trial)
+		public void setup(Reporter reporter, ThreadParams params) {
+			SyntheticFeature feature = reporter.features.get(params.getThreadIndex() % MAX_THREADS);
+			events = SyntheticFeature.getPassedEvents(feature.getTestCases().get(0));
+		}
+
+		private void run(EventBus bus) {
+			for (Event event : events) {
+				bus.send(event);
+			}
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void scenario_threads_01(Reporter reporter, ThreadFeature feature) {
+		feature.run(reporter.bus);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void scenario_threads_04(Reporter reporter, ThreadFeature feature) {
+		feature.run(reporter.bus);
+	}
+
+	@Benchmark
+	@Threads(16)
+	public void scenario_threads_16(Reporter reporter, ThreadFeature feature) {
+		feature.run(reporter.bus);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public void scenario_threads_64(Reporter reporter, ThreadFeature feature) {
+		feature.run(reporter.bus);
+	}
+}
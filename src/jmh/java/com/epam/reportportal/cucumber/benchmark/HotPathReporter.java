@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.benchmark;
+
+import com.epam.reportportal.service.item.TestCaseIdEntry;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import cucumber.api.Result;
+import cucumber.api.TestStep;
+import cucumber.api.event.TestCaseFinished;
+import cucumber.api.event.TestCaseStarted;
+
+import java.util.List;
+
+/**
+ * Null sink reporter which opens its protected hot path methods to benchmarks.
+ */
+public class HotPathReporter extends NullSinkScenarioReporter {
+	public void startTestCase(TestCaseStarted event) {
+		handleStartOfTestCase(event);
+	}
+
+	public void finishTestCase(TestCaseFinished event) {
+		afterScenario(event);
+	}
+
+	public void startStep(TestStep testStep) {
+		beforeStep(testStep);
+	}
+
+	public void finishStep(Result result) {
+		afterStep(result);
+	}
+
+	public StartTestItemRQ startStepRequest(TestStep testStep, String stepPrefix, String keyword) {
+		return buildStartStepRequest(testStep, stepPrefix, keyword);
+	}
+
+	public List<ParameterResource> parameters(String codeRef, TestStep testStep) {
+		return getParameters(codeRef, testStep);
+	}
+
+	public String multilineArgument(TestStep testStep) {
+		return buildMultilineArgument(testStep);
+	}
+
+	public String codeRef(TestStep testStep) {
+		return getCodeRef(testStep);
+	}
+
+	public TestCaseIdEntry testCaseId(TestStep testStep, String codeRef) {
+		return getTestCaseId(testStep, codeRef);
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.benchmark;
+
+import com.epam.reportportal.cucumber.ScenarioReporter;
+import com.epam.reportportal.cucumber.sink.NullSink;
+import com.epam.reportportal.cucumber.sink.ReportingSink;
+import com.epam.reportportal.service.Launch;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Scenario reporter which does not send anything, so benchmarks measure the agent side only.
+ */
+public class NullSinkScenarioReporter extends ScenarioReporter {
+	@Override
+	protected void startLaunch() {
+		// only provides parameters, nothing is sent through it
+		launch = () -> Launch.NOOP_LAUNCH;
+	}
+
+	@Nonnull
+	@Override
+	protected ReportingSink buildReportingSink() {
+		return NullSink.INSTANCE;
+	}
+}
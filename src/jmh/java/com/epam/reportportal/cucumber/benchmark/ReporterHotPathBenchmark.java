@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.benchmark;
+
+import com.epam.reportportal.cucumber.RunningContext;
+import com.epam.reportportal.service.item.TestCaseIdEntry;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.*;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reporter methods called for every scenario and step. Test steps are bound to real step definitions by a
+ * Cucumber dry run, and the reporter sends nothing, so the results show the agent side cost only. Run with
+ * '-prof gc' to see allocation rate per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporterHotPathBenchmark {
+	private static final String GLUE = "com.epam.reportportal.cucumber.integration.feature";
+	private static final String OUTLINE_FEATURE = "classpath:features/BasicScenarioOutlineParameters.feature";
+	private static final String DOC_STRING_FEATURE = "classpath:features/DocStringParameters.feature";
+	private static final String DATA_TABLE_FEATURE = "classpath:features/DataTableParameter.feature";
+
+	private static final Result PASSED = new Result(Result.Type.PASSED, 1L, null);
+
+	@State(Scope.Benchmark)
+	public static class Steps {
+		private List<TestSourceRead> sources;
+		private TestCase outline;
+		private TestStep parameterStep;
+		private String parameterCodeRef;
+		private TestStep docStringStep;
+		private TestStep dataTableStep;
+		private RunningContext.FeatureContext outlineFeature;
+
+		@Setup(Level.Trial)
+		public void setup() throws IOException {
+			CapturingFormatter.capture(GLUE, OUTLINE_FEATURE, DOC_STRING_FEATURE, DATA_TABLE_FEATURE);
+			sources = CapturingFormatter.getSources();
+			sources.forEach(s -> RunningContext.FeatureContext.addTestSourceReadEvent(s.uri, s));
+			List<TestCase> testCases = CapturingFormatter.getTestCases();
+			outline = getTestCase(testCases, OUTLINE_FEATURE);
+			parameterStep = outline.getTestSteps().get(1);
+			docStringStep = getTestCase(testCases, DOC_STRING_FEATURE).getTestSteps().get(1);
+			dataTableStep = getTestCase(testCases, DATA_TABLE_FEATURE).getTestSteps().get(0);
+			outlineFeature = new RunningContext.FeatureContext(outline);
+			parameterCodeRef = new HotPathReporter().codeRef(parameterStep);
+		}
+
+		private static TestCase getTestCase(List<TestCase> testCases, String feature) {
+			String fileName = feature.substring(feature.lastIndexOf('/') + 1);
+			return testCases.stream()
+					.filter(t -> t.getUri().endsWith(fileName))
+					.findFirst()
+					.orElseThrow(() -> new IllegalStateException("No test case captured for: " + feature));
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Reporter {
+		private final EventBus bus = new EventBus(TimeService.SYSTEM);
+		private final HotPathReporter reporter = new HotPathReporter();
+
+		@Setup(Level.Trial)
+		public void setup(Steps steps) {
+			reporter.setEventPublisher(bus);
+			bus.send(new TestRunStarted(0L));
+			steps.sources.forEach(bus::send);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			bus.send(new TestRunFinished(0L));
+		}
+	}
+
+	/**
+	 * Keeps a scenario started for a whole iteration, so step benchmarks have a scenario context to work in.
+	 */
+	@State(Scope.Thread)
+	public static class RunningScenario {
+		@Setup(Level.Iteration)
+		public void setup(Reporter reporter, Steps steps) {
+			reporter.reporter.startTestCase(new TestCaseStarted(0L, steps.outline));
+		}
+
+		@TearDown(Level.Iteration)
+		public void tearDown(Reporter reporter, Steps steps) {
+			reporter.reporter.finishTestCase(new TestCaseFinished(0L, steps.outline, PASSED));
+		}
+	}
+
+	@Benchmark
+	public void scenario_lifecycle(Reporter reporter, Steps steps) {
+		HotPathReporter r = reporter.reporter;
+		r.startTestCase(new TestCaseStarted(0L, steps.outline));
+		for (TestStep step : steps.outline.getTestSteps()) {
+			r.startStep(step);
+			r.finishStep(PASSED);
+		}
+		r.finishTestCase(new TestCaseFinished(0L, steps.outline, PASSED));
+	}
+
+	@Benchmark
+	public void step_lifecycle(Reporter reporter, RunningScenario scenario, Steps steps) {
+		reporter.reporter.startStep(steps.parameterStep);
+		reporter.reporter.finishStep(PASSED);
+	}
+
+	@Benchmark
+	public StartTestItemRQ start_step_request(Reporter reporter, Steps steps) {
+		return reporter.reporter.startStepRequest(steps.parameterStep, "", "When ");
+	}
+
+	@Benchmark
+	public List<ParameterResource> parameters(Reporter reporter, Steps steps) {
+		return reporter.reporter.parameters(steps.parameterCodeRef, steps.parameterStep);
+	}
+
+	@Benchmark
+	public String multiline_argument_doc_string(Reporter reporter, Steps steps) {
+		return reporter.reporter.multilineArgument(steps.docStringStep);
+	}
+
+	@Benchmark
+	public String multiline_argument_data_table(Reporter reporter, Steps steps) {
+		return reporter.reporter.multilineArgument(steps.dataTableStep);
+	}
+
+	@Benchmark
+	public String code_ref(Reporter reporter, Steps steps) {
+		return reporter.reporter.codeRef(steps.parameterStep);
+	}
+
+	@Benchmark
+	public TestCaseIdEntry test_case_id(Reporter reporter, Steps steps) {
+		return reporter.reporter.testCaseId(steps.parameterStep, steps.parameterCodeRef);
+	}
+
+	@Benchmark
+	public RunningContext.FeatureContext feature_parsing(Steps steps) {
+		return new RunningContext.FeatureContext(steps.outline);
+	}
+
+	@Benchmark
+	public RunningContext.ScenarioContext scenario_context(Steps steps) {
+		return steps.outlineFeature.getScenarioContext(steps.outline);
+	}
+}
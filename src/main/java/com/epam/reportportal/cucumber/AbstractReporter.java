@@ -17,18 +17,37 @@ package com.epam.reportportal.cucumber;
 
 import com.epam.reportportal.annotations.TestCaseId;
 import com.epam.reportportal.annotations.attribute.Attributes;
+import com.epam.reportportal.cucumber.backpressure.BackpressurePolicy;
+import com.epam.reportportal.cucumber.backpressure.InFlightWindow;
+import com.epam.reportportal.cucumber.backpressure.LogSpill;
+import com.epam.reportportal.cucumber.backpressure.PayloadSize;
+import com.epam.reportportal.cucumber.budget.Degradation;
+import com.epam.reportportal.cucumber.budget.LogOverflow;
+import com.epam.reportportal.cucumber.budget.RequestBudget;
+import com.epam.reportportal.cucumber.jfr.ReporterEvent;
+import com.epam.reportportal.cucumber.jfr.ReporterEvents;
+import com.epam.reportportal.cucumber.journal.Journal;
+import com.epam.reportportal.cucumber.journal.JournalWriter;
+import com.epam.reportportal.cucumber.metrics.OverheadSummary;
+import com.epam.reportportal.cucumber.metrics.ReporterMetrics;
+import com.epam.reportportal.cucumber.metrics.ReporterMetrics.Operation;
+import com.epam.reportportal.cucumber.sink.ReportPortalSink;
+import com.epam.reportportal.cucumber.sink.ReportingSink;
+import com.epam.reportportal.cucumber.util.DeduplicatingStackTraceRenderer;
+import com.epam.reportportal.cucumber.util.LogCoalescer;
+import com.epam.reportportal.cucumber.util.MimeTypeCache;
+import com.epam.reportportal.cucumber.util.StackTraceRenderer;
 import com.epam.reportportal.listeners.ItemStatus;
 import com.epam.reportportal.listeners.ItemType;
 import com.epam.reportportal.listeners.ListenerParameters;
-import com.epam.reportportal.message.ReportPortalMessage;
 import com.epam.reportportal.service.Launch;
 import com.epam.reportportal.service.ReportPortal;
 import com.epam.reportportal.service.item.TestCaseIdEntry;
 import com.epam.reportportal.service.tree.TestItemTree;
 import com.epam.reportportal.utils.*;
-import com.epam.reportportal.utils.files.ByteSource;
 import com.epam.reportportal.utils.formatting.MarkdownUtils;
 import com.epam.reportportal.utils.http.ContentType;
+import com.epam.reportportal.utils.properties.PropertiesLoader;
 import com.epam.reportportal.utils.properties.SystemAttributesExtractor;
 import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
 import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
@@ -36,16 +55,19 @@ import com.epam.ta.reportportal.ws.model.ParameterResource;
 import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
 import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
 import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
 import cucumber.api.HookType;
 import cucumber.api.Result;
 import cucumber.api.TestCase;
 import cucumber.api.TestStep;
 import cucumber.api.event.*;
 import cucumber.api.formatter.Formatter;
+import gherkin.ast.Background;
 import gherkin.ast.Feature;
 import gherkin.ast.Step;
 import gherkin.ast.Tag;
 import gherkin.pickles.*;
+import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -55,19 +77,17 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static com.epam.reportportal.cucumber.Utils.*;
 import static com.epam.reportportal.cucumber.util.ItemTreeUtils.createKey;
 import static com.epam.reportportal.cucumber.util.ItemTreeUtils.retrieveLeaf;
-import static com.epam.reportportal.utils.formatting.ExceptionUtils.getStackTrace;
 import static java.lang.String.format;
 import static java.util.Optional.of;
 import static java.util.Optional.ofNullable;
@@ -85,38 +105,68 @@ public abstract class AbstractReporter implements Formatter {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractReporter.class);
 	private static final String AGENT_PROPERTIES_FILE = "agent.properties";
-	private static final String STEP_DEFINITION_FIELD_NAME = "stepDefinition";
-	private static final String GET_LOCATION_METHOD_NAME = "getLocation";
 	private static final String METHOD_OPENING_BRACKET = "(";
 	private static final String DOCSTRING_DECORATOR = "\n\"\"\"\n";
 	private static final String ERROR_FORMAT = "Error:\n%s";
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+	private static final String COLLAPSED_STEP_STATUS_FORMAT = "Status: %s, duration: %d ms";
+	private static final String COLLAPSED_STEP_ARGUMENTS_INFIX = ", arguments: ";
+	private static final String[] DEGRADED_LOG_LEVELS = { "FATAL", "ERROR", "WARN" };
+	private static final String SKIPPED_STEPS_NAME = "Skipped steps";
+	private static final String LOG_OVERFLOW_FORMAT = "%d log entries (%d bytes) exceeded the item log limit and are attached as %s";
+	private static final String OUTLINE_SUMMARY_FORMAT = "%d of %d example rows passed";
+	private static final List<String> OUTLINE_TABLE_HEADER = Collections.unmodifiableList(Arrays.asList("Row",
+			"Parameters",
+			"Duration, ms"
+	));
+	private static final Pair<String, String> BEFORE_HOOKS = Pair.of(ItemType.BEFORE_TEST.name(), "Before hooks");
+	private static final Pair<String, String> AFTER_HOOKS = Pair.of(ItemType.AFTER_TEST.name(), "After hooks");
+	private static final Pair<String, String> OTHER_HOOKS = Pair.of(ItemType.TEST.name(), "Hook");
 
 	public static final TestItemTree ITEM_TREE = new TestItemTree();
 	private static volatile ReportPortal REPORT_PORTAL = ReportPortal.builder().build();
 
 	protected Supplier<Launch> launch;
+	private volatile Supplier<ReportPortal> reportPortal;
 	protected static final String COLON_INFIX = ": ";
 	protected static final String SKIPPED_ISSUE_KEY = "skippedIssue";
 
+	/**
+	 * Features by their URIs. Each feature context owns the state of its running scenarios and its end time, so threads
+	 * which execute different features touch this map only once per scenario and never share anything else.
+	 */
 	private final Map<String, RunningContext.FeatureContext> currentFeatureContextMap = new ConcurrentHashMap<>();
 
-	private final Map<Pair<Integer, String>, RunningContext.ScenarioContext> currentScenarioContextMap = new ConcurrentHashMap<>();
+	// Maybe does not override equals and hashCode, so the map works by item ID object identity
+	private final Map<Maybe<String>, LogOverflow> logOverflows = new ConcurrentHashMap<>();
 
 	private final ThreadLocal<RunningContext.ScenarioContext> currentScenarioContext = new ThreadLocal<>();
 
-	// There is no event for recognizing end of feature in Cucumber.
-	// This map is used to record the last scenario time and its feature uri.
-	// End of feature occurs once launch is finished.
-	private final Map<String, Date> featureEndTime = new ConcurrentHashMap<>();
+	private final Supplier<ReporterParameters> reporterParameters = new MemoizingSupplier<>(this::buildReporterParameters);
 
-	/**
-	 * This map uses to record the description of the scenario and the step to append the error to the description.
-	 */
-	private final Map<Maybe<String>, String> descriptionsMap = new ConcurrentHashMap<>();
-	/**
-	 * This map uses to record errors to append to the description.
-	 */
-	private final Map<Maybe<String>, Throwable> errorMap = new ConcurrentHashMap<>();
+	private final Supplier<StackTraceRenderer> stackTraceRenderer = new MemoizingSupplier<>(this::buildStackTraceRenderer);
+
+	private final Supplier<InFlightWindow> inFlightWindow = new MemoizingSupplier<>(this::buildInFlightWindow);
+
+	private final Supplier<RequestBudget> requestBudget = new MemoizingSupplier<>(this::buildRequestBudget);
+
+	private final MemoizingSupplier<LogCoalescer<Maybe<String>>> logCoalescer = new MemoizingSupplier<>(this::buildLogCoalescer);
+
+	private final MimeTypeCache mimeTypeCache = new MimeTypeCache();
+
+	private final MemoizingSupplier<ExecutorService> mimeTypeExecutor = new MemoizingSupplier<>(
+			AbstractReporter::buildMimeTypeExecutor);
+
+	// the last attachment submitted for MIME type detection per item, the executor runs them in order
+	private final Map<Maybe<String>, Future<?>> pendingEmbeddings = new ConcurrentHashMap<>();
+
+	private volatile LogSpill logSpill;
+
+	private volatile ReportingSink reportingSink;
+
+	private final ReporterMetrics metrics = new ReporterMetrics(this::getInFlightWindow);
+
+	private volatile Set<ItemAttributesRQ> launchAttributes;
 
 	public static ReportPortal getReportPortal() {
 		return REPORT_PORTAL;
@@ -128,8 +178,9 @@ public abstract class AbstractReporter implements Formatter {
 
 	protected void handleEndOfFeature() {
 		currentFeatureContextMap.values().forEach(f -> {
-			Date featureCompletionDateTime = featureEndTime.get(f.getUri());
-			finishFeature(f.getFeatureId(), featureCompletionDateTime);
+			// outlines which were run partially, e.g. because of filters
+			f.getCompactOutlines().forEach(o -> finishCompactOutline(f, o));
+			finishFeature(f.getFeatureId(), f.getEndTime());
 			removeFromTree(f);
 		});
 		currentFeatureContextMap.clear();
@@ -161,6 +212,8 @@ public abstract class AbstractReporter implements Formatter {
 
 	protected EventHandler<TestRunFinished> getTestRunFinishedHandler() {
 		return event -> {
+			awaitEmbeddings();
+			drainSpilledLogs(true);
 			handleEndOfFeature();
 			afterLaunch();
 		};
@@ -189,69 +242,154 @@ public abstract class AbstractReporter implements Formatter {
 	 * <li>{@link EmbedEvent} - calling scenario.embed in a hook triggers this event.
 	 * <li>{@link WriteEvent} - calling scenario.write in a hook triggers this event.
 	 * </ul>
+	 * Each handler execution time is recorded in the reporter {@link #getMetrics() metrics}.
 	 */
 	@Override
 	public void setEventPublisher(EventPublisher publisher) {
-		publisher.registerHandlerFor(TestRunStarted.class, getTestRunStartedHandler());
-		publisher.registerHandlerFor(TestSourceRead.class, getTestSourceReadHandler());
-		publisher.registerHandlerFor(TestCaseStarted.class, getTestCaseStartedHandler());
-		publisher.registerHandlerFor(TestStepStarted.class, getTestStepStartedHandler());
-		publisher.registerHandlerFor(TestStepFinished.class, getTestStepFinishedHandler());
-		publisher.registerHandlerFor(TestCaseFinished.class, getTestCaseFinishedHandler());
-		publisher.registerHandlerFor(TestRunFinished.class, getTestRunFinishedHandler());
-		publisher.registerHandlerFor(EmbedEvent.class, getEmbedEventHandler());
-		publisher.registerHandlerFor(WriteEvent.class, getWriteEventHandler());
+		publisher.registerHandlerFor(TestRunStarted.class, metrics.timed(Operation.LAUNCH_START, getTestRunStartedHandler()));
+		publisher.registerHandlerFor(TestSourceRead.class, metrics.timed(Operation.SOURCE_READ, getTestSourceReadHandler()));
+		publisher.registerHandlerFor(TestCaseStarted.class, metrics.timed(Operation.TEST_CASE_STARTED, getTestCaseStartedHandler()));
+		publisher.registerHandlerFor(TestStepStarted.class, metrics.timed(Operation.TEST_STEP_STARTED, getTestStepStartedHandler()));
+		publisher.registerHandlerFor(TestStepFinished.class, metrics.timed(Operation.TEST_STEP_FINISHED, getTestStepFinishedHandler()));
+		publisher.registerHandlerFor(TestCaseFinished.class, metrics.timed(Operation.TEST_CASE_FINISHED, getTestCaseFinishedHandler()));
+		publisher.registerHandlerFor(TestRunFinished.class, metrics.timed(Operation.LAUNCH_FINISH, getTestRunFinishedHandler()));
+		publisher.registerHandlerFor(EmbedEvent.class, metrics.timed(Operation.EMBEDDING, getEmbedEventHandler()));
+		publisher.registerHandlerFor(WriteEvent.class, metrics.timed(Operation.LOG, getWriteEventHandler()));
 	}
 
 	/**
 	 * Start RP launch
 	 */
 	protected void startLaunch() {
+		Supplier<ReportPortal> rp = new MemoizingSupplier<>(this::buildReportPortal);
+		reportPortal = rp;
 		launch = new MemoizingSupplier<>(new Supplier<Launch>() {
 
 			/* should not be lazy */
-			private final Date startTime = Calendar.getInstance().getTime();
+			private final Date startTime = new Date();
 
 			@Override
 			public Launch get() {
-				final ReportPortal reportPortal = buildReportPortal();
-				ListenerParameters parameters = reportPortal.getParameters();
-
-				StartLaunchRQ rq = new StartLaunchRQ();
-				rq.setName(parameters.getLaunchName());
-				rq.setStartTime(startTime);
-				rq.setMode(parameters.getLaunchRunningMode());
-				HashSet<ItemAttributesRQ> attributes = new HashSet<>(parameters.getAttributes());
-				rq.setAttributes(attributes);
-				attributes.addAll(SystemAttributesExtractor.extract(AGENT_PROPERTIES_FILE, AbstractReporter.class.getClassLoader()));
-				rq.setDescription(parameters.getDescription());
-				rq.setRerun(parameters.isRerun());
-				if (isNotBlank(parameters.getRerunOf())) {
-					rq.setRerunOf(parameters.getRerunOf());
-				}
-
-				if (null != parameters.getSkippedAnIssue()) {
-					ItemAttributesRQ skippedIssueAttribute = new ItemAttributesRQ();
-					skippedIssueAttribute.setKey(SKIPPED_ISSUE_KEY);
-					skippedIssueAttribute.setValue(parameters.getSkippedAnIssue().toString());
-					skippedIssueAttribute.setSystem(true);
-					attributes.add(skippedIssueAttribute);
-				}
-
-				return reportPortal.newLaunch(rq);
+				final ReportPortal reportPortal = rp.get();
+				return reportPortal.newLaunch(buildStartLaunchRq(startTime, reportPortal.getParameters()));
 			}
 		});
 	}
 
+	/**
+	 * Returns ReportPortal parameters of the current launch without creating the launch, so nothing is built for
+	 * ReportPortal in offline mode
+	 *
+	 * @return ReportPortal parameters
+	 */
+	@Nonnull
+	protected ListenerParameters getListenerParameters() {
+		Supplier<ReportPortal> rp = reportPortal;
+		return rp != null ? rp.get().getParameters() : launch.get().getParameters();
+	}
+
+	/**
+	 * Extension point to customize launch creation request
+	 *
+	 * @param startTime  launch start time
+	 * @param parameters ReportPortal parameters
+	 * @return start launch request
+	 */
+	@Nonnull
+	protected StartLaunchRQ buildStartLaunchRq(@Nonnull Date startTime, @Nonnull ListenerParameters parameters) {
+		StartLaunchRQ rq = new StartLaunchRQ();
+		rq.setName(parameters.getLaunchName());
+		rq.setStartTime(startTime);
+		rq.setMode(parameters.getLaunchRunningMode());
+		HashSet<ItemAttributesRQ> attributes = new HashSet<>(parameters.getAttributes());
+		rq.setAttributes(attributes);
+		attributes.addAll(SystemAttributesExtractor.extract(AGENT_PROPERTIES_FILE, AbstractReporter.class.getClassLoader()));
+		rq.setDescription(parameters.getDescription());
+		rq.setRerun(parameters.isRerun());
+		if (isNotBlank(parameters.getRerunOf())) {
+			rq.setRerunOf(parameters.getRerunOf());
+		}
+
+		if (null != parameters.getSkippedAnIssue()) {
+			ItemAttributesRQ skippedIssueAttribute = new ItemAttributesRQ();
+			skippedIssueAttribute.setKey(SKIPPED_ISSUE_KEY);
+			skippedIssueAttribute.setValue(parameters.getSkippedAnIssue().toString());
+			skippedIssueAttribute.setSystem(true);
+			attributes.add(skippedIssueAttribute);
+		}
+		return rq;
+	}
+
 	/**
 	 * Manipulations before the launch starts
 	 */
 	protected void beforeLaunch() {
+		if (getReporterParameters().isMetricsJmx()) {
+			metrics.register(getClass().getName());
+		}
+		metrics.onLaunchStarted();
 		startLaunch();
-		Maybe<String> launchId = launch.get().start();
+		ReportingSink sink = buildReportingSink();
+		reportingSink = sink;
+		StartLaunchRQ startLaunchRq = buildStartLaunchRq(new Date(), getListenerParameters());
+		launchAttributes = startLaunchRq.getAttributes();
+		Maybe<String> launchId = sink.startLaunch(startLaunchRq);
 		ITEM_TREE.setLaunchId(launchId);
 	}
 
+	/**
+	 * Extension point to customize where reporting events go. By default they are sent to ReportPortal, or written to
+	 * a local journal in offline mode.
+	 *
+	 * @return reporting sink
+	 */
+	@Nonnull
+	protected ReportingSink buildReportingSink() {
+		if (getReporterParameters().isJournalEnable()) {
+			Journal journal = openJournal();
+			if (journal != null) {
+				return journal;
+			}
+		}
+		// a bounded window needs to know when logs reach the server, so the sink sends them itself
+		Supplier<ReportPortal> rp = reportPortal;
+		return new ReportPortalSink(() -> launch.get(),
+				rp != null && getInFlightWindow().isBounded() ? () -> rp.get().getClient() : null
+		);
+	}
+
+	/**
+	 * Returns the sink of the current launch
+	 *
+	 * @return reporting sink
+	 */
+	protected ReportingSink getReportingSink() {
+		return reportingSink;
+	}
+
+	/**
+	 * Extension point to customize the offline mode journal
+	 *
+	 * @return a journal to write reporting events to instead of sending them to ReportPortal
+	 * @throws IOException if unable to create the journal files
+	 */
+	@Nonnull
+	protected Journal buildJournal() throws IOException {
+		ReporterParameters parameters = getReporterParameters();
+		String name = System.currentTimeMillis() + "-" + UUID.randomUUID();
+		return new Journal(new JournalWriter(Paths.get(parameters.getJournalDirectory(), name), parameters.getJournalSegmentSize()));
+	}
+
+	@Nullable
+	private Journal openJournal() {
+		try {
+			return buildJournal();
+		} catch (IOException e) {
+			LOGGER.error("Unable to create offline journal, reporting to ReportPortal directly", e);
+			return null;
+		}
+	}
+
 	/**
 	 * Extension point to customize ReportPortal instance
 	 *
@@ -261,13 +399,65 @@ public abstract class AbstractReporter implements Formatter {
 		return ReportPortal.builder().build();
 	}
 
+	/**
+	 * Extension point to customize Cucumber agent specific parameters
+	 *
+	 * @return agent parameters
+	 */
+	protected ReporterParameters buildReporterParameters() {
+		return new ReporterParameters(PropertiesLoader.load());
+	}
+
+	/**
+	 * Returns Cucumber agent specific parameters, the parameters are built once on the first call
+	 *
+	 * @return agent parameters
+	 */
+	@Nonnull
+	protected ReporterParameters getReporterParameters() {
+		return reporterParameters.get();
+	}
+
+	/**
+	 * Extension point to customize error stack trace rendering
+	 *
+	 * @return stack trace renderer
+	 */
+	@Nonnull
+	protected StackTraceRenderer buildStackTraceRenderer() {
+		ReporterParameters parameters = getReporterParameters();
+		if (parameters.isErrorDeduplication()) {
+			return new DeduplicatingStackTraceRenderer(
+					parameters.isErrorTrim(),
+					parameters.getErrorDepth(),
+					parameters.getErrorFingerprintFrames()
+			);
+		}
+		return new StackTraceRenderer(parameters.isErrorTrim(), parameters.getErrorDepth());
+	}
+
 	/**
 	 * Finish RP launch
 	 */
 	protected void afterLaunch() {
+		ReporterEvent launchEvent = ReporterEvents.begin(ReporterEvents.Type.LAUNCH_FINISH);
 		FinishExecutionRQ finishLaunchRq = new FinishExecutionRQ();
-		finishLaunchRq.setEndTime(Calendar.getInstance().getTime());
-		launch.get().finish(finishLaunchRq);
+		finishLaunchRq.setEndTime(new Date());
+		if (getReporterParameters().isMetricsSummary()) {
+			OverheadSummary summary = metrics.getSummary();
+			LOGGER.info("ReportPortal agent overhead: {}", summary);
+			// launch attributes are sent again, so the summary is added to them regardless of how the server merges them
+			Set<ItemAttributesRQ> attributes = new LinkedHashSet<>(ofNullable(launchAttributes).orElse(Collections.emptySet()));
+			attributes.addAll(summary.toAttributes());
+			finishLaunchRq.setAttributes(attributes);
+		}
+		RequestBudget budget = getRequestBudget();
+		if (budget.isDegraded()) {
+			LOGGER.warn("ReportPortal request budget was exceeded, reporting was degraded: {}", budget);
+		}
+		reportingSink.finishLaunch(finishLaunchRq);
+		metrics.unregister();
+		launchEvent.commit(null, 0, 0);
 	}
 
 	/**
@@ -287,7 +477,7 @@ public abstract class AbstractReporter implements Formatter {
 		String codeRef = getCodeRef(uri, line);
 		rq.setCodeRef(codeRef);
 		rq.setAttributes(extractPickleTags(testCase.getTags()));
-		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setStartTime(new Date());
 		String type = getScenarioTestItemType();
 		rq.setType(type);
 		if ("STEP".equals(type)) {
@@ -296,6 +486,188 @@ public abstract class AbstractReporter implements Formatter {
 		return rq;
 	}
 
+	/**
+	 * Extension point to customize the in-flight request window
+	 *
+	 * @return in-flight request window
+	 */
+	@Nonnull
+	protected InFlightWindow buildInFlightWindow() {
+		ReporterParameters parameters = getReporterParameters();
+		return new InFlightWindow(
+				parameters.getWindowRequests(),
+				parameters.getWindowBytes(),
+				parameters.getWindowPolicy(),
+				parameters.getWindowTimeout()
+		);
+	}
+
+	/**
+	 * Returns the window of requests which are sent to ReportPortal client, but not completed yet. Its current depth can
+	 * be used to monitor reporting backlog.
+	 *
+	 * @return in-flight request window
+	 */
+	@Nonnull
+	public InFlightWindow getInFlightWindow() {
+		return inFlightWindow.get();
+	}
+
+	/**
+	 * Returns the reporter's own cost: event handler latencies, request counters and in-flight request window state.
+	 *
+	 * @return reporter metrics
+	 */
+	@Nonnull
+	public ReporterMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Extension point to customize the request budget
+	 *
+	 * @return request budget
+	 */
+	@Nonnull
+	protected RequestBudget buildRequestBudget() {
+		ReporterParameters parameters = getReporterParameters();
+		return new RequestBudget(
+				parameters.getBudgetLaunchRequests(),
+				parameters.getBudgetLaunchBytes(),
+				parameters.getBudgetScenarioRequests(),
+				parameters.getBudgetDegradation()
+		);
+	}
+
+	/**
+	 * Extension point to customize coalescing of repeated logs
+	 *
+	 * @return log coalescer
+	 */
+	@Nonnull
+	protected LogCoalescer<Maybe<String>> buildLogCoalescer() {
+		return new LogCoalescer<>(getReporterParameters().getLogCoalesceWindow());
+	}
+
+	/**
+	 * Returns the number and the size of requests produced during the launch and the limits which degrade reporting
+	 * when exceeded.
+	 *
+	 * @return request budget
+	 */
+	@Nonnull
+	public RequestBudget getRequestBudget() {
+		return requestBudget.get();
+	}
+
+	/**
+	 * Returns a reporting mode for the current scenario according to the request budget. A scenario stays degraded
+	 * once it exceeds its budget, so its steps are reported consistently until it finishes.
+	 *
+	 * @return current reporting mode
+	 */
+	@Nonnull
+	protected Degradation getDegradation() {
+		RequestBudget budget = getRequestBudget();
+		if (!budget.isLimited()) {
+			return Degradation.NONE;
+		}
+		RunningContext.ScenarioContext context = getCurrentScenarioContext();
+		Degradation degradation = budget.getDegradation(context == null ? 0 : context.getRequests());
+		if (context != null && degradation != Degradation.NONE && !context.isDegraded()) {
+			context.setDegraded(true);
+			budget.onScenarioDegraded();
+			if (!budget.isLaunchExceeded()) {
+				LOGGER.warn(
+						"Scenario '{}' exceeded the request budget of {} requests, the rest of it is reported in {} mode",
+						context.getTestCase().getName(),
+						budget.getMaxScenarioRequests(),
+						degradation
+				);
+			}
+		}
+		return degradation;
+	}
+
+	private void accountRequest(long size) {
+		getRequestBudget().onRequest(size);
+		RunningContext.ScenarioContext context = getCurrentScenarioContext();
+		if (context != null) {
+			context.onRequest();
+		}
+	}
+
+	/**
+	 * Checks if a log should be dropped because the current reporting mode is degraded
+	 *
+	 * @param level a log level, or null for attachments
+	 * @return true if the log should not be sent
+	 */
+	private boolean isLogDropped(@Nullable String level) {
+		if (!getDegradation().includes(Degradation.DROP_INFO_LOGS)) {
+			return false;
+		}
+		if (level != null) {
+			for (String degradedLevel : DEGRADED_LOG_LEVELS) {
+				if (degradedLevel.equalsIgnoreCase(level)) {
+					return false;
+				}
+			}
+		}
+		getRequestBudget().onLogDropped();
+		return true;
+	}
+
+	/**
+	 * Send a start item request to the reporting sink accounting it in the in-flight request window
+	 *
+	 * @param parentId parent item id, or null for a root item
+	 * @param rq       item start request
+	 * @return item id
+	 */
+	@Nonnull
+	protected Maybe<String> sendStartTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		long size = PayloadSize.of(rq);
+		getInFlightWindow().acquireItem(size);
+		Maybe<String> id = reportingSink.startTestItem(parentId, rq);
+		metrics.onItemStarted(size);
+		accountRequest(size);
+		releaseOnComplete(id.ignoreElement(), size);
+		return id;
+	}
+
+	/**
+	 * Send a finish item request to the reporting sink accounting it in the in-flight request window
+	 *
+	 * @param itemId an ID of the item
+	 * @param rq     item finish request
+	 */
+	protected void sendFinishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		Future<?> embeddings = pendingEmbeddings.isEmpty() ? null : pendingEmbeddings.remove(itemId);
+		if (embeddings != null) {
+			// attachments of the item go before its finish and its log overflow
+			awaitEmbeddings(embeddings);
+		}
+		if (logCoalescer.isInitialized()) {
+			emitCoalescedLog(itemId, logCoalescer.get().flush(itemId));
+		}
+		LogOverflow overflow = logOverflows.isEmpty() ? null : logOverflows.remove(itemId);
+		if (overflow != null && overflow.isOverflown()) {
+			sendLogOverflow(itemId, overflow, rq.getEndTime());
+		}
+		long size = PayloadSize.of(rq);
+		getInFlightWindow().acquireItem(size);
+		metrics.onItemFinished(size);
+		accountRequest(size);
+		releaseOnComplete(reportingSink.finishTestItem(itemId, rq), size);
+	}
+
+	private void releaseOnComplete(@Nonnull Completable response, long size) {
+		InFlightWindow window = getInFlightWindow();
+		//noinspection ResultOfMethodCallIgnored
+		response.subscribe(() -> window.release(size), e -> window.release(size));
+	}
+
 	/**
 	 * Start Cucumber Scenario
 	 *
@@ -305,7 +677,7 @@ public abstract class AbstractReporter implements Formatter {
 	 */
 	@Nonnull
 	protected Maybe<String> startScenario(@Nonnull Maybe<String> featureId, @Nonnull StartTestItemRQ startScenarioRq) {
-		return launch.get().startTestItem(featureId, startScenarioRq);
+		return sendStartTestItem(featureId, startScenarioRq);
 	}
 
 	private void addToTree(RunningContext.FeatureContext featureContext, RunningContext.ScenarioContext scenarioContext) {
@@ -335,10 +707,21 @@ public abstract class AbstractReporter implements Formatter {
 				featureContext.getUri(),
 				scenarioContext.getLine()
 		);
+		String description = ofNullable(startTestItemRQ.getDescription()).orElse(StringUtils.EMPTY);
+		if (getReporterParameters().getOutlineMode() == OutlineMode.COMPACT && scenarioContext.getOutlineIteration() != null) {
+			// the row item is started only if the row gets a log or does not pass, under the outline item if it is a container
+			RunningContext.CompactOutline outline = featureContext.getCompactOutline(scenarioContext,
+					Utils.buildName(scenarioContext.getKeyword(), COLON_INFIX, scenarioContext.getScenarioDefinition().getName())
+			);
+			scenarioContext.setCompactOutline(outline);
+			scenarioContext.setItem(RunningContext.ItemHandle.deferred(() -> startScenario(isCompactOutlineContainer() ?
+					startCompactOutline(featureContext, outline) :
+					featureContext.getFeatureId(), startTestItemRQ), description));
+			return;
+		}
 		Maybe<String> id = startScenario(featureContext.getFeatureId(), startTestItemRQ);
-		descriptionsMap.put(id, ofNullable(startTestItemRQ.getDescription()).orElse(StringUtils.EMPTY));
-		scenarioContext.setId(id);
-		if (launch.get().getParameters().isCallbackReportingEnabled()) {
+		scenarioContext.setItem(new RunningContext.ItemHandle(id, description));
+		if (getListenerParameters().isCallbackReportingEnabled()) {
 			addToTree(featureContext, scenarioContext);
 		}
 	}
@@ -350,21 +733,130 @@ public abstract class AbstractReporter implements Formatter {
 
 	/**
 	 * Finish Cucumber scenario
-	 * Put scenario end time in a map to check last scenario end time per feature
+	 * Put scenario end time into its feature context to check last scenario end time per feature
 	 *
 	 * @param event Cucumber's TestCaseFinished object
 	 */
 	protected void afterScenario(TestCaseFinished event) {
 		RunningContext.ScenarioContext context = getCurrentScenarioContext();
-		if (mapItemStatus(event.result.getStatus()) == ItemStatus.FAILED) {
-			Optional.ofNullable(event.result.getError()).ifPresent(error -> errorMap.put(context.getId(), error));
+		finishHooks(context);
+		finishBackground(context);
+		finishSkippedSteps(context);
+		ItemStatus status = mapItemStatus(event.result.getStatus());
+		if (status == ItemStatus.FAILED) {
+			context.getItem().setError(event.result.getError());
+		}
+		RunningContext.FeatureContext featureContext = context.getFeatureContext();
+		featureContext.finishScenario(context);
+		RunningContext.CompactOutline outline = context.getCompactOutline();
+		Date endTime;
+		if (outline != null && !context.getItem().isStarted() && status == ItemStatus.PASSED) {
+			outline.addPassedRow(context.getOutlineIteration(), context.getOutlineParameters(), getDurationMillis(event.result, null));
+			endTime = new Date();
+		} else {
+			startPendingSteps(context);
+			endTime = finishTestItem(context.getItem().getId(), event.result.getStatus());
 		}
-		String featureUri = context.getFeatureUri();
-		currentScenarioContextMap.remove(Pair.of(context.getLine(), featureUri));
-		Date endTime = finishTestItem(context.getId(), event.result.getStatus());
-		featureEndTime.put(featureUri, endTime);
+		featureContext.setEndTime(endTime);
 		currentScenarioContext.set(null);
-		removeFromTree(currentFeatureContextMap.get(context.getFeatureUri()), context);
+		removeFromTree(featureContext, context);
+		if (outline != null && outline.finishRow(endTime)) {
+			finishCompactOutline(featureContext, outline);
+		}
+	}
+
+	/**
+	 * Reports steps of a compact outline row which passed before the row item was started
+	 *
+	 * @param context a scenario context
+	 */
+	private void startPendingSteps(@Nonnull RunningContext.ScenarioContext context) {
+		for (RunningContext.PendingItem step : context.pollPendingSteps()) {
+			Maybe<String> id = step.getItem().getId();
+			sendFinishTestItem(id, buildFinishTestItemRequest(id, step.getEndTime(), ItemStatus.PASSED));
+		}
+	}
+
+	/**
+	 * Extension point to customize the summary item of a compact Scenario Outline
+	 *
+	 * @param outline     the outline
+	 * @param uri         a path to the feature
+	 * @param description the outline summary
+	 * @return Request to ReportPortal
+	 */
+	@Nonnull
+	protected StartTestItemRQ buildStartOutlineRequest(@Nonnull RunningContext.CompactOutline outline, @Nonnull String uri,
+			@Nonnull String description) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(outline.getName());
+		rq.setDescription(description);
+		rq.setStartTime(outline.getStartTime());
+		rq.setType(getScenarioTestItemType());
+		rq.setCodeRef(getCodeRef(uri, outline.getLine()));
+		return rq;
+	}
+
+	/**
+	 * Checks if rows of a compact Scenario Outline which are reported as their own items are children of the outline
+	 * item. Otherwise they are its siblings, and the outline item reports only rows which passed without logs.
+	 *
+	 * @return true if the outline item is a parent of its row items
+	 */
+	protected boolean isCompactOutlineContainer() {
+		return true;
+	}
+
+	/**
+	 * Starts the summary item of a compact Scenario Outline, if it is not started yet
+	 *
+	 * @param featureContext the outline feature context
+	 * @param outline        the outline
+	 * @return the outline item ID
+	 */
+	@Nonnull
+	private Maybe<String> startCompactOutline(@Nonnull RunningContext.FeatureContext featureContext,
+			@Nonnull RunningContext.CompactOutline outline) {
+		return outline.getId(() -> sendStartTestItem(featureContext.getFeatureId(),
+				buildStartOutlineRequest(outline, featureContext.getUri(), format(OUTLINE_SUMMARY_FORMAT,
+						outline.getPassedRows().size(),
+						outline.getRows()
+				))
+		));
+	}
+
+	/**
+	 * Reports example rows of a Scenario Outline which passed without logs as a table log of the outline item, according
+	 * to {@link ReporterParameters#getOutlineMode()}. Rows which were reported as their own items are already children
+	 * of the outline item, or its siblings if the outline item is not a container, see
+	 * {@link #isCompactOutlineContainer()}. Called once all rows of the outline are finished or at the end of the feature.
+	 *
+	 * @param featureContext the outline feature context
+	 * @param outline        the outline
+	 */
+	protected void finishCompactOutline(@Nonnull RunningContext.FeatureContext featureContext,
+			@Nonnull RunningContext.CompactOutline outline) {
+		if (!featureContext.removeCompactOutline(outline)) {
+			return;
+		}
+		List<List<String>> rows = outline.getPassedRows();
+		boolean rowItems = isCompactOutlineContainer() && outline.isStarted();
+		if (rows.isEmpty() && !rowItems) {
+			return;
+		}
+		Date endTime = ofNullable(outline.getEndTime()).orElseGet(Date::new);
+		Maybe<String> id = startCompactOutline(featureContext, outline);
+		if (!rows.isEmpty()) {
+			List<List<String>> table = new ArrayList<>(rows.size() + 1);
+			table.add(OUTLINE_TABLE_HEADER);
+			table.addAll(rows);
+			String message = MarkdownUtils.asMarkdown(MarkdownUtils.formatDataTable(table));
+			emitLog(id, mapLevel(Result.Type.PASSED), outline.getStartTime(), message, null);
+		}
+		// the status of an outline with row items is calculated from them, like the status of a feature
+		FinishTestItemRQ rq = buildFinishTestItemRequest(id, endTime, rowItems ? null : ItemStatus.PASSED);
+		rq.setDescription(format(OUTLINE_SUMMARY_FORMAT, rows.size(), outline.getRows()));
+		sendFinishTestItem(id, rq);
 	}
 
 	/**
@@ -379,7 +871,7 @@ public abstract class AbstractReporter implements Formatter {
 		StartTestItemRQ rq = new StartTestItemRQ();
 		rq.setName(buildName(stepPrefix, keyword, testStep.getStepText()));
 		rq.setDescription(buildMultilineArgument(testStep));
-		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setStartTime(new Date());
 		rq.setType("STEP");
 		String codeRef = getCodeRef(testStep);
 		rq.setParameters(getParameters(codeRef, testStep));
@@ -398,7 +890,25 @@ public abstract class AbstractReporter implements Formatter {
 	 */
 	@Nonnull
 	protected Maybe<String> startStep(@Nonnull Maybe<String> scenarioId, @Nonnull StartTestItemRQ startStepRq) {
-		return launch.get().startTestItem(scenarioId, startStepRq);
+		return sendStartTestItem(scenarioId, startStepRq);
+	}
+
+	@Nonnull
+	private Maybe<String> startStep(@Nonnull TestStep testStep, @Nonnull Maybe<String> scenarioId,
+			@Nonnull StartTestItemRQ startStepRq) {
+		Maybe<String> stepId = startStep(scenarioId, startStepRq);
+		stepItemStarted(testStep, stepId);
+		return stepId;
+	}
+
+	/**
+	 * Called once the item of a step is started, which happens later than the step start if the item is deferred
+	 *
+	 * @param testStep a cucumber step object
+	 * @param stepId   the step item ID
+	 */
+	@SuppressWarnings("unused")
+	protected void stepItemStarted(@Nonnull TestStep testStep, @Nonnull Maybe<String> stepId) {
 	}
 
 	private void addToTree(RunningContext.ScenarioContext scenarioContext, String text, Maybe<String> stepId) {
@@ -417,15 +927,60 @@ public abstract class AbstractReporter implements Formatter {
 	protected void beforeStep(TestStep testStep) {
 		RunningContext.ScenarioContext context = getCurrentScenarioContext();
 		Step step = context.getStep(testStep);
+		boolean backgroundStep = context.isBackgroundStep(step);
+		if (!backgroundStep) {
+			finishBackground(context);
+		}
+		if (context.getSkippedSteps() != null) {
+			// the step is expected to be skipped, so its request is not even built
+			String name = buildName(context.getStepPrefix(), step.getKeyword(), testStep.getStepText());
+			context.setCollapsedStep(new RunningContext.CollapsedStep(testStep, name, new Date(), Degradation.NONE));
+			return;
+		}
+		boolean compactRow = context.getCompactOutline() != null;
+		Degradation degradation = getDegradation();
+		if (!compactRow && isStepReportedAsLog(degradation)) {
+			if (degradation != Degradation.NONE) {
+				getRequestBudget().onStepCollapsed();
+			}
+			String name = buildName(context.getStepPrefix(), step.getKeyword(), testStep.getStepText());
+			context.setCollapsedStep(new RunningContext.CollapsedStep(testStep, name, new Date(), degradation));
+			return;
+		}
 		StartTestItemRQ startTestItemRQ = buildStartStepRequest(testStep, context.getStepPrefix(), step.getKeyword());
-		Maybe<String> stepId = startStep(context.getId(), startTestItemRQ);
-		context.setCurrentStepId(stepId);
+		String description = startTestItemRQ.isHasStats() ? ofNullable(startTestItemRQ.getDescription()).orElse(StringUtils.EMPTY) : null;
 		String stepText = step.getText();
 		context.setCurrentText(stepText);
-		if (startTestItemRQ.isHasStats()) {
-			descriptionsMap.put(stepId, ofNullable(startTestItemRQ.getDescription()).orElse(StringUtils.EMPTY));
+		if (compactRow) {
+			// the step item is started only if its row item is started, passed steps before it are reported then
+			context.setCurrentStep(RunningContext.ItemHandle.deferred(() -> {
+				Maybe<String> scenarioId = context.getId();
+				startPendingSteps(context);
+				return startStep(testStep, scenarioId, startTestItemRQ);
+			}, description));
+			return;
 		}
-		if (launch.get().getParameters().isCallbackReportingEnabled()) {
+		if (backgroundStep && getReporterParameters().getBackgroundMode() != BackgroundMode.STEPS) {
+			// the step item is started only if the step gets a log or does not pass
+			RunningContext.CollapsedBackground background = context.getCollapsedBackground();
+			if (background == null) {
+				Background gherkinBackground = context.getBackground();
+				background = new RunningContext.CollapsedBackground(buildName(gherkinBackground.getKeyword(),
+						COLON_INFIX,
+						gherkinBackground.getName()
+				));
+				context.setCollapsedBackground(background);
+			}
+			background.startStep(step.getKeyword() + stepText, buildMultilineArgument(testStep).trim(), startTestItemRQ.getStartTime());
+			Maybe<String> scenarioId = context.getId();
+			context.setCurrentStep(RunningContext.ItemHandle.deferred(() -> startStep(testStep, scenarioId, startTestItemRQ),
+					description
+			));
+			return;
+		}
+		Maybe<String> stepId = startStep(testStep, context.getId(), startTestItemRQ);
+		context.setCurrentStep(new RunningContext.ItemHandle(stepId, description));
+		if (getListenerParameters().isCallbackReportingEnabled()) {
 			addToTree(context, stepText, stepId);
 		}
 	}
@@ -436,14 +991,199 @@ public abstract class AbstractReporter implements Formatter {
 	 * @param result Step result
 	 */
 	protected void afterStep(Result result) {
-		reportResult(result, null);
 		RunningContext.ScenarioContext context = getCurrentScenarioContext();
-		if (mapItemStatus(result.getStatus()) == ItemStatus.FAILED) {
-			Optional.ofNullable(result.getError()).ifPresent(error -> errorMap.put(context.getCurrentStepId(), error));
+		RunningContext.CollapsedStep collapsedStep = context.getCollapsedStep();
+		if (collapsedStep != null) {
+			context.setCollapsedStep(null);
+			RunningContext.SkippedSteps skippedSteps = context.getSkippedSteps();
+			if (skippedSteps != null && result.getStatus() == Result.Type.SKIPPED) {
+				skippedSteps.addStep(collapsedStep.getName(), new Date());
+			} else {
+				afterCollapsedStep(collapsedStep, result);
+				startSkippedSteps(context, result.getStatus());
+			}
+			return;
+		}
+		reportResult(result, null);
+		RunningContext.ItemHandle stepItem = context.getCurrentStep();
+		ItemStatus status = mapItemStatus(result.getStatus());
+		if (status == ItemStatus.FAILED) {
+			stepItem.setError(result.getError());
+		}
+		RunningContext.CollapsedBackground background = context.getCollapsedBackground();
+		boolean collapsed = !stepItem.isStarted() && status == ItemStatus.PASSED;
+		if (background != null) {
+			background.finishStep(collapsed, new Date(), getDurationMillis(result, null));
+		} else if (collapsed) {
+			context.addPendingStep(new RunningContext.PendingItem(stepItem, new Date()));
+		}
+		if (!collapsed) {
+			finishTestItem(stepItem.getId(), result.getStatus());
 		}
-		finishTestItem(context.getCurrentStepId(), result.getStatus());
-		context.setCurrentStepId(null);
+		context.setCurrentStep(null);
 		context.setCurrentText(null);
+		startSkippedSteps(context, result.getStatus());
+	}
+
+	/**
+	 * Starts collecting steps which Cucumber skips after a failure, if they are reported together according to
+	 * {@link ReporterParameters#getSkippedMode()}
+	 *
+	 * @param context a scenario context
+	 * @param status  a status of the finished step or before-hook
+	 */
+	private void startSkippedSteps(@Nonnull RunningContext.ScenarioContext context, @Nonnull Result.Type status) {
+		if (context.getSkippedSteps() != null || status == Result.Type.PASSED || status == Result.Type.SKIPPED) {
+			return;
+		}
+		if (getReporterParameters().getSkippedMode() != SkippedStepsMode.STEPS) {
+			context.setSkippedSteps(new RunningContext.SkippedSteps(new Date()));
+		}
+	}
+
+	/**
+	 * Extension point to customize the item of steps skipped after a failure
+	 *
+	 * @param description skipped step list
+	 * @param startTime   the failure time
+	 * @return Request to ReportPortal
+	 */
+	@Nonnull
+	protected StartTestItemRQ buildStartSkippedStepsRequest(@Nonnull String description, @Nonnull Date startTime) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(SKIPPED_STEPS_NAME);
+		rq.setDescription(description);
+		rq.setStartTime(startTime);
+		rq.setType("STEP");
+		return rq;
+	}
+
+	/**
+	 * Reports steps skipped after a failure as one item or one log, according to
+	 * {@link ReporterParameters#getSkippedMode()}. Called once the steps are over.
+	 *
+	 * @param context a scenario context
+	 */
+	protected void finishSkippedSteps(@Nonnull RunningContext.ScenarioContext context) {
+		RunningContext.SkippedSteps skippedSteps = context.getSkippedSteps();
+		if (skippedSteps == null || skippedSteps.getSteps().isEmpty()) {
+			return;
+		}
+		context.setSkippedSteps(new RunningContext.SkippedSteps(skippedSteps.getEndTime()));
+		String steps = String.join("\n", skippedSteps.getSteps());
+		if (getReporterParameters().getSkippedMode() == SkippedStepsMode.ITEM) {
+			StartTestItemRQ rq = buildStartSkippedStepsRequest(steps, skippedSteps.getStartTime());
+			Maybe<String> id = sendStartTestItem(context.getId(), rq);
+			sendFinishTestItem(id, buildFinishTestItemRequest(id, skippedSteps.getEndTime(), ItemStatus.SKIPPED));
+		} else {
+			emitLog(mapLevel(Result.Type.SKIPPED), skippedSteps.getStartTime(), SKIPPED_STEPS_NAME + ":\n" + steps, null);
+		}
+	}
+
+	private static long getDurationMillis(@Nonnull Result result, @Nullable Date startTime) {
+		Long duration = result.getDuration();
+		if (duration != null) {
+			return TimeUnit.NANOSECONDS.toMillis(duration);
+		}
+		return startTime == null ? 0 : System.currentTimeMillis() - startTime.getTime();
+	}
+
+	/**
+	 * Extension point to customize the item of collapsed background steps
+	 *
+	 * @param name        the background name
+	 * @param description collapsed step list
+	 * @param startTime   the first collapsed step start time
+	 * @return Request to ReportPortal
+	 */
+	@Nonnull
+	protected StartTestItemRQ buildStartBackgroundRequest(@Nonnull String name, @Nonnull String description, @Nonnull Date startTime) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(name);
+		rq.setDescription(description);
+		rq.setStartTime(startTime);
+		rq.setType("STEP");
+		return rq;
+	}
+
+	/**
+	 * Reports background steps of a scenario which passed without logs as one item or one log, according to
+	 * {@link ReporterParameters#getBackgroundMode()}. Called once the background is over.
+	 *
+	 * @param context a scenario context
+	 */
+	protected void finishBackground(@Nonnull RunningContext.ScenarioContext context) {
+		RunningContext.CollapsedBackground background = context.getCollapsedBackground();
+		if (background == null) {
+			return;
+		}
+		context.setCollapsedBackground(null);
+		if (background.getSteps().isEmpty()) {
+			return;
+		}
+		String steps = String.join("\n", background.getSteps());
+		if (getReporterParameters().getBackgroundMode() == BackgroundMode.ITEM) {
+			StartTestItemRQ rq = buildStartBackgroundRequest(background.getName(), steps, background.getStartTime());
+			Maybe<String> id = sendStartTestItem(context.getId(), rq);
+			sendFinishTestItem(id, buildFinishTestItemRequest(id, background.getEndTime(), ItemStatus.PASSED));
+		} else {
+			emitLog(mapLevel(Result.Type.PASSED), background.getStartTime(), background.getName() + "\n" + steps, null);
+		}
+	}
+
+	/**
+	 * Checks if a step should be reported as a log line on its scenario item instead of a separate item
+	 *
+	 * @param degradation current reporting mode
+	 * @return true if the step should be reported as a log
+	 */
+	protected boolean isStepReportedAsLog(@Nonnull Degradation degradation) {
+		return degradation.includes(Degradation.STEPS_AS_LOGS);
+	}
+
+	/**
+	 * Finish Cucumber step which is reported as a log line on its scenario item
+	 *
+	 * @param step   the collapsed step
+	 * @param result Step result
+	 */
+	protected void afterCollapsedStep(@Nonnull RunningContext.CollapsedStep step, @Nonnull Result result) {
+		ItemStatus status = mapItemStatus(result.getStatus());
+		if (step.getDegradation().includes(Degradation.FAILURES_ONLY) && status != ItemStatus.FAILED) {
+			return;
+		}
+		emitLog(mapLevel(result.getStatus()), step.getStartTime(), buildCollapsedStepMessage(step, result), null);
+		reportResult(result, null);
+	}
+
+	/**
+	 * Extension point to customize the log of a step which is reported as a log. The log consists of the step name with
+	 * its keyword, a line with the step status, duration and definition arguments, and the step multiline argument if
+	 * any.
+	 *
+	 * @param step   the collapsed step
+	 * @param result Step result
+	 * @return log message
+	 */
+	@Nonnull
+	protected String buildCollapsedStepMessage(@Nonnull RunningContext.CollapsedStep step, @Nonnull Result result) {
+		long duration = getDurationMillis(result, step.getStartTime());
+		StringBuilder message = new StringBuilder(step.getName()).append('\n')
+				.append(format(COLLAPSED_STEP_STATUS_FORMAT,
+						ofNullable(mapItemStatus(result.getStatus())).map(Enum::name).orElse(StringUtils.EMPTY),
+						duration
+				));
+		TestStep testStep = step.getTestStep();
+		List<cucumber.runtime.Argument> arguments = testStep.getDefinitionArgument();
+		if (arguments != null && !arguments.isEmpty()) {
+			message.append(COLLAPSED_STEP_ARGUMENTS_INFIX)
+					.append(arguments.stream().map(cucumber.runtime.Argument::getVal).collect(Collectors.joining(", ", "[", "]")));
+		}
+		String multilineArgument = buildMultilineArgument(testStep).trim();
+		if (!multilineArgument.isEmpty()) {
+			message.append('\n').append(multilineArgument);
+		}
+		return message.toString();
 	}
 
 	/**
@@ -457,7 +1197,7 @@ public abstract class AbstractReporter implements Formatter {
 		Pair<String, String> typeName = getHookTypeAndName(hookType);
 		rq.setType(typeName.getKey());
 		rq.setName(typeName.getValue());
-		rq.setStartTime(Calendar.getInstance().getTime());
+		rq.setStartTime(new Date());
 		return rq;
 	}
 
@@ -470,20 +1210,33 @@ public abstract class AbstractReporter implements Formatter {
 	 */
 	@Nonnull
 	protected Maybe<String> startHook(@Nonnull Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
-		return launch.get().startTestItem(parentId, rq);
+		return sendStartTestItem(parentId, rq);
 	}
 
 	/**
-	 * Called when before/after-hooks are started
+	 * Called when before/after-hooks are started. Consecutive hooks of the same type share one item if hook grouping is
+	 * enabled, and the item is started only once it gets a log or a failure if hook elision is enabled.
 	 *
 	 * @param hookType a hook type
 	 */
 	protected void beforeHooks(HookType hookType) {
-		StartTestItemRQ rq = buildStartHookRequest(hookType);
-
 		RunningContext.ScenarioContext context = getCurrentScenarioContext();
-		context.setHookStepId(startHook(context.getId(), rq));
+		ReporterParameters parameters = getReporterParameters();
+		finishSkippedSteps(context);
+		if (context.getHookItem() != null) {
+			if (parameters.isHooksGroup() && context.getHookType() == hookType) {
+				return;
+			}
+			finishHooks(context);
+		}
+		StartTestItemRQ rq = buildStartHookRequest(hookType);
+		MemoizingSupplier<Maybe<String>> hookItem = new MemoizingSupplier<>(() -> startHook(context.getId(), rq));
+		context.setHookItem(hookItem, hookType);
 		context.setHookStatus(Result.Type.PASSED);
+		// hooks of a deferred scenario item are deferred too
+		if (!parameters.isHooksElide() && context.getItem().isStarted()) {
+			hookItem.get();
+		}
 	}
 
 	/**
@@ -493,9 +1246,27 @@ public abstract class AbstractReporter implements Formatter {
 	 */
 	@SuppressWarnings("unused")
 	protected void afterHooks(HookType hookType) {
-		RunningContext.ScenarioContext context = getCurrentScenarioContext();
-		finishTestItem(context.getHookStepId(), context.getHookStatus());
-		context.setHookStepId(null);
+		if (!getReporterParameters().isHooksGroup()) {
+			finishHooks(getCurrentScenarioContext());
+		}
+	}
+
+	/**
+	 * Finishes the running hook item of a scenario. An item which was deferred and has neither logs nor failures is not
+	 * reported at all.
+	 *
+	 * @param context a scenario context
+	 */
+	protected void finishHooks(@Nonnull RunningContext.ScenarioContext context) {
+		MemoizingSupplier<Maybe<String>> hookItem = context.getHookItem();
+		if (hookItem == null) {
+			return;
+		}
+		Result.Type status = context.getHookStatus();
+		if (hookItem.isInitialized() || mapItemStatus(status) != ItemStatus.PASSED) {
+			finishTestItem(hookItem.get(), status);
+		}
+		context.setHookItem(null, null);
 	}
 
 	/**
@@ -506,8 +1277,31 @@ public abstract class AbstractReporter implements Formatter {
 	 * @param isBefore - if true, before-hook, if false - after-hook
 	 */
 	protected void hookFinished(TestStep step, Result result, Boolean isBefore) {
-		reportResult(result, (isBefore ? "Before" : "After") + " hook: " + step.getCodeLocation());
-		getCurrentScenarioContext().setHookStatus(result.getStatus());
+		RunningContext.ScenarioContext context = getCurrentScenarioContext();
+		boolean elided = getReporterParameters().isHooksElide() || !context.getItem().isStarted();
+		boolean silent = elided && mapItemStatus(result.getStatus()) == ItemStatus.PASSED;
+		reportResult(result, silent ? null : (isBefore ? "Before" : "After") + " hook: " + step.getCodeLocation());
+		// a group of hooks gets the worst status of its hooks
+		if (getStatusSeverity(result.getStatus()) > getStatusSeverity(context.getHookStatus())) {
+			context.setHookStatus(result.getStatus());
+		}
+		if (isBefore) {
+			startSkippedSteps(context, result.getStatus());
+		}
+	}
+
+	/**
+	 * Ranks a Cucumber status by its ReportPortal status: failed, then skipped, then passed
+	 *
+	 * @param status a Cucumber status
+	 * @return status severity, greater is worse
+	 */
+	private int getStatusSeverity(@Nullable Result.Type status) {
+		ItemStatus itemStatus = mapItemStatus(status);
+		if (itemStatus == ItemStatus.FAILED) {
+			return 2;
+		}
+		return itemStatus == ItemStatus.SKIPPED ? 1 : 0;
 	}
 
 	/**
@@ -538,38 +1332,121 @@ public abstract class AbstractReporter implements Formatter {
 		if (message != null) {
 			sendLog(message, level);
 		}
-		String errorMessage = result.getErrorMessage();
-		if (errorMessage != null) {
-			sendLog(errorMessage, level);
-		} else if (result.getError() != null) {
-			sendLog(getStackTrace(result.getError(), new Throwable()), level);
+		Throwable error = result.getError();
+		if (error != null) {
+			sendLog(getStackTrace(error), level);
+		} else {
+			ofNullable(result.getErrorMessage()).ifPresent(errorMessage -> sendLog(errorMessage, level));
 		}
 	}
 
+	/**
+	 * Returns a stack trace of an error to report it in logs and item descriptions. The stack trace is rendered once per
+	 * error object, with frame trimming and depth limit configured in {@link ReporterParameters}.
+	 *
+	 * @param error an error to render
+	 * @return the error stack trace
+	 */
+	@Nonnull
+	protected String getStackTrace(@Nonnull Throwable error) {
+		return stackTraceRenderer.get().render(error);
+	}
+
+	// a single thread keeps attachments in the order of embedding
+	@Nonnull
+	private static ExecutorService buildMimeTypeExecutor() {
+		return Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "rp-cucumber-mime-detection");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	@Nullable
-	private static String getDataType(@Nonnull byte[] data) {
-		try {
-			return MimeTypeDetector.detect(ByteSource.wrap(data), null);
-		} catch (IOException e) {
-			LOGGER.warn("Unable to detect MIME type", e);
-		}
-		return null;
+	private String getDataType(@Nullable byte[] data) {
+		return data == null ? null : mimeTypeCache.detect(data);
 	}
 
 	/**
-	 * Send a log with data attached.
+	 * Send a log with data attached. Attachments are dropped when the request budget is exceeded. If the attachment type
+	 * is missing or invalid, it is detected by the content, on a separate thread if
+	 * {@link ReporterParameters#isEmbeddingAsyncDetection()} is enabled. The item finish waits for such attachments.
 	 *
 	 * @param mimeType an attachment type
 	 * @param data     data to attach
 	 */
 	protected void embedding(String mimeType, byte[] data) {
-		String type = ofNullable(mimeType).filter(ContentType::isValidType).orElseGet(() -> getDataType(data));
+		if (isLogDropped(null)) {
+			return;
+		}
+		ReporterEvent embeddingEvent = ReporterEvents.begin(ReporterEvents.Type.EMBEDDING);
+		Date time = new Date();
+		String type = ofNullable(mimeType).filter(ContentType::isValidType).orElse(null);
+		Maybe<String> itemId = type == null && data != null && getReporterParameters().isEmbeddingAsyncDetection() ?
+				getCurrentItemId() :
+				null;
+		if (itemId != null) {
+			if (logCoalescer.isInitialized()) {
+				// held text logs go before the attachment, even though it is sent later
+				emitCoalescedLog(itemId, logCoalescer.get().flush(itemId));
+			}
+			// the attachment is accounted to the scenario here, the scenario context is not shared with the detection thread
+			RunningContext.ScenarioContext context = getCurrentScenarioContext();
+			if (context != null) {
+				context.onRequest();
+			}
+			pendingEmbeddings.put(itemId, mimeTypeExecutor.get().submit(() -> {
+				try {
+					emitEmbedding(itemId, time, getDataType(data), data);
+				} catch (RuntimeException e) {
+					LOGGER.warn("Unable to send an attachment", e);
+				}
+			}));
+		} else {
+			emitEmbedding(null, time, type == null ? getDataType(data) : type, data);
+		}
+		embeddingEvent.commit(getCurrentFeatureUri(), 0, data == null ? 0 : data.length);
+	}
+
+	/**
+	 * Sends an attachment to the current item, or to the given item from the MIME type detection thread. In the latter
+	 * case held logs of the item are already flushed on the test thread, so the attachment skips the log coalescer,
+	 * which may hold logs offered after it.
+	 */
+	private void emitEmbedding(@Nullable Maybe<String> itemId, @Nonnull Date time, @Nullable String type, byte[] data) {
 		String attachmentName = ofNullable(type).map(t -> t.substring(0, t.indexOf("/"))).orElse("");
-		ReportPortal.emitLog(
-				new ReportPortalMessage(ByteSource.wrap(data), type, attachmentName),
-				"UNKNOWN",
-				Calendar.getInstance().getTime()
-		);
+		SaveLogRQ.File file = new SaveLogRQ.File();
+		file.setName(UUID.randomUUID().toString());
+		file.setContentType(ofNullable(type).orElse(DEFAULT_CONTENT_TYPE));
+		file.setContent(data);
+		if (itemId == null) {
+			emitLog(null, "UNKNOWN", time, attachmentName, file);
+		} else {
+			emitLog(itemId, "UNKNOWN", time, attachmentName, file, true);
+		}
+	}
+
+	/**
+	 * Waits until attachments which are waiting for MIME type detection are sent
+	 */
+	protected void awaitEmbeddings() {
+		if (!mimeTypeExecutor.isInitialized()) {
+			return;
+		}
+		// the executor is single-threaded, so an empty task completes after all attachments submitted before it
+		awaitEmbeddings(mimeTypeExecutor.get().submit(() -> {
+		}));
+		pendingEmbeddings.clear();
+	}
+
+	private static void awaitEmbeddings(@Nonnull Future<?> embeddings) {
+		try {
+			embeddings.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LOGGER.warn("Unable to send attachments", e);
+		}
 	}
 
 	/**
@@ -593,13 +1470,281 @@ public abstract class AbstractReporter implements Formatter {
 	}
 
 	/**
-	 * Send a text log entry to Report Portal using current datetime as timestamp
+	 * Send a text log entry to Report Portal using current datetime as timestamp. Logs with levels below WARN are dropped
+	 * when the request budget is exceeded.
 	 *
 	 * @param message a text message
 	 * @param level   a log level, see standard Log4j / logback logging levels
 	 */
 	protected void sendLog(final String message, final String level) {
-		ReportPortal.emitLog(message, level, Calendar.getInstance().getTime());
+		if (isLogDropped(level)) {
+			return;
+		}
+		emitLog(level, new Date(), message, null);
+	}
+
+	/**
+	 * Send a text log entry for a specific item to Report Portal using current datetime as timestamp. Logs with levels
+	 * below WARN are dropped when the request budget is exceeded.
+	 *
+	 * @param itemId  an ID of the item
+	 * @param message a text message
+	 * @param level   a log level, see standard Log4j / logback logging levels
+	 */
+	protected void sendLog(@Nonnull Maybe<String> itemId, final String message, final String level) {
+		if (isLogDropped(level)) {
+			return;
+		}
+		emitLog(itemId, level, new Date(), message, null);
+	}
+
+	/**
+	 * Send a log entry to the reporting sink through the in-flight request window. If the window is full the log is handled
+	 * according to the window policy: the caller waits, the log is dropped or spilled to disk.
+	 *
+	 * @param level   a log level
+	 * @param time    a log time
+	 * @param message a log message
+	 * @param file    a log attachment
+	 */
+	protected void emitLog(@Nonnull String level, @Nonnull Date time, @Nullable String message, @Nullable SaveLogRQ.File file) {
+		emitLog(null, level, time, message, file);
+	}
+
+	/**
+	 * Send a log entry for a specific item to the reporting sink through the in-flight request window.
+	 *
+	 * @param itemId  an ID of the item, null means the current item
+	 * @param level   a log level
+	 * @param time    a log time
+	 * @param message a log message
+	 * @param file    a log attachment
+	 */
+	protected void emitLog(@Nullable Maybe<String> itemId, @Nonnull String level, @Nonnull Date time, @Nullable String message,
+			@Nullable SaveLogRQ.File file) {
+		Maybe<String> id = itemId;
+		if (getReporterParameters().isLogCoalesce()) {
+			id = itemId == null ? getCurrentItemId() : itemId;
+			if (id != null) {
+				flushExpiredLogs();
+				LogCoalescer<Maybe<String>> coalescer = logCoalescer.get();
+				// a text log waits for the next log of the item, an attachment goes right after the held text logs
+				emitCoalescedLog(id, file == null ? coalescer.offer(id, level, time, message) : coalescer.flush(id));
+				if (file == null) {
+					return;
+				}
+			}
+		}
+		emitLog(id, level, time, message, file, true);
+	}
+
+	private void emitCoalescedLog(@Nonnull Maybe<String> itemId, @Nullable LogCoalescer.Run run) {
+		if (run != null) {
+			emitLog(itemId, run.getLevel(), run.getTime(), run.getMessage(), null, true);
+		}
+	}
+
+	/**
+	 * Sends held logs of running items of the current scenario whose coalescing window has elapsed, so a log is not held
+	 * for the whole item when no further logs come. Items of other scenarios are left to their own threads, which also
+	 * finish them, so a held log is never sent after the finish of its item.
+	 */
+	private void flushExpiredLogs() {
+		RunningContext.ScenarioContext context = getCurrentScenarioContext();
+		if (context == null || !logCoalescer.isInitialized()) {
+			return;
+		}
+		LogCoalescer<Maybe<String>> coalescer = logCoalescer.get();
+		long now = System.currentTimeMillis();
+		// deferred items have no logs, so they are not started here
+		MemoizingSupplier<Maybe<String>> hookItem = context.getHookItem();
+		if (hookItem != null && hookItem.isInitialized()) {
+			flushExpiredLog(coalescer, hookItem.get(), now);
+		}
+		RunningContext.ItemHandle step = context.getCurrentStep();
+		if (step != null && step.isStarted()) {
+			flushExpiredLog(coalescer, step.getId(), now);
+		}
+		RunningContext.ItemHandle item = context.getItem();
+		if (item != null && item.isStarted()) {
+			flushExpiredLog(coalescer, item.getId(), now);
+		}
+	}
+
+	private void flushExpiredLog(@Nonnull LogCoalescer<Maybe<String>> coalescer, @Nonnull Maybe<String> itemId, long now) {
+		emitCoalescedLog(itemId, coalescer.flushExpired(itemId, now));
+	}
+
+	private void emitLog(@Nullable Maybe<String> itemId, @Nonnull String level, @Nonnull Date time, @Nullable String message,
+			@Nullable SaveLogRQ.File file, boolean limited) {
+		ReporterEvent logEvent = ReporterEvents.begin(ReporterEvents.Type.LOG_EMIT);
+		InFlightWindow window = getInFlightWindow();
+		drainSpilledLogs(false);
+		long size = PayloadSize.of(message, file);
+		try {
+			if (limited && divertLog(itemId, size, level, time, message, file)) {
+				return;
+			}
+			Maybe<String> id = itemId == null ? getCurrentItemId() : itemId;
+			LogSpill spill = logSpill;
+			// spilled logs go first to keep the order
+			if ((spill == null || spill.isEmpty()) && window.acquireLog(size)) {
+				sendLogRequest(id, buildSaveLogRequest(level, time, message, file), size);
+				return;
+			}
+			if (window.getPolicy() == BackpressurePolicy.SPILL) {
+				if (id == null) {
+					// the target item can't be captured, so the log goes to the current item of the client's logging context now
+					window.forceAcquire(size);
+					sendLogRequest(null, buildSaveLogRequest(level, time, message, file), size);
+					return;
+				}
+				try {
+					getLogSpill().write(id, level, time, message, file);
+					window.onLogSpilled();
+					return;
+				} catch (IOException e) {
+					LOGGER.warn("Unable to spill a log to disk, dropping it", e);
+				}
+			}
+			window.onLogDropped();
+		} finally {
+			logEvent.commit(getCurrentFeatureUri(), 0, size);
+		}
+	}
+
+	/**
+	 * Diverts a log into the item overflow archive if the item exceeded its log limits
+	 *
+	 * @return true if the log was diverted
+	 */
+	private boolean divertLog(@Nullable Maybe<String> itemId, long size, @Nonnull String level, @Nonnull Date time,
+			@Nullable String message, @Nullable SaveLogRQ.File file) {
+		ReporterParameters parameters = getReporterParameters();
+		if (parameters.getItemLogLimit() <= 0 && parameters.getItemLogBytes() <= 0) {
+			return false;
+		}
+		Maybe<String> id = itemId == null ? getCurrentItemId() : itemId;
+		if (id == null) {
+			return false;
+		}
+		LogOverflow overflow = logOverflows.computeIfAbsent(id,
+				k -> new LogOverflow(parameters.getItemLogLimit(), parameters.getItemLogBytes())
+		);
+		if (overflow.accept(size)) {
+			return false;
+		}
+		try {
+			overflow.divert(size, level, time, message, file);
+		} catch (IOException e) {
+			LOGGER.warn("Unable to write a log to the overflow archive, dropping it", e);
+		}
+		return true;
+	}
+
+	/**
+	 * Sends logs diverted from an item as one attachment with a marker message, right before the item finish
+	 */
+	private void sendLogOverflow(@Nonnull Maybe<String> itemId, @Nonnull LogOverflow overflow, @Nullable Date endTime) {
+		String message = format(LOG_OVERFLOW_FORMAT,
+				overflow.getDivertedLogs(),
+				overflow.getDivertedBytes(),
+				LogOverflow.ATTACHMENT_NAME
+		);
+		SaveLogRQ.File file = new SaveLogRQ.File();
+		try {
+			file.setName(LogOverflow.ATTACHMENT_NAME);
+			file.setContentType(LogOverflow.ATTACHMENT_CONTENT_TYPE);
+			file.setContent(overflow.finish());
+		} catch (IOException e) {
+			LOGGER.warn("Unable to complete the log overflow archive", e);
+			file = null;
+		}
+		emitLog(itemId, "WARN", ofNullable(endTime).orElseGet(Date::new), message, file, false);
+	}
+
+	@Nonnull
+	private static SaveLogRQ buildSaveLogRequest(@Nonnull String level, @Nonnull Date time, @Nullable String message,
+			@Nullable SaveLogRQ.File file) {
+		SaveLogRQ rq = new SaveLogRQ();
+		rq.setLevel(level);
+		rq.setLogTime(time);
+		rq.setMessage(message);
+		rq.setFile(file);
+		return rq;
+	}
+
+	private void sendLogRequest(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq, long size) {
+		metrics.onLogSent(size);
+		accountRequest(size);
+		releaseOnComplete(reportingSink.log(itemId, rq), size);
+	}
+
+	@Nonnull
+	private LogSpill getLogSpill() throws IOException {
+		LogSpill spill = logSpill;
+		if (spill == null) {
+			synchronized (this) {
+				spill = logSpill;
+				if (spill == null) {
+					spill = new LogSpill(Paths.get(getReporterParameters().getWindowSpillDirectory()));
+					logSpill = spill;
+				}
+			}
+		}
+		return spill;
+	}
+
+	/**
+	 * Sends logs spilled to disk while there is a room for them in the in-flight request window.
+	 *
+	 * @param all send all spilled logs regardless of the window state and delete the spill file
+	 */
+	protected void drainSpilledLogs(boolean all) {
+		LogSpill spill = logSpill;
+		if (spill == null) {
+			return;
+		}
+		InFlightWindow window = getInFlightWindow();
+		try {
+			for (long size = spill.peekSize(); size >= 0; size = spill.peekSize()) {
+				if (all) {
+					window.forceAcquire(size);
+				} else if (!window.tryAcquire(size)) {
+					return;
+				}
+				LogSpill.SpilledLog log = spill.poll();
+				if (log == null) {
+					window.release(size);
+					return;
+				}
+				sendLogRequest(log.getItemId(), log.getRequest(), log.getSize());
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Unable to read spilled logs", e);
+		}
+		if (all) {
+			try {
+				spill.close();
+			} catch (IOException e) {
+				LOGGER.warn("Unable to delete log spill file", e);
+			}
+			logSpill = null;
+		}
+	}
+
+	/**
+	 * Returns an ID of the item logs are currently attached to on the current thread
+	 *
+	 * @return item ID or null if there is no running item
+	 */
+	@Nullable
+	protected Maybe<String> getCurrentItemId() {
+		RunningContext.ScenarioContext context = getCurrentScenarioContext();
+		if (context == null) {
+			return null;
+		}
+		return ofNullable(context.getHookStepId()).orElseGet(() -> ofNullable(context.getCurrentStepId()).orElseGet(context::getId));
 	}
 
 	private boolean isBefore(TestStep step) {
@@ -625,7 +1770,7 @@ public abstract class AbstractReporter implements Formatter {
 		startFeatureRq.setCodeRef(getCodeRef(uri, 0));
 		startFeatureRq.setName(buildName(featureKeyword, AbstractReporter.COLON_INFIX, featureName));
 		startFeatureRq.setAttributes(extractAttributes(feature.getTags()));
-		startFeatureRq.setStartTime(Calendar.getInstance().getTime());
+		startFeatureRq.setStartTime(new Date());
 		startFeatureRq.setType(getFeatureTestItemType());
 		return startFeatureRq;
 	}
@@ -639,7 +1784,7 @@ public abstract class AbstractReporter implements Formatter {
 	@Nonnull
 	protected Maybe<String> startFeature(@Nonnull StartTestItemRQ startFeatureRq) {
 		Optional<Maybe<String>> root = getRootItemId();
-		return root.map(r -> launch.get().startTestItem(r, startFeatureRq)).orElseGet(() -> launch.get().startTestItem(startFeatureRq));
+		return sendStartTestItem(root.orElse(null), startFeatureRq);
 	}
 
 	private void removeFromTree(RunningContext.FeatureContext featureContext) {
@@ -651,14 +1796,17 @@ public abstract class AbstractReporter implements Formatter {
 	}
 
 	protected void handleStartOfTestCase(TestCaseStarted event) {
+		ReporterEvent scenarioEvent = ReporterEvents.begin(ReporterEvents.Type.SCENARIO_START);
 		TestCase testCase = event.testCase;
-		RunningContext.FeatureContext newFeatureContext = new RunningContext.FeatureContext(testCase);
-		String featureUri = newFeatureContext.getUri();
+		// a feature file is parsed only once, on its first scenario
 		RunningContext.FeatureContext featureContext = currentFeatureContextMap.computeIfAbsent(
-				featureUri, u -> {
+				testCase.getUri(), featureUri -> {
+					ReporterEvent parseEvent = ReporterEvents.begin(ReporterEvents.Type.FEATURE_PARSE);
+					RunningContext.FeatureContext newFeatureContext = new RunningContext.FeatureContext(testCase);
+					parseEvent.commit(featureUri, 0, 0);
 					getRootItemId(); // trigger root item creation
 					newFeatureContext.setFeatureId(startFeature(buildStartFeatureRequest(newFeatureContext.getFeature(), featureUri)));
-					if (launch.get().getParameters().isCallbackReportingEnabled()) {
+					if (getListenerParameters().isCallbackReportingEnabled()) {
 						addToTree(newFeatureContext);
 					}
 					return newFeatureContext;
@@ -670,36 +1818,46 @@ public abstract class AbstractReporter implements Formatter {
 		}
 
 		RunningContext.ScenarioContext newScenarioContext = featureContext.getScenarioContext(testCase);
-		Pair<Integer, String> scenarioLineFeatureURI = Pair.of(newScenarioContext.getLine(), featureContext.getUri());
-		RunningContext.ScenarioContext scenarioContext = currentScenarioContextMap.computeIfAbsent(
-				scenarioLineFeatureURI, k -> {
-					currentScenarioContext.set(newScenarioContext);
-					return newScenarioContext;
-				}
-		);
+		RunningContext.ScenarioContext scenarioContext = featureContext.startScenario(newScenarioContext);
+		if (scenarioContext == newScenarioContext) {
+			currentScenarioContext.set(newScenarioContext);
+		}
 
 		beforeScenario(featureContext, scenarioContext);
+		scenarioEvent.commit(testCase.getUri(), testCase.getLine(), 0);
 	}
 
 	protected void handleTestStepStarted(TestStepStarted event) {
+		ReporterEvent stepEvent = ReporterEvents.begin(ReporterEvents.Type.STEP_START);
+		flushExpiredLogs();
 		TestStep testStep = event.testStep;
 		if (testStep.isHook()) {
 			beforeHooks(testStep.getHookType());
 		} else {
+			finishHooks(getCurrentScenarioContext());
 			if (getCurrentScenarioContext().withBackground()) {
 				getCurrentScenarioContext().nextBackgroundStep();
 			}
 			beforeStep(testStep);
 		}
+		stepEvent.commit(getCurrentFeatureUri(), testStep.isHook() ? 0 : testStep.getStepLine(), 0);
 	}
 
 	protected void handleTestStepFinished(TestStepFinished event) {
+		ReporterEvent stepEvent = ReporterEvents.begin(ReporterEvents.Type.STEP_FINISH);
+		flushExpiredLogs();
 		if (event.testStep.isHook()) {
 			hookFinished(event.testStep, event.result, isBefore(event.testStep));
 			afterHooks(event.testStep.getHookType());
 		} else {
 			afterStep(event.result);
 		}
+		stepEvent.commit(getCurrentFeatureUri(), event.testStep.isHook() ? 0 : event.testStep.getStepLine(), 0);
+	}
+
+	@Nullable
+	private String getCurrentFeatureUri() {
+		return ofNullable(currentScenarioContext.get()).map(RunningContext.ScenarioContext::getFeatureUri).orElse(null);
 	}
 
 	/**
@@ -715,18 +1873,39 @@ public abstract class AbstractReporter implements Formatter {
 			@Nullable ItemStatus status) {
 		FinishTestItemRQ rq = new FinishTestItemRQ();
 		if (status == ItemStatus.FAILED) {
-			Optional<String> currentDescription = Optional.ofNullable(descriptionsMap.remove(itemId));
-			Optional<Throwable> errorDescription = Optional.ofNullable(errorMap.remove(itemId));
-			currentDescription.flatMap(description -> errorDescription.map(errorMessage -> resolveDescriptionErrorMessage(
-					description,
-					errorMessage
-			))).ifPresent(rq::setDescription);
+			RunningContext.ItemHandle item = getRunningItem(itemId);
+			if (item != null && item.getDescription() != null && item.getError() != null) {
+				rq.setDescription(resolveDescriptionErrorMessage(item.getDescription(), item.getError()));
+			}
 		}
 		ofNullable(status).ifPresent(s -> rq.setStatus(s.name()));
 		rq.setEndTime(finishTime);
 		return rq;
 	}
 
+	/**
+	 * Returns a handle of the running scenario or step of the current thread with the given ID
+	 *
+	 * @param itemId an ID of the item
+	 * @return item handle or null if the item is neither the current scenario nor the current step
+	 */
+	@Nullable
+	private RunningContext.ItemHandle getRunningItem(@Nonnull Maybe<String> itemId) {
+		RunningContext.ScenarioContext context = currentScenarioContext.get();
+		if (context == null) {
+			return null;
+		}
+		RunningContext.ItemHandle step = context.getCurrentStep();
+		if (step != null && step.isStarted() && itemId.equals(step.getId())) {
+			return step;
+		}
+		RunningContext.ItemHandle scenario = context.getItem();
+		if (scenario != null && scenario.isStarted() && itemId.equals(scenario.getId())) {
+			return scenario;
+		}
+		return null;
+	}
+
 	/**
 	 * Resolve description
 	 *
@@ -735,7 +1914,7 @@ public abstract class AbstractReporter implements Formatter {
 	 * @return Description with error
 	 */
 	private String resolveDescriptionErrorMessage(String currentDescription, Throwable error) {
-		String errorStr = format(ERROR_FORMAT, getStackTrace(error, new Throwable()));
+		String errorStr = format(ERROR_FORMAT, getStackTrace(error));
 		return Optional.ofNullable(currentDescription)
 				.filter(StringUtils::isNotBlank)
 				.map(description -> MarkdownUtils.asTwoParts(currentDescription, errorStr))
@@ -753,10 +1932,9 @@ public abstract class AbstractReporter implements Formatter {
 			LOGGER.error("BUG: Trying to finish unspecified test item.");
 			return;
 		}
-		Date endTime = ofNullable(dateTime).orElse(Calendar.getInstance().getTime());
+		Date endTime = dateTime != null ? dateTime : new Date();
 		FinishTestItemRQ finishTestItemRQ = buildFinishTestItemRequest(itemId, endTime, null);
-		//noinspection ReactiveStreamsUnusedPublisher
-		launch.get().finishTestItem(itemId, finishTestItemRQ);
+		sendFinishTestItem(itemId, finishTestItemRQ);
 	}
 
 	/**
@@ -795,10 +1973,9 @@ public abstract class AbstractReporter implements Formatter {
 			return null;
 		}
 
-		Date endTime = Calendar.getInstance().getTime();
+		Date endTime = new Date();
 		FinishTestItemRQ rq = buildFinishTestItemRequest(itemId, endTime, mapItemStatus(status));
-		//noinspection ReactiveStreamsUnusedPublisher
-		launch.get().finishTestItem(itemId, rq);
+		sendFinishTestItem(itemId, rq);
 		return endTime;
 	}
 
@@ -841,10 +2018,7 @@ public abstract class AbstractReporter implements Formatter {
 			if (argument instanceof PickleString) {
 				docString = ((PickleString) argument).getContent();
 			} else if (argument instanceof PickleTable) {
-				table = ((PickleTable) argument).getRows()
-						.stream()
-						.map(r -> r.getCells().stream().map(PickleCell::getValue).collect(Collectors.toList()))
-						.collect(Collectors.toList());
+				table = getTableValues((PickleTable) argument);
 			}
 		}
 
@@ -920,12 +2094,11 @@ public abstract class AbstractReporter implements Formatter {
 	protected String getCodeRef(@Nonnull TestStep testStep) {
 		return ofNullable(getDefinitionMatch(testStep)).flatMap(stepDefinitionMatch -> {
 			try {
-				Field stepDefinitionField = stepDefinitionMatch.getClass().getDeclaredField(STEP_DEFINITION_FIELD_NAME);
-				stepDefinitionField.setAccessible(true);
-				Object javaStepDefinition = stepDefinitionField.get(stepDefinitionMatch);
-				Method getLocationMethod = javaStepDefinition.getClass().getDeclaredMethod(GET_LOCATION_METHOD_NAME, boolean.class);
-				getLocationMethod.setAccessible(true);
-				return of(String.valueOf(getLocationMethod.invoke(javaStepDefinition, true))).filter(r -> !r.isEmpty()).map(r -> {
+				Object javaStepDefinition = getStepDefinition(stepDefinitionMatch);
+				if (javaStepDefinition == null) {
+					return Optional.empty();
+				}
+				return of(String.valueOf(getStepDefinitionLocation(javaStepDefinition))).filter(r -> !r.isEmpty()).map(r -> {
 					int openingBracketIndex = r.indexOf(METHOD_OPENING_BRACKET);
 					if (openingBracketIndex > 0) {
 						return r.substring(0, r.indexOf(METHOD_OPENING_BRACKET));
@@ -999,24 +2172,26 @@ public abstract class AbstractReporter implements Formatter {
 	 */
 	@Nonnull
 	protected List<ParameterResource> getParameters(@Nullable String codeRef, @Nonnull TestStep testStep) {
-		List<Pair<String, String>> params = ofNullable(testStep.getDefinitionArgument()).map(a -> IntStream.range(0, a.size())
-				.mapToObj(i -> Pair.of("arg" + i, a.get(i).getVal()))
-				.collect(Collectors.toList())).orElse(new ArrayList<>());
-		params.addAll(ofNullable(testStep.getStepArgument()).map(a -> IntStream.range(0, a.size()).mapToObj(i -> {
-			Argument arg = a.get(i);
+		List<cucumber.runtime.Argument> definitionArguments = testStep.getDefinitionArgument();
+		List<Argument> stepArguments = testStep.getStepArgument();
+		int definitionSize = definitionArguments == null ? 0 : definitionArguments.size();
+		int stepSize = stepArguments == null ? 0 : stepArguments.size();
+		List<Pair<String, String>> params = new ArrayList<>(definitionSize + stepSize);
+		for (int i = 0; i < definitionSize; i++) {
+			params.add(Pair.of("arg" + i, definitionArguments.get(i).getVal()));
+		}
+		for (int i = 0; i < stepSize; i++) {
+			Argument arg = stepArguments.get(i);
 			String value;
 			if (arg instanceof PickleString) {
 				value = ((PickleString) arg).getContent();
 			} else if (arg instanceof PickleTable) {
-				value = MarkdownUtils.formatDataTable(((PickleTable) arg).getRows()
-						.stream()
-						.map(r -> r.getCells().stream().map(PickleCell::getValue).collect(Collectors.toList()))
-						.collect(Collectors.toList()));
+				value = MarkdownUtils.formatDataTable(getTableValues((PickleTable) arg));
 			} else {
 				value = arg.toString();
 			}
-			return Pair.of("arg" + i, value);
-		}).collect(Collectors.toList())).orElse(Collections.emptyList()));
+			params.add(Pair.of("arg" + i, value));
+		}
 		return ParameterUtils.getParameters(codeRef, params);
 	}
 
@@ -1056,11 +2231,26 @@ public abstract class AbstractReporter implements Formatter {
 	protected Pair<String, String> getHookTypeAndName(@Nonnull HookType hookType) {
 		switch (hookType) {
 			case Before:
-				return Pair.of(ItemType.BEFORE_TEST.name(), "Before hooks");
+				return BEFORE_HOOKS;
 			case After:
-				return Pair.of(ItemType.AFTER_TEST.name(), "After hooks");
+				return AFTER_HOOKS;
 			default:
-				return Pair.of(ItemType.TEST.name(), "Hook");
+				return OTHER_HOOKS;
+		}
+	}
+
+	@Nonnull
+	private static List<List<String>> getTableValues(@Nonnull PickleTable table) {
+		List<PickleRow> rows = table.getRows();
+		List<List<String>> values = new ArrayList<>(rows.size());
+		for (PickleRow row : rows) {
+			List<PickleCell> cells = row.getCells();
+			List<String> rowValues = new ArrayList<>(cells.size());
+			for (PickleCell cell : cells) {
+				rowValues.add(cell.getValue());
+			}
+			values.add(rowValues);
 		}
+		return values;
 	}
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber;
+
+/**
+ * Defines how feature Background steps are reported for each scenario.
+ */
+public enum BackgroundMode {
+	/**
+	 * Report each background step as a separate item, as any other step
+	 */
+	STEPS,
+	/**
+	 * Report background steps which passed without logs as one item per scenario, with the steps listed in its
+	 * description. Failed steps and steps with logs are reported as separate items.
+	 */
+	ITEM,
+	/**
+	 * Report background steps which passed without logs as one log entry on the scenario item. Failed steps and steps
+	 * with logs are reported as separate items.
+	 */
+	LOG
+}
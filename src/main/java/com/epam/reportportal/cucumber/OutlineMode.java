@@ -0,0 +1,31 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber;
+
+/**
+ * Defines how example rows of a Scenario Outline are reported.
+ */
+public enum OutlineMode {
+	/**
+	 * Report each example row as a separate scenario
+	 */
+	SCENARIOS,
+	/**
+	 * Report an outline as one item with a summary table of example rows which passed without logs. Other rows are
+	 * reported as separate scenarios with all their steps.
+	 */
+	COMPACT
+}
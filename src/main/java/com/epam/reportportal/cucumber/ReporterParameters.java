@@ -0,0 +1,506 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.backpressure.BackpressurePolicy;
+import com.epam.reportportal.cucumber.budget.Degradation;
+import com.epam.reportportal.utils.properties.PropertiesLoader;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cucumber agent specific parameters, which are not a part of common client's
+ * {@link com.epam.reportportal.listeners.ListenerParameters}. Loaded from the same 'reportportal.properties' file, JVM
+ * and environment variables.
+ */
+public class ReporterParameters {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReporterParameters.class);
+
+	public static final String ERROR_TRIM_PROPERTY = "rp.cucumber.error.trim";
+	public static final String ERROR_DEPTH_PROPERTY = "rp.cucumber.error.depth";
+	public static final String ERROR_DEDUPLICATION_PROPERTY = "rp.cucumber.error.deduplication";
+	public static final String ERROR_FINGERPRINT_FRAMES_PROPERTY = "rp.cucumber.error.fingerprint.frames";
+	public static final String WINDOW_REQUESTS_PROPERTY = "rp.cucumber.window.requests";
+	public static final String WINDOW_BYTES_PROPERTY = "rp.cucumber.window.bytes";
+	public static final String WINDOW_POLICY_PROPERTY = "rp.cucumber.window.policy";
+	public static final String WINDOW_TIMEOUT_PROPERTY = "rp.cucumber.window.timeout";
+	public static final String WINDOW_SPILL_DIRECTORY_PROPERTY = "rp.cucumber.window.spill.directory";
+	public static final String JOURNAL_ENABLE_PROPERTY = "rp.cucumber.journal.enable";
+	public static final String JOURNAL_DIRECTORY_PROPERTY = "rp.cucumber.journal.directory";
+	public static final String JOURNAL_SEGMENT_SIZE_PROPERTY = "rp.cucumber.journal.segment.size";
+	public static final String METRICS_JMX_PROPERTY = "rp.cucumber.metrics.jmx";
+	public static final String METRICS_SUMMARY_PROPERTY = "rp.cucumber.metrics.summary";
+	public static final String BUDGET_LAUNCH_REQUESTS_PROPERTY = "rp.cucumber.budget.launch.requests";
+	public static final String BUDGET_LAUNCH_BYTES_PROPERTY = "rp.cucumber.budget.launch.bytes";
+	public static final String BUDGET_SCENARIO_REQUESTS_PROPERTY = "rp.cucumber.budget.scenario.requests";
+	public static final String BUDGET_DEGRADATION_PROPERTY = "rp.cucumber.budget.degradation";
+	public static final String SCENARIO_STEPS_AS_LOGS_PROPERTY = "rp.cucumber.scenario.steps.as.logs";
+	public static final String HOOKS_GROUP_PROPERTY = "rp.cucumber.hooks.group";
+	public static final String HOOKS_ELIDE_PROPERTY = "rp.cucumber.hooks.elide";
+	public static final String BACKGROUND_MODE_PROPERTY = "rp.cucumber.background.mode";
+	public static final String OUTLINE_MODE_PROPERTY = "rp.cucumber.outline.mode";
+	public static final String SKIPPED_MODE_PROPERTY = "rp.cucumber.skipped.mode";
+	public static final String ITEM_LOG_LIMIT_PROPERTY = "rp.cucumber.item.log.limit";
+	public static final String ITEM_LOG_BYTES_PROPERTY = "rp.cucumber.item.log.bytes";
+	public static final String LOG_COALESCE_PROPERTY = "rp.cucumber.log.coalesce";
+	public static final String LOG_COALESCE_WINDOW_PROPERTY = "rp.cucumber.log.coalesce.window";
+	public static final String EMBEDDING_ASYNC_PROPERTY = "rp.cucumber.embedding.async";
+
+	private boolean errorTrim = true;
+	private int errorDepth = 0;
+	private boolean errorDeduplication = false;
+	private int errorFingerprintFrames = 5;
+	private int windowRequests = 0;
+	private long windowBytes = 0;
+	private BackpressurePolicy windowPolicy = BackpressurePolicy.BLOCK;
+	private long windowTimeout = TimeUnit.MINUTES.toMillis(1);
+	private String windowSpillDirectory = System.getProperty("java.io.tmpdir");
+	private boolean journalEnable = false;
+	private String journalDirectory = "rp-journal";
+	private int journalSegmentSize = 16 * 1024 * 1024;
+	private boolean metricsJmx = false;
+	private boolean metricsSummary = false;
+	private long budgetLaunchRequests = 0;
+	private long budgetLaunchBytes = 0;
+	private int budgetScenarioRequests = 0;
+	private Degradation budgetDegradation = Degradation.STEPS_AS_LOGS;
+	private boolean scenarioStepsAsLogs = false;
+	private boolean hooksGroup = false;
+	private boolean hooksElide = false;
+	private BackgroundMode backgroundMode = BackgroundMode.STEPS;
+	private OutlineMode outlineMode = OutlineMode.SCENARIOS;
+	private SkippedStepsMode skippedMode = SkippedStepsMode.STEPS;
+	private int itemLogLimit = 0;
+	private long itemLogBytes = 0;
+	private boolean logCoalesce = false;
+	private long logCoalesceWindow = TimeUnit.SECONDS.toMillis(1);
+	private boolean embeddingAsyncDetection = false;
+
+	/**
+	 * Creates parameters with default values.
+	 */
+	public ReporterParameters() {
+	}
+
+	/**
+	 * Creates parameters with values loaded from properties.
+	 *
+	 * @param properties properties loader
+	 */
+	public ReporterParameters(@Nonnull PropertiesLoader properties) {
+		errorTrim = getBoolean(properties, ERROR_TRIM_PROPERTY, errorTrim);
+		errorDepth = getInt(properties, ERROR_DEPTH_PROPERTY, errorDepth);
+		errorDeduplication = getBoolean(properties, ERROR_DEDUPLICATION_PROPERTY, errorDeduplication);
+		errorFingerprintFrames = getInt(properties, ERROR_FINGERPRINT_FRAMES_PROPERTY, errorFingerprintFrames);
+		windowRequests = getInt(properties, WINDOW_REQUESTS_PROPERTY, windowRequests);
+		windowBytes = getLong(properties, WINDOW_BYTES_PROPERTY, windowBytes);
+		windowPolicy = getEnum(properties, WINDOW_POLICY_PROPERTY, windowPolicy);
+		windowTimeout = getLong(properties, WINDOW_TIMEOUT_PROPERTY, windowTimeout);
+		windowSpillDirectory = getString(properties, WINDOW_SPILL_DIRECTORY_PROPERTY, windowSpillDirectory);
+		journalEnable = getBoolean(properties, JOURNAL_ENABLE_PROPERTY, journalEnable);
+		journalDirectory = getString(properties, JOURNAL_DIRECTORY_PROPERTY, journalDirectory);
+		journalSegmentSize = getInt(properties, JOURNAL_SEGMENT_SIZE_PROPERTY, journalSegmentSize);
+		metricsJmx = getBoolean(properties, METRICS_JMX_PROPERTY, metricsJmx);
+		metricsSummary = getBoolean(properties, METRICS_SUMMARY_PROPERTY, metricsSummary);
+		budgetLaunchRequests = getLong(properties, BUDGET_LAUNCH_REQUESTS_PROPERTY, budgetLaunchRequests);
+		budgetLaunchBytes = getLong(properties, BUDGET_LAUNCH_BYTES_PROPERTY, budgetLaunchBytes);
+		budgetScenarioRequests = getInt(properties, BUDGET_SCENARIO_REQUESTS_PROPERTY, budgetScenarioRequests);
+		budgetDegradation = getEnum(properties, BUDGET_DEGRADATION_PROPERTY, budgetDegradation);
+		scenarioStepsAsLogs = getBoolean(properties, SCENARIO_STEPS_AS_LOGS_PROPERTY, scenarioStepsAsLogs);
+		hooksGroup = getBoolean(properties, HOOKS_GROUP_PROPERTY, hooksGroup);
+		hooksElide = getBoolean(properties, HOOKS_ELIDE_PROPERTY, hooksElide);
+		backgroundMode = getEnum(properties, BACKGROUND_MODE_PROPERTY, backgroundMode);
+		outlineMode = getEnum(properties, OUTLINE_MODE_PROPERTY, outlineMode);
+		skippedMode = getEnum(properties, SKIPPED_MODE_PROPERTY, skippedMode);
+		itemLogLimit = getInt(properties, ITEM_LOG_LIMIT_PROPERTY, itemLogLimit);
+		itemLogBytes = getLong(properties, ITEM_LOG_BYTES_PROPERTY, itemLogBytes);
+		logCoalesce = getBoolean(properties, LOG_COALESCE_PROPERTY, logCoalesce);
+		logCoalesceWindow = getLong(properties, LOG_COALESCE_WINDOW_PROPERTY, logCoalesceWindow);
+		embeddingAsyncDetection = getBoolean(properties, EMBEDDING_ASYNC_PROPERTY, embeddingAsyncDetection);
+	}
+
+	protected static String getString(@Nonnull PropertiesLoader properties, @Nonnull String name, String defaultValue) {
+		String value = properties.getProperty(name);
+		return StringUtils.isBlank(value) ? defaultValue : value.trim();
+	}
+
+	protected static <T extends Enum<T>> T getEnum(@Nonnull PropertiesLoader properties, @Nonnull String name, @Nonnull T defaultValue) {
+		String value = properties.getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			LOGGER.warn("Unknown '{}' property value '{}', using default: {}", name, value, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	protected static boolean getBoolean(@Nonnull PropertiesLoader properties, @Nonnull String name, boolean defaultValue) {
+		String value = properties.getProperty(name);
+		return StringUtils.isBlank(value) ? defaultValue : Boolean.parseBoolean(value.trim());
+	}
+
+	protected static int getInt(@Nonnull PropertiesLoader properties, @Nonnull String name, int defaultValue) {
+		return (int) getLong(properties, name, defaultValue);
+	}
+
+	protected static long getLong(@Nonnull PropertiesLoader properties, @Nonnull String name, long defaultValue) {
+		String value = properties.getProperty(name);
+		if (StringUtils.isBlank(value)) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.warn("Unable to parse '{}' property value '{}', using default: {}", name, value, defaultValue);
+			return defaultValue;
+		}
+	}
+
+	/**
+	 * @return true if stack trace frames shared with the reporter's call stack should be cut off from error reports
+	 */
+	public boolean isErrorTrim() {
+		return errorTrim;
+	}
+
+	public void setErrorTrim(boolean errorTrim) {
+		this.errorTrim = errorTrim;
+	}
+
+	/**
+	 * @return maximum number of stack trace frames reported for each exception in a cause chain, zero or negative means
+	 * no limit
+	 */
+	public int getErrorDepth() {
+		return errorDepth;
+	}
+
+	public void setErrorDepth(int errorDepth) {
+		this.errorDepth = errorDepth;
+	}
+
+	/**
+	 * @return true if only the first failure with the same stack fingerprint should be reported with the full stack
+	 * trace, and the rest with a short reference to it
+	 */
+	public boolean isErrorDeduplication() {
+		return errorDeduplication;
+	}
+
+	public void setErrorDeduplication(boolean errorDeduplication) {
+		this.errorDeduplication = errorDeduplication;
+	}
+
+	/**
+	 * @return number of top stack trace frames of each exception in a cause chain used in failure fingerprints
+	 */
+	public int getErrorFingerprintFrames() {
+		return errorFingerprintFrames;
+	}
+
+	public void setErrorFingerprintFrames(int errorFingerprintFrames) {
+		this.errorFingerprintFrames = errorFingerprintFrames;
+	}
+
+	/**
+	 * @return maximum number of requests in flight, zero or negative means no limit
+	 */
+	public int getWindowRequests() {
+		return windowRequests;
+	}
+
+	public void setWindowRequests(int windowRequests) {
+		this.windowRequests = windowRequests;
+	}
+
+	/**
+	 * @return maximum payload size of requests in flight in bytes, zero or negative means no limit
+	 */
+	public long getWindowBytes() {
+		return windowBytes;
+	}
+
+	public void setWindowBytes(long windowBytes) {
+		this.windowBytes = windowBytes;
+	}
+
+	/**
+	 * @return what to do when the in-flight request window is full
+	 */
+	public BackpressurePolicy getWindowPolicy() {
+		return windowPolicy;
+	}
+
+	public void setWindowPolicy(BackpressurePolicy windowPolicy) {
+		this.windowPolicy = windowPolicy;
+	}
+
+	/**
+	 * @return maximum time in milliseconds to block a test thread waiting for the in-flight request window, zero or
+	 * negative means no limit
+	 */
+	public long getWindowTimeout() {
+		return windowTimeout;
+	}
+
+	public void setWindowTimeout(long windowTimeout) {
+		this.windowTimeout = windowTimeout;
+	}
+
+	/**
+	 * @return a directory for logs spilled to disk
+	 */
+	public String getWindowSpillDirectory() {
+		return windowSpillDirectory;
+	}
+
+	public void setWindowSpillDirectory(String windowSpillDirectory) {
+		this.windowSpillDirectory = windowSpillDirectory;
+	}
+
+	/**
+	 * @return true if reporting events should be written to a local journal instead of being sent to ReportPortal
+	 */
+	public boolean isJournalEnable() {
+		return journalEnable;
+	}
+
+	public void setJournalEnable(boolean journalEnable) {
+		this.journalEnable = journalEnable;
+	}
+
+	/**
+	 * @return a directory for offline journals, each launch is written to its own subdirectory
+	 */
+	public String getJournalDirectory() {
+		return journalDirectory;
+	}
+
+	public void setJournalDirectory(String journalDirectory) {
+		this.journalDirectory = journalDirectory;
+	}
+
+	/**
+	 * @return a size of journal segment files in bytes
+	 */
+	public int getJournalSegmentSize() {
+		return journalSegmentSize;
+	}
+
+	public void setJournalSegmentSize(int journalSegmentSize) {
+		this.journalSegmentSize = journalSegmentSize;
+	}
+
+	/**
+	 * @return true if reporter metrics should be published as a JMX MBean while a launch is running
+	 */
+	public boolean isMetricsJmx() {
+		return metricsJmx;
+	}
+
+	public void setMetricsJmx(boolean metricsJmx) {
+		this.metricsJmx = metricsJmx;
+	}
+
+	/**
+	 * @return true if the agent overhead summary should be logged and attached to the launch as system attributes when
+	 * the launch finishes
+	 */
+	public boolean isMetricsSummary() {
+		return metricsSummary;
+	}
+
+	public void setMetricsSummary(boolean metricsSummary) {
+		this.metricsSummary = metricsSummary;
+	}
+
+	/**
+	 * @return maximum number of requests (item starts, item finishes, logs) per launch before the reporting is degraded,
+	 * zero or negative means no limit
+	 */
+	public long getBudgetLaunchRequests() {
+		return budgetLaunchRequests;
+	}
+
+	public void setBudgetLaunchRequests(long budgetLaunchRequests) {
+		this.budgetLaunchRequests = budgetLaunchRequests;
+	}
+
+	/**
+	 * @return maximum payload size of requests in bytes per launch before the reporting is degraded, zero or negative
+	 * means no limit
+	 */
+	public long getBudgetLaunchBytes() {
+		return budgetLaunchBytes;
+	}
+
+	public void setBudgetLaunchBytes(long budgetLaunchBytes) {
+		this.budgetLaunchBytes = budgetLaunchBytes;
+	}
+
+	/**
+	 * @return maximum number of requests per scenario before the rest of the scenario reporting is degraded, zero or
+	 * negative means no limit
+	 */
+	public int getBudgetScenarioRequests() {
+		return budgetScenarioRequests;
+	}
+
+	public void setBudgetScenarioRequests(int budgetScenarioRequests) {
+		this.budgetScenarioRequests = budgetScenarioRequests;
+	}
+
+	/**
+	 * @return a reporting mode to switch into when a request budget is exceeded
+	 */
+	public Degradation getBudgetDegradation() {
+		return budgetDegradation;
+	}
+
+	public void setBudgetDegradation(Degradation budgetDegradation) {
+		this.budgetDegradation = budgetDegradation;
+	}
+
+	/**
+	 * @return true if {@link ScenarioReporter} should report each step as a single log entry on its scenario item
+	 * instead of a nested item
+	 */
+	public boolean isScenarioStepsAsLogs() {
+		return scenarioStepsAsLogs;
+	}
+
+	public void setScenarioStepsAsLogs(boolean scenarioStepsAsLogs) {
+		this.scenarioStepsAsLogs = scenarioStepsAsLogs;
+	}
+
+	/**
+	 * @return true if consecutive hooks of the same type should be reported as one item
+	 */
+	public boolean isHooksGroup() {
+		return hooksGroup;
+	}
+
+	public void setHooksGroup(boolean hooksGroup) {
+		this.hooksGroup = hooksGroup;
+	}
+
+	/**
+	 * @return true if hook items should not be reported when all their hooks passed without logs and attachments
+	 */
+	public boolean isHooksElide() {
+		return hooksElide;
+	}
+
+	public void setHooksElide(boolean hooksElide) {
+		this.hooksElide = hooksElide;
+	}
+
+	/**
+	 * @return how feature Background steps should be reported for each scenario
+	 */
+	public BackgroundMode getBackgroundMode() {
+		return backgroundMode;
+	}
+
+	public void setBackgroundMode(BackgroundMode backgroundMode) {
+		this.backgroundMode = backgroundMode;
+	}
+
+	/**
+	 * @return how example rows of a Scenario Outline should be reported
+	 */
+	public OutlineMode getOutlineMode() {
+		return outlineMode;
+	}
+
+	public void setOutlineMode(OutlineMode outlineMode) {
+		this.outlineMode = outlineMode;
+	}
+
+	/**
+	 * @return how steps which are skipped after a failure should be reported
+	 */
+	public SkippedStepsMode getSkippedMode() {
+		return skippedMode;
+	}
+
+	public void setSkippedMode(SkippedStepsMode skippedMode) {
+		this.skippedMode = skippedMode;
+	}
+
+	/**
+	 * @return maximum number of logs sent for one item, zero or negative means no limit
+	 */
+	public int getItemLogLimit() {
+		return itemLogLimit;
+	}
+
+	public void setItemLogLimit(int itemLogLimit) {
+		this.itemLogLimit = itemLogLimit;
+	}
+
+	/**
+	 * @return maximum payload size of logs sent for one item, zero or negative means no limit
+	 */
+	public long getItemLogBytes() {
+		return itemLogBytes;
+	}
+
+	public void setItemLogBytes(long itemLogBytes) {
+		this.itemLogBytes = itemLogBytes;
+	}
+
+	/**
+	 * @return true if consecutive logs of an item with the same level and message template should be sent as one log
+	 */
+	public boolean isLogCoalesce() {
+		return logCoalesce;
+	}
+
+	public void setLogCoalesce(boolean logCoalesce) {
+		this.logCoalesce = logCoalesce;
+	}
+
+	/**
+	 * @return maximum time span of coalesced logs in milliseconds
+	 */
+	public long getLogCoalesceWindow() {
+		return logCoalesceWindow;
+	}
+
+	public void setLogCoalesceWindow(long logCoalesceWindow) {
+		this.logCoalesceWindow = logCoalesceWindow;
+	}
+
+	/**
+	 * @return true if MIME types of attachments without a valid type should be detected off the test thread
+	 */
+	public boolean isEmbeddingAsyncDetection() {
+		return embeddingAsyncDetection;
+	}
+
+	public void setEmbeddingAsyncDetection(boolean embeddingAsyncDetection) {
+		this.embeddingAsyncDetection = embeddingAsyncDetection;
+	}
+}
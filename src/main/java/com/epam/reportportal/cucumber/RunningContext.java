@@ -15,6 +15,9 @@
  */
 package com.epam.reportportal.cucumber;
 
+import com.epam.reportportal.cucumber.budget.Degradation;
+import com.epam.reportportal.utils.MemoizingSupplier;
+import cucumber.api.HookType;
 import cucumber.api.Result;
 import cucumber.api.TestCase;
 import cucumber.api.TestStep;
@@ -28,8 +31,7 @@ import io.reactivex.Maybe;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 /**
  * Running context that contains mostly manipulations with Gherkin objects.
@@ -48,8 +50,15 @@ public class RunningContext {
 		private static final Map<String, TestSourceRead> PATH_TO_READ_EVENT_MAP = new ConcurrentHashMap<>();
 		private final String currentFeatureUri;
 		private final Feature currentFeature;
+		private final Map<Integer, ScenarioContext> currentScenarios = new ConcurrentHashMap<>();
+		private final Map<Integer, CompactOutline> compactOutlines = new ConcurrentHashMap<>();
 		private Maybe<String> currentFeatureId;
 
+		// There is no event for recognizing end of feature in Cucumber.
+		// This field is used to record the last scenario time of the feature.
+		// End of feature occurs once launch is finished.
+		private volatile Date endTime;
+
 		public FeatureContext(TestCase testCase) {
 			TestSourceRead event = PATH_TO_READ_EVENT_MAP.get(testCase.getUri());
 			currentFeature = getFeature(event.source);
@@ -68,9 +77,60 @@ public class RunningContext {
 			context.processBackground(getBackground());
 			context.processScenarioOutline(scenario);
 			context.setFeatureUri(getUri());
+			context.setFeatureContext(this);
 			return context;
 		}
 
+		/**
+		 * Registers a running scenario in the feature if there is no scenario with the same line running yet.
+		 *
+		 * @param scenarioContext a context of the scenario to register
+		 * @return a running scenario context for the same line, or the given one if it was not registered before
+		 */
+		public ScenarioContext startScenario(ScenarioContext scenarioContext) {
+			return currentScenarios.computeIfAbsent(scenarioContext.getLine(), k -> scenarioContext);
+		}
+
+		/**
+		 * Removes a scenario from the running scenarios of the feature.
+		 *
+		 * @param scenarioContext a context of the scenario to remove
+		 */
+		public void finishScenario(ScenarioContext scenarioContext) {
+			currentScenarios.remove(scenarioContext.getLine());
+		}
+
+		/**
+		 * Returns a compact outline the scenario belongs to, the outline is created on its first row.
+		 *
+		 * @param scenarioContext an outline row scenario context
+		 * @param name            the outline item name
+		 * @return compact outline
+		 */
+		public CompactOutline getCompactOutline(ScenarioContext scenarioContext, String name) {
+			ScenarioDefinition outline = scenarioContext.getScenarioDefinition();
+			return compactOutlines.computeIfAbsent(outline.getLocation().getLine(),
+					line -> new CompactOutline((ScenarioOutline) outline, name)
+			);
+		}
+
+		/**
+		 * Removes a compact outline from the feature
+		 *
+		 * @param outline the outline to remove
+		 * @return true if the outline was not removed before
+		 */
+		public boolean removeCompactOutline(CompactOutline outline) {
+			return compactOutlines.remove(outline.getLine(), outline);
+		}
+
+		/**
+		 * @return compact outlines which are not finished yet
+		 */
+		public Collection<CompactOutline> getCompactOutlines() {
+			return new ArrayList<>(compactOutlines.values());
+		}
+
 		public Feature getFeature(String source) {
 			Parser<GherkinDocument> parser = new Parser<>(new AstBuilder());
 			TokenMatcher matcher = new TokenMatcher();
@@ -105,6 +165,14 @@ public class RunningContext {
 			this.currentFeatureId = featureId;
 		}
 
+		public Date getEndTime() {
+			return endTime;
+		}
+
+		public void setEndTime(Date endTime) {
+			this.endTime = endTime;
+		}
+
 		@SuppressWarnings("unchecked")
 		public <T extends ScenarioDefinition> T getScenario(TestCase testCase) {
 			List<ScenarioDefinition> featureScenarios = getFeature().getChildren();
@@ -136,20 +204,30 @@ public class RunningContext {
 		private final Queue<Step> backgroundSteps = new ArrayDeque<>();
 		private final Map<Integer, Step> scenarioLocationMap = new HashMap<>();
 
-		private Maybe<String> id;
-		private Maybe<String> currentStepId;
+		private ItemHandle item;
+		private ItemHandle currentStep;
 		private Background background;
 		private ScenarioDefinition scenario;
 		private TestCase testCase;
 		private boolean hasBackground = false;
 		private String outlineIteration;
 
-		private Maybe<String> hookStepId;
+		private MemoizingSupplier<Maybe<String>> hookItem;
+		private HookType hookType;
 		private Result.Type hookStatus;
 
 		private String uri;
+		private FeatureContext featureContext;
 		private String text;
 
+		private long requests;
+		private boolean degraded;
+		private CollapsedStep collapsedStep;
+		private CollapsedBackground collapsedBackground;
+		private CompactOutline compactOutline;
+		private SkippedSteps skippedSteps;
+		private List<PendingItem> pendingSteps;
+
 		public void processScenario(ScenarioDefinition scenario) {
 			this.scenario = scenario;
 			for (Step step : scenario.getSteps()) {
@@ -173,21 +251,27 @@ public class RunningContext {
 		 **/
 		public void processScenarioOutline(ScenarioDefinition scenarioOutline) {
 			if (isScenarioOutline(scenarioOutline)) {
-				scenarioOutlineMap.computeIfAbsent(scenarioOutline,
-						k -> ((ScenarioOutline) scenarioOutline).getExamples()
-								.stream()
-								.flatMap(e -> e.getTableBody().stream())
-								.map(r -> r.getLocation().getLine())
-								.collect(Collectors.toList())
-				);
-				int iterationIdx = IntStream.range(0, scenarioOutlineMap.get(scenarioOutline).size())
-						.filter(i -> getLine() == scenarioOutlineMap.get(scenarioOutline).get(i))
-						.findFirst()
-						.orElseThrow(() -> new IllegalStateException(String.format("No outline iteration number found for scenario %s:%s",
-								uri,
-								getLine()
-						)));
-				outlineIteration = String.format("[%d]", iterationIdx + 1);
+				List<Integer> lines = scenarioOutlineMap.computeIfAbsent(scenarioOutline, k -> {
+					List<Integer> rowLines = new ArrayList<>();
+					for (Examples examples : ((ScenarioOutline) scenarioOutline).getExamples()) {
+						for (TableRow row : examples.getTableBody()) {
+							rowLines.add(row.getLocation().getLine());
+						}
+					}
+					return rowLines;
+				});
+				int line = getLine();
+				int iterationIdx = -1;
+				for (int i = 0; i < lines.size(); i++) {
+					if (lines.get(i) == line) {
+						iterationIdx = i;
+						break;
+					}
+				}
+				if (iterationIdx < 0) {
+					throw new IllegalStateException(String.format("No outline iteration number found for scenario %s:%s", uri, line));
+				}
+				outlineIteration = "[" + (iterationIdx + 1) + "]";
 			}
 		}
 
@@ -225,14 +309,22 @@ public class RunningContext {
 		}
 
 		public Maybe<String> getId() {
-			return id;
+			return item == null ? null : item.getId();
 		}
 
 		public void setId(Maybe<String> newId) {
-			if (id != null) {
+			setItem(new ItemHandle(newId, null));
+		}
+
+		public ItemHandle getItem() {
+			return item;
+		}
+
+		public void setItem(ItemHandle newItem) {
+			if (item != null) {
 				throw new IllegalStateException("Attempting re-set scenario ID for unfinished scenario: " + getName());
 			}
-			id = newId;
+			item = newItem;
 		}
 
 		public void setTestCase(TestCase testCase) {
@@ -258,24 +350,116 @@ public class RunningContext {
 			return hasBackground && background != null;
 		}
 
+		public Background getBackground() {
+			return background;
+		}
+
+		public ScenarioDefinition getScenarioDefinition() {
+			return scenario;
+		}
+
+		/**
+		 * @return example values of a scenario outline row as 'name=value' pairs, or an empty string for scenarios
+		 */
+		public String getOutlineParameters() {
+			if (!isScenarioOutline(scenario)) {
+				return "";
+			}
+			for (Examples examples : ((ScenarioOutline) scenario).getExamples()) {
+				for (TableRow row : examples.getTableBody()) {
+					if (row.getLocation().getLine() == getLine()) {
+						TableRow header = examples.getTableHeader();
+						List<TableCell> cells = row.getCells();
+						StringBuilder parameters = new StringBuilder();
+						for (int i = 0; i < cells.size(); i++) {
+							if (header != null && i >= header.getCells().size()) {
+								break;
+							}
+							if (i > 0) {
+								parameters.append(", ");
+							}
+							if (header != null) {
+								parameters.append(header.getCells().get(i).getValue()).append('=');
+							}
+							parameters.append(cells.get(i).getValue());
+						}
+						return parameters.toString();
+					}
+				}
+			}
+			return "";
+		}
+
+		/**
+		 * @param step a Gherkin step of the scenario
+		 * @return true if the step belongs to the feature background
+		 */
+		public boolean isBackgroundStep(Step step) {
+			return hasBackground() && background.getSteps().contains(step);
+		}
+
 		public String getOutlineIteration() {
 			return outlineIteration;
 		}
 
 		public Maybe<String> getCurrentStepId() {
-			return currentStepId;
+			return currentStep == null ? null : currentStep.getId();
 		}
 
 		public void setCurrentStepId(Maybe<String> currentStepId) {
-			this.currentStepId = currentStepId;
+			setCurrentStep(currentStepId == null ? null : new ItemHandle(currentStepId, null));
+		}
+
+		public ItemHandle getCurrentStep() {
+			return currentStep;
 		}
 
+		public void setCurrentStep(ItemHandle currentStep) {
+			this.currentStep = currentStep;
+		}
+
+		/**
+		 * Returns an ID of the running hook item, the item is started on this call if it was deferred.
+		 *
+		 * @return hook item ID or null if there is no running hook item
+		 */
 		public Maybe<String> getHookStepId() {
-			return hookStepId;
+			return hookItem == null ? null : hookItem.get();
 		}
 
 		public void setHookStepId(Maybe<String> hookStepId) {
-			this.hookStepId = hookStepId;
+			if (hookStepId == null) {
+				setHookItem(null, null);
+			} else {
+				MemoizingSupplier<Maybe<String>> item = new MemoizingSupplier<>(() -> hookStepId);
+				item.get();
+				setHookItem(item, null);
+			}
+		}
+
+		/**
+		 * @return running hook item, which may be not started yet, or null if there is no running hook item
+		 */
+		public MemoizingSupplier<Maybe<String>> getHookItem() {
+			return hookItem;
+		}
+
+		/**
+		 * @return a type of hooks of the running hook item
+		 */
+		public HookType getHookType() {
+			return hookType;
+		}
+
+		/**
+		 * Sets a running hook item, the item is started on the first {@link MemoizingSupplier#get()} call.
+		 *
+		 * @param hookItem a hook item supplier, or null if there is no running hook item
+		 * @param hookType a type of hooks of the item
+		 */
+		public void setHookItem(MemoizingSupplier<Maybe<String>> hookItem, HookType hookType) {
+			this.hookItem = hookItem;
+			this.hookType = hookType;
 		}
 
 		public Result.Type getHookStatus() {
@@ -294,6 +478,14 @@ public class RunningContext {
 			return uri;
 		}
 
+		public void setFeatureContext(FeatureContext featureContext) {
+			this.featureContext = featureContext;
+		}
+
+		public FeatureContext getFeatureContext() {
+			return featureContext;
+		}
+
 		public void setCurrentText(String stepText) {
 			this.text = stepText;
 		}
@@ -305,5 +497,428 @@ public class RunningContext {
 		public TestCase getTestCase() {
 			return testCase;
 		}
+
+		/**
+		 * Accounts a request sent for the scenario or its steps.
+		 */
+		public void onRequest() {
+			requests++;
+		}
+
+		/**
+		 * @return number of requests sent for the scenario and its steps so far
+		 */
+		public long getRequests() {
+			return requests;
+		}
+
+		public boolean isDegraded() {
+			return degraded;
+		}
+
+		public void setDegraded(boolean degraded) {
+			this.degraded = degraded;
+		}
+
+		public CollapsedStep getCollapsedStep() {
+			return collapsedStep;
+		}
+
+		public void setCollapsedStep(CollapsedStep collapsedStep) {
+			this.collapsedStep = collapsedStep;
+		}
+
+		public CollapsedBackground getCollapsedBackground() {
+			return collapsedBackground;
+		}
+
+		public void setCollapsedBackground(CollapsedBackground collapsedBackground) {
+			this.collapsedBackground = collapsedBackground;
+		}
+
+		/**
+		 * @return steps skipped after a failure which are reported together, or null if there was no failure yet
+		 */
+		public SkippedSteps getSkippedSteps() {
+			return skippedSteps;
+		}
+
+		public void setSkippedSteps(SkippedSteps skippedSteps) {
+			this.skippedSteps = skippedSteps;
+		}
+
+		/**
+		 * @return a compact outline the scenario is a row of, or null if the scenario is reported as usual
+		 */
+		public CompactOutline getCompactOutline() {
+			return compactOutline;
+		}
+
+		public void setCompactOutline(CompactOutline compactOutline) {
+			this.compactOutline = compactOutline;
+		}
+
+		/**
+		 * Remembers a step which passed before its scenario item was started, to report it if the scenario item is
+		 * started later.
+		 *
+		 * @param step a passed step
+		 */
+		public void addPendingStep(PendingItem step) {
+			if (pendingSteps == null) {
+				pendingSteps = new ArrayList<>();
+			}
+			pendingSteps.add(step);
+		}
+
+		/**
+		 * @return passed steps which are not reported yet, in the order of execution, the list is cleared
+		 */
+		public List<PendingItem> pollPendingSteps() {
+			List<PendingItem> result = pendingSteps == null ? Collections.emptyList() : pendingSteps;
+			pendingSteps = null;
+			return result;
+		}
+	}
+
+	/**
+	 * A finished item which is not reported yet, since its start was deferred.
+	 */
+	public static class PendingItem {
+		private final ItemHandle item;
+		private final Date endTime;
+
+		public PendingItem(ItemHandle item, Date endTime) {
+			this.item = item;
+			this.endTime = endTime;
+		}
+
+		public ItemHandle getItem() {
+			return item;
+		}
+
+		public Date getEndTime() {
+			return endTime;
+		}
+	}
+
+	/**
+	 * A scenario outline which is reported as one item: example rows which passed without logs are collected into a
+	 * summary table, other rows are reported as separate scenarios.
+	 */
+	public static class CompactOutline {
+		private final int line;
+		private final String name;
+		private final int rows;
+		private final Date startTime = new Date();
+		private final List<List<String>> passedRows = new ArrayList<>();
+		private int finishedRows;
+		private Date endTime;
+		private Maybe<String> id;
+
+		/**
+		 * @param outline a Gherkin scenario outline
+		 * @param name    the outline item name
+		 */
+		public CompactOutline(ScenarioOutline outline, String name) {
+			this.line = outline.getLocation().getLine();
+			this.name = name;
+			this.rows = outline.getExamples().stream().mapToInt(e -> e.getTableBody().size()).sum();
+		}
+
+		public int getLine() {
+			return line;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return total number of example rows of the outline
+		 */
+		public int getRows() {
+			return rows;
+		}
+
+		public Date getStartTime() {
+			return startTime;
+		}
+
+		public synchronized Date getEndTime() {
+			return endTime;
+		}
+
+		/**
+		 * Returns an ID of the outline item, the item is started on the first call.
+		 *
+		 * @param start starts the outline item and returns its ID
+		 * @return outline item ID
+		 */
+		public synchronized Maybe<String> getId(Supplier<Maybe<String>> start) {
+			if (id == null) {
+				id = start.get();
+			}
+			return id;
+		}
+
+		/**
+		 * @return true if the outline item start request was sent
+		 */
+		public synchronized boolean isStarted() {
+			return id != null;
+		}
+
+		/**
+		 * Records a row which passed without logs
+		 *
+		 * @param iteration      the row number
+		 * @param parameters     the row example values
+		 * @param durationMillis the row duration in milliseconds
+		 */
+		public synchronized void addPassedRow(String iteration, String parameters, long durationMillis) {
+			passedRows.add(Arrays.asList(iteration, parameters, String.valueOf(durationMillis)));
+		}
+
+		/**
+		 * @return rows which passed without logs: the row number, example values and duration in milliseconds
+		 */
+		public synchronized List<List<String>> getPassedRows() {
+			return new ArrayList<>(passedRows);
+		}
+
+		/**
+		 * Accounts a finished row
+		 *
+		 * @param endTime the row end time
+		 * @return true if all rows of the outline are finished
+		 */
+		public synchronized boolean finishRow(Date endTime) {
+			this.endTime = endTime;
+			return ++finishedRows >= rows;
+		}
+	}
+
+	/**
+	 * Steps of a running scenario which are skipped after a failure and are reported together as one item or log.
+	 */
+	public static class SkippedSteps {
+		private final Date startTime;
+		private final List<String> steps = new ArrayList<>();
+		private Date endTime;
+
+		/**
+		 * @param startTime the failure time
+		 */
+		public SkippedSteps(Date startTime) {
+			this.startTime = startTime;
+			this.endTime = startTime;
+		}
+
+		/**
+		 * @param stepName a name of the skipped step
+		 * @param endTime  the step end time
+		 */
+		public void addStep(String stepName, Date endTime) {
+			steps.add(stepName);
+			this.endTime = endTime;
+		}
+
+		/**
+		 * @return names of skipped steps in the order of execution
+		 */
+		public List<String> getSteps() {
+			return steps;
+		}
+
+		public Date getStartTime() {
+			return startTime;
+		}
+
+		public Date getEndTime() {
+			return endTime;
+		}
+	}
+
+	/**
+	 * Background steps of a running scenario which passed without logs and are reported together as one item or log.
+	 */
+	public static class CollapsedBackground {
+		private static final String STEP_FORMAT = "%s (%d ms)";
+
+		private final String name;
+		private final List<String> steps = new ArrayList<>();
+		private Date startTime;
+		private Date endTime;
+		private String currentStep;
+		private String currentStepArgument;
+		private Date currentStepStartTime;
+
+		/**
+		 * @param name the background name with its keyword
+		 */
+		public CollapsedBackground(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @param stepName  a name of the started background step
+		 * @param argument  a multiline argument of the step, or an empty string
+		 * @param startTime the step start time
+		 */
+		public void startStep(String stepName, String argument, Date startTime) {
+			currentStep = stepName;
+			currentStepArgument = argument;
+			currentStepStartTime = startTime;
+		}
+
+		/**
+		 * @param collapsed      true if the step passed without logs and goes into the collapsed background
+		 * @param endTime        the step end time
+		 * @param durationMillis the step duration in milliseconds
+		 */
+		public void finishStep(boolean collapsed, Date endTime, long durationMillis) {
+			if (collapsed && currentStep != null) {
+				if (startTime == null) {
+					startTime = currentStepStartTime;
+				}
+				this.endTime = endTime;
+				String collapsedStep = String.format(STEP_FORMAT, currentStep, durationMillis);
+				steps.add(currentStepArgument == null || currentStepArgument.isEmpty() ?
+						collapsedStep :
+						collapsedStep + "\n" + currentStepArgument);
+			}
+			currentStep = null;
+			currentStepArgument = null;
+			currentStepStartTime = null;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return descriptions of collapsed steps in the order of execution
+		 */
+		public List<String> getSteps() {
+			return steps;
+		}
+
+		public Date getStartTime() {
+			return startTime;
+		}
+
+		public Date getEndTime() {
+			return endTime;
+		}
+	}
+
+	/**
+	 * A running step which is reported as a log line on its scenario item instead of a separate item.
+	 */
+	public static class CollapsedStep {
+		private final TestStep testStep;
+		private final String name;
+		private final Date startTime;
+		private final Degradation degradation;
+
+		/**
+		 * @param testStep    a Cucumber step
+		 * @param name        the step name with its prefix and keyword
+		 * @param startTime   the step start time
+		 * @param degradation a reporting mode the step was started in
+		 */
+		public CollapsedStep(TestStep testStep, String name, Date startTime, Degradation degradation) {
+			this.testStep = testStep;
+			this.name = name;
+			this.startTime = startTime;
+			this.degradation = degradation;
+		}
+
+		public TestStep getTestStep() {
+			return testStep;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Date getStartTime() {
+			return startTime;
+		}
+
+		public Degradation getDegradation() {
+			return degradation;
+		}
+	}
+
+	/**
+	 * A started test item with the state which is necessary to finish it: the item ID, the description it was started
+	 * with and the error caught during the item execution. The handle lives as long as the item is running, so nothing
+	 * is left behind once the item is finished, whatever its status is.
+	 * <p>
+	 * A deferred handle starts its item only when the item ID is requested for the first time, e.g. for a log.
+	 */
+	public static class ItemHandle {
+		private final Supplier<Maybe<String>> start;
+		private final String description;
+		private Maybe<String> id;
+		private Throwable error;
+
+		/**
+		 * @param id          an ID of the started item
+		 * @param description a description of the item, or null if the error should not be appended to the description
+		 */
+		public ItemHandle(Maybe<String> id, String description) {
+			this(null, id, description);
+		}
+
+		private ItemHandle(Supplier<Maybe<String>> start, Maybe<String> id, String description) {
+			this.start = start;
+			this.id = id;
+			this.description = description;
+		}
+
+		/**
+		 * Creates a handle of an item which is not started yet
+		 *
+		 * @param start       starts the item and returns its ID
+		 * @param description a description of the item, or null if the error should not be appended to the description
+		 * @return item handle
+		 */
+		public static ItemHandle deferred(Supplier<Maybe<String>> start, String description) {
+			return new ItemHandle(start, null, description);
+		}
+
+		/**
+		 * Returns an ID of the item, a deferred item is started on the first call.
+		 *
+		 * @return item ID
+		 */
+		public Maybe<String> getId() {
+			if (id == null && start != null) {
+				id = start.get();
+			}
+			return id;
+		}
+
+		/**
+		 * @return true if the item start request was sent
+		 */
+		public boolean isStarted() {
+			return id != null;
+		}
+
+		public String getDescription() {
+			return description;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public void setError(Throwable error) {
+			this.error = error;
+		}
 	}
 }
@@ -15,6 +15,7 @@
  */
 package com.epam.reportportal.cucumber;
 
+import com.epam.reportportal.cucumber.budget.Degradation;
 import com.epam.reportportal.listeners.ItemType;
 import com.epam.reportportal.utils.MemoizingSupplier;
 import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
@@ -23,7 +24,7 @@ import cucumber.api.TestStep;
 import io.reactivex.Maybe;
 
 import javax.annotation.Nonnull;
-import java.util.Calendar;
+import java.util.Date;
 import java.util.Optional;
 
 /**
@@ -33,9 +34,12 @@ import java.util.Optional;
  * <ul>
  * <li>feature - TEST</li>
  * <li>scenario - STEP</li>
- * <li>step - log item</li>
+ * <li>step - nested STEP item without statistics, or a log item</li>
  * </ul>
  * <p>
+ * With {@link ReporterParameters#isScenarioStepsAsLogs()} each step is reported as a single log entry on its scenario
+ * item with the step keyword, text, status, duration and arguments, no items are created for steps.
+ * <p>
  * Dummy "Root Test Suite" is created because in current implementation of RP
  * test items cannot be immediate children of a launch
  * <p>
@@ -67,14 +71,46 @@ public class ScenarioReporter extends AbstractReporter {
 	}
 
 	@Override
-	protected void beforeStep(TestStep testStep) {
-		super.beforeStep(testStep);
-		String description = buildMultilineArgument(testStep).trim();
-		if (!description.isEmpty()) {
-			sendLog(description);
+	protected boolean isStepReportedAsLog(@Nonnull Degradation degradation) {
+		return getReporterParameters().isScenarioStepsAsLogs() || super.isStepReportedAsLog(degradation);
+	}
+
+	@Override
+	protected void stepItemStarted(@Nonnull TestStep testStep, @Nonnull Maybe<String> stepId) {
+		// a deferred step item gets its multiline argument once it is started
+		String argument = buildMultilineArgument(testStep).trim();
+		if (!argument.isEmpty()) {
+			sendLog(stepId, argument, "INFO");
 		}
 	}
 
+	/**
+	 * Scenarios are reported as items with statistics, which can not be nested, so rows of a compact outline are
+	 * siblings of its item
+	 *
+	 * @return false
+	 */
+	@Override
+	protected boolean isCompactOutlineContainer() {
+		return false;
+	}
+
+	@Nonnull
+	@Override
+	protected StartTestItemRQ buildStartBackgroundRequest(@Nonnull String name, @Nonnull String description, @Nonnull Date startTime) {
+		StartTestItemRQ rq = super.buildStartBackgroundRequest(name, description, startTime);
+		rq.setHasStats(false);
+		return rq;
+	}
+
+	@Nonnull
+	@Override
+	protected StartTestItemRQ buildStartSkippedStepsRequest(@Nonnull String description, @Nonnull Date startTime) {
+		StartTestItemRQ rq = super.buildStartSkippedStepsRequest(description, startTime);
+		rq.setHasStats(false);
+		return rq;
+	}
+
 	@Override
 	protected StartTestItemRQ buildStartHookRequest(HookType hookType) {
 		StartTestItemRQ rq = super.buildStartHookRequest(hookType);
@@ -123,9 +159,9 @@ public class ScenarioReporter extends AbstractReporter {
 		rootSuiteId = new MemoizingSupplier<>(() -> {
 			StartTestItemRQ rq = new StartTestItemRQ();
 			rq.setName("Root User Story");
-			rq.setStartTime(Calendar.getInstance().getTime());
+			rq.setStartTime(new Date());
 			rq.setType(RP_STORY_TYPE);
-			return launch.get().startTestItem(rq);
+			return sendStartTestItem(null, rq);
 		});
 	}
 }
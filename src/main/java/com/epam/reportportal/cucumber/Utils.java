@@ -17,22 +17,38 @@ package com.epam.reportportal.cucumber;
 
 import com.epam.reportportal.listeners.ItemStatus;
 import com.epam.reportportal.listeners.LogLevel;
-import com.epam.reportportal.utils.reflect.Accessible;
 import cucumber.api.Result;
 import cucumber.api.TestStep;
 import io.reactivex.annotations.Nullable;
 
 import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.Collectors;
-
-import static java.util.Optional.ofNullable;
 
 public class Utils {
 	private static final String DEFINITION_MATCH_FIELD_NAME = "definitionMatch";
 	private static final String STEP_DEFINITION_FIELD_NAME = "stepDefinition";
 	private static final String METHOD_FIELD_NAME = "method";
+	private static final String GET_LOCATION_METHOD_NAME = "getLocation";
+
+	// reflection lookups are done once per class, not on every step
+	private static final ClassValue<Optional<Field>> DEFINITION_MATCH_FIELD = new FieldLookup(DEFINITION_MATCH_FIELD_NAME);
+	private static final ClassValue<Optional<Field>> STEP_DEFINITION_FIELD = new FieldLookup(STEP_DEFINITION_FIELD_NAME);
+	private static final ClassValue<Optional<Field>> METHOD_FIELD = new FieldLookup(METHOD_FIELD_NAME);
+	private static final ClassValue<Optional<Method>> GET_LOCATION_METHOD = new ClassValue<Optional<Method>>() {
+		@Override
+		protected Optional<Method> computeValue(Class<?> type) {
+			try {
+				Method method = type.getDeclaredMethod(GET_LOCATION_METHOD_NAME, boolean.class);
+				method.setAccessible(true);
+				return Optional.of(method);
+			} catch (NoSuchMethodException | RuntimeException e) {
+				return Optional.empty();
+			}
+		}
+	};
 
 	private Utils() {
 		throw new RuntimeException("No instances should exist for the class!");
@@ -71,22 +87,94 @@ public class Utils {
 	}
 
 	public static Method retrieveMethod(Object stepDefinitionMatch) throws IllegalAccessException, NoSuchFieldException {
-		Object javaStepDefinition = Accessible.on(stepDefinitionMatch).field(STEP_DEFINITION_FIELD_NAME).getValue();
+		Object javaStepDefinition = getStepDefinition(stepDefinitionMatch);
 		Method method = null;
 		if (javaStepDefinition != null) {
-			method = (Method) Accessible.on(javaStepDefinition).field(METHOD_FIELD_NAME).getValue();
+			method = (Method) getFieldValue(METHOD_FIELD, METHOD_FIELD_NAME, javaStepDefinition);
 		}
 		return method;
 	}
 
-	public static final java.util.function.Function<List<cucumber.runtime.Argument>, List<?>> ARGUMENTS_TRANSFORM = arguments -> ofNullable(
-			arguments).map(args -> args.stream().map(cucumber.runtime.Argument::getVal).collect(Collectors.toList())).orElse(null);
+	/**
+	 * Returns a step definition of a definition match
+	 *
+	 * @param stepDefinitionMatch Cucumber's step definition match
+	 * @return the step definition
+	 * @throws IllegalAccessException if the definition is not accessible
+	 * @throws NoSuchFieldException   if the match has no step definition
+	 */
+	@Nullable
+	public static Object getStepDefinition(@Nonnull Object stepDefinitionMatch) throws IllegalAccessException, NoSuchFieldException {
+		return getFieldValue(STEP_DEFINITION_FIELD, STEP_DEFINITION_FIELD_NAME, stepDefinitionMatch);
+	}
+
+	/**
+	 * Returns a location of step definition code, e.g. 'com.example.Steps.step(String)'
+	 *
+	 * @param stepDefinition Cucumber's step definition
+	 * @return the location
+	 * @throws IllegalAccessException    if the location method is not accessible
+	 * @throws NoSuchMethodException     if the step definition has no location method
+	 * @throws InvocationTargetException if the location method failed
+	 */
+	@Nullable
+	public static Object getStepDefinitionLocation(@Nonnull Object stepDefinition)
+			throws IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+		Optional<Method> method = GET_LOCATION_METHOD.get(stepDefinition.getClass());
+		if (!method.isPresent()) {
+			throw new NoSuchMethodException(GET_LOCATION_METHOD_NAME);
+		}
+		return method.get().invoke(stepDefinition, true);
+	}
+
+	private static Object getFieldValue(ClassValue<Optional<Field>> lookup, String name, Object target)
+			throws IllegalAccessException, NoSuchFieldException {
+		Optional<Field> field = lookup.get(target.getClass());
+		if (!field.isPresent()) {
+			throw new NoSuchFieldException(name);
+		}
+		return field.get().get(target);
+	}
+
+	private static class FieldLookup extends ClassValue<Optional<Field>> {
+		private final String name;
+
+		private FieldLookup(String name) {
+			this.name = name;
+		}
+
+		@Override
+		protected Optional<Field> computeValue(Class<?> type) {
+			for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+				try {
+					Field field = current.getDeclaredField(name);
+					field.setAccessible(true);
+					return Optional.of(field);
+				} catch (NoSuchFieldException ignore) {
+				} catch (RuntimeException e) {
+					return Optional.empty();
+				}
+			}
+			return Optional.empty();
+		}
+	}
+
+	public static final java.util.function.Function<List<cucumber.runtime.Argument>, List<?>> ARGUMENTS_TRANSFORM = arguments -> {
+		if (arguments == null) {
+			return null;
+		}
+		List<String> values = new ArrayList<>(arguments.size());
+		for (cucumber.runtime.Argument argument : arguments) {
+			values.add(argument.getVal());
+		}
+		return values;
+	};
 
 	@Nullable
 	public static Object getDefinitionMatch(@Nonnull TestStep testStep) {
 		try {
-			return Accessible.on(testStep).field(DEFINITION_MATCH_FIELD_NAME).getValue();
-		} catch (NoSuchFieldException e) {
+			return getFieldValue(DEFINITION_MATCH_FIELD, DEFINITION_MATCH_FIELD_NAME, testStep);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
 			return null;
 		}
 	}
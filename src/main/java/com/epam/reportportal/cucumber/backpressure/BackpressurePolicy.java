@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+/**
+ * Defines what a reporter does when its in-flight request window is full.
+ */
+public enum BackpressurePolicy {
+	/**
+	 * Block the test thread until there is a room in the window or a timeout expires.
+	 */
+	BLOCK,
+	/**
+	 * Drop logs and attachments which do not fit into the window, test items are never dropped.
+	 */
+	DROP_LOGS,
+	/**
+	 * Write logs and attachments which do not fit into the window into a temporary file and send them once there is a
+	 * room in the window, test items are never delayed.
+	 */
+	SPILL
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts requests which are passed to ReportPortal client but not yet completed, by number and by payload size. When
+ * the window is full, item requests and logs are handled according to a {@link BackpressurePolicy}.
+ * <p>
+ * The window is lock-free on the fast path: a lock is taken only by threads which wait for a room under
+ * {@link BackpressurePolicy#BLOCK} policy.
+ */
+public class InFlightWindow {
+	private static final Logger LOGGER = LoggerFactory.getLogger(InFlightWindow.class);
+	private static final long MAX_WAIT_STEP_MILLIS = 100;
+
+	private final int maxRequests;
+	private final long maxBytes;
+	private final BackpressurePolicy policy;
+	private final long timeoutMillis;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicInteger peakRequests = new AtomicInteger();
+	private final AtomicLong peakBytes = new AtomicLong();
+	private final AtomicLong droppedLogs = new AtomicLong();
+	private final AtomicLong spilledLogs = new AtomicLong();
+	private final AtomicLong blockedNanos = new AtomicLong();
+
+	private final Object lock = new Object();
+	private volatile int waiters;
+
+	/**
+	 * @param maxRequests   maximum number of requests in flight, zero or negative means no limit
+	 * @param maxBytes      maximum payload size of requests in flight, zero or negative means no limit
+	 * @param policy        what to do when the window is full
+	 * @param timeoutMillis maximum time to block a thread under {@link BackpressurePolicy#BLOCK} policy, zero or negative
+	 *                      means no limit
+	 */
+	public InFlightWindow(int maxRequests, long maxBytes, @Nonnull BackpressurePolicy policy, long timeoutMillis) {
+		this.maxRequests = maxRequests;
+		this.maxBytes = maxBytes;
+		this.policy = policy;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * @return a window which only counts requests and never blocks or drops anything
+	 */
+	@Nonnull
+	public static InFlightWindow unbounded() {
+		return new InFlightWindow(0, 0, BackpressurePolicy.BLOCK, 0);
+	}
+
+	public boolean isBounded() {
+		return maxRequests > 0 || maxBytes > 0;
+	}
+
+	@Nonnull
+	public BackpressurePolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Accounts a test item request. Under {@link BackpressurePolicy#BLOCK} policy waits for a room in the window, under
+	 * other policies the request is always accepted, since items can't be dropped or delayed without breaking the
+	 * launch structure.
+	 *
+	 * @param size request payload size
+	 */
+	public void acquireItem(long size) {
+		if (policy == BackpressurePolicy.BLOCK) {
+			acquire(size);
+		} else {
+			forceAcquire(size);
+		}
+	}
+
+	/**
+	 * Accounts a log request. Under {@link BackpressurePolicy#BLOCK} policy waits for a room in the window, under other
+	 * policies returns immediately.
+	 *
+	 * @param size request payload size
+	 * @return true if the log was accounted and should be sent, false if there is no room for it
+	 */
+	public boolean acquireLog(long size) {
+		if (policy == BackpressurePolicy.BLOCK) {
+			acquire(size);
+			return true;
+		}
+		return tryAcquire(size);
+	}
+
+	/**
+	 * Accounts a request if there is a room for it.
+	 *
+	 * @param size request payload size
+	 * @return true if the request was accounted
+	 */
+	public boolean tryAcquire(long size) {
+		int currentRequests = requests.incrementAndGet();
+		long currentBytes = bytes.addAndGet(size);
+		if ((maxRequests <= 0 || currentRequests <= maxRequests) && (maxBytes <= 0 || currentBytes <= maxBytes
+				|| currentRequests == 1)) {
+			peakRequests.accumulateAndGet(currentRequests, Math::max);
+			peakBytes.accumulateAndGet(currentBytes, Math::max);
+			return true;
+		}
+		requests.decrementAndGet();
+		bytes.addAndGet(-size);
+		return false;
+	}
+
+	/**
+	 * Accounts a request regardless of the window state.
+	 *
+	 * @param size request payload size
+	 */
+	public void forceAcquire(long size) {
+		peakRequests.accumulateAndGet(requests.incrementAndGet(), Math::max);
+		peakBytes.accumulateAndGet(bytes.addAndGet(size), Math::max);
+	}
+
+	/**
+	 * Accounts a request waiting for a room in the window. If the timeout expires or the thread is interrupted the
+	 * request is accounted anyway, so the reporter never hangs a test run.
+	 *
+	 * @param size request payload size
+	 */
+	public void acquire(long size) {
+		if (tryAcquire(size)) {
+			return;
+		}
+		long start = System.nanoTime();
+		long deadline = timeoutMillis > 0 ? start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+		try {
+			synchronized (lock) {
+				waiters++;
+				try {
+					while (!tryAcquire(size)) {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0) {
+							LOGGER.warn("Timeout waiting for in-flight request window, requests: {}, bytes: {}", requests.get(), bytes.get());
+							forceAcquire(size);
+							return;
+						}
+						lock.wait(Math.max(1, Math.min(MAX_WAIT_STEP_MILLIS, TimeUnit.NANOSECONDS.toMillis(remaining))));
+					}
+				} finally {
+					waiters--;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			forceAcquire(size);
+		} finally {
+			blockedNanos.addAndGet(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Removes a completed request from the window.
+	 *
+	 * @param size request payload size
+	 */
+	public void release(long size) {
+		requests.decrementAndGet();
+		bytes.addAndGet(-size);
+		if (waiters > 0) {
+			synchronized (lock) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	public void onLogDropped() {
+		droppedLogs.incrementAndGet();
+	}
+
+	public void onLogSpilled() {
+		spilledLogs.incrementAndGet();
+	}
+
+	/**
+	 * @return current number of requests in flight
+	 */
+	public int getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * @return current payload size of requests in flight
+	 */
+	public long getBytes() {
+		return bytes.get();
+	}
+
+	public int getPeakRequests() {
+		return peakRequests.get();
+	}
+
+	public long getPeakBytes() {
+		return peakBytes.get();
+	}
+
+	public long getDroppedLogs() {
+		return droppedLogs.get();
+	}
+
+	public long getSpilledLogs() {
+		return spilledLogs.get();
+	}
+
+	/**
+	 * @return total time threads spent waiting for a room in the window, in nanoseconds
+	 */
+	public long getBlockedNanos() {
+		return blockedNanos.get();
+	}
+}
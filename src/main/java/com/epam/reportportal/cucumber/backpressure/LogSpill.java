@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Queue;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * A temporary file for logs which did not fit into the in-flight request window. Log texts and attachments are stored
+ * on disk, only small entry descriptors are kept in memory. Logs are read back in the order they were written.
+ */
+public class LogSpill implements Closeable {
+	private final Path path;
+	private final FileChannel channel;
+	private final Queue<Entry> entries = new ArrayDeque<>();
+	private long position;
+
+	/**
+	 * Creates a spill file in the specified directory, the file is deleted once the spill is closed.
+	 *
+	 * @param directory a directory for the spill file
+	 * @throws IOException if the file can't be created
+	 */
+	public LogSpill(@Nonnull Path directory) throws IOException {
+		Files.createDirectories(directory);
+		path = Files.createTempFile(directory, "rp-cucumber-spill-", ".bin");
+		channel = FileChannel.open(path, READ, WRITE, DELETE_ON_CLOSE);
+	}
+
+	@Nonnull
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Stores a log.
+	 *
+	 * @param itemId  an ID of the item the log belongs to
+	 * @param level   a log level
+	 * @param time    a log time
+	 * @param message a log message
+	 * @param file    a log attachment
+	 * @throws IOException if the log can't be written
+	 */
+	public synchronized void write(@Nonnull Maybe<String> itemId, @Nonnull String level, @Nonnull Date time, @Nullable String message,
+			@Nullable SaveLogRQ.File file) throws IOException {
+		byte[] text = message == null ? null : message.getBytes(StandardCharsets.UTF_8);
+		byte[] content = file == null ? null : file.getContent();
+		long textPosition = position;
+		position += write(text);
+		long contentPosition = position;
+		position += write(content);
+		entries.add(new Entry(itemId,
+				level,
+				time,
+				textPosition,
+				text == null ? -1 : text.length,
+				file == null ? null : file.getName(),
+				file == null ? null : file.getContentType(),
+				contentPosition,
+				content == null ? -1 : content.length,
+				PayloadSize.of(message, file)
+		));
+	}
+
+	private int write(@Nullable byte[] data) throws IOException {
+		if (data == null || data.length == 0) {
+			return 0;
+		}
+		ByteBuffer buffer = ByteBuffer.wrap(data);
+		long writePosition = position;
+		while (buffer.hasRemaining()) {
+			writePosition += channel.write(buffer, writePosition);
+		}
+		return data.length;
+	}
+
+	@Nonnull
+	private byte[] read(long from, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		long readPosition = from;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, readPosition);
+			if (read < 0) {
+				throw new IOException("Unexpected end of log spill file: " + path);
+			}
+			readPosition += read;
+		}
+		return buffer.array();
+	}
+
+	public synchronized boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return a payload size of the next log, or -1 if the spill is empty
+	 */
+	public synchronized long peekSize() {
+		Entry entry = entries.peek();
+		return entry == null ? -1 : entry.size;
+	}
+
+	/**
+	 * Reads and removes the next log.
+	 *
+	 * @return the next log, or null if the spill is empty
+	 * @throws IOException if the log can't be read
+	 */
+	@Nullable
+	public synchronized SpilledLog poll() throws IOException {
+		Entry entry = entries.poll();
+		if (entry == null) {
+			return null;
+		}
+		SaveLogRQ rq = new SaveLogRQ();
+		rq.setLevel(entry.level);
+		rq.setLogTime(entry.time);
+		if (entry.textLength >= 0) {
+			rq.setMessage(new String(read(entry.textPosition, entry.textLength), StandardCharsets.UTF_8));
+		}
+		if (entry.contentLength >= 0) {
+			SaveLogRQ.File file = new SaveLogRQ.File();
+			file.setName(entry.fileName);
+			file.setContentType(entry.contentType);
+			file.setContent(read(entry.contentPosition, entry.contentLength));
+			rq.setFile(file);
+		}
+		if (entries.isEmpty()) {
+			// reuse the file space once everything is read
+			channel.truncate(0);
+			position = 0;
+		}
+		return new SpilledLog(entry.itemId, rq, entry.size);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		entries.clear();
+		channel.close();
+	}
+
+	private static class Entry {
+		private final Maybe<String> itemId;
+		private final String level;
+		private final Date time;
+		private final long textPosition;
+		private final int textLength;
+		private final String fileName;
+		private final String contentType;
+		private final long contentPosition;
+		private final int contentLength;
+		private final long size;
+
+		private Entry(Maybe<String> itemId, String level, Date time, long textPosition, int textLength, String fileName,
+				String contentType, long contentPosition, int contentLength, long size) {
+			this.itemId = itemId;
+			this.level = level;
+			this.time = time;
+			this.textPosition = textPosition;
+			this.textLength = textLength;
+			this.fileName = fileName;
+			this.contentType = contentType;
+			this.contentPosition = contentPosition;
+			this.contentLength = contentLength;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * A log read back from the spill with the ID of its item, the item UUID is set at sending time.
+	 */
+	public static class SpilledLog {
+		private final Maybe<String> itemId;
+		private final SaveLogRQ request;
+		private final long size;
+
+		private SpilledLog(Maybe<String> itemId, SaveLogRQ request, long size) {
+			this.itemId = itemId;
+			this.request = request;
+			this.size = size;
+		}
+
+		@Nonnull
+		public Maybe<String> getItemId() {
+			return itemId;
+		}
+
+		@Nonnull
+		public SaveLogRQ getRequest() {
+			return request;
+		}
+
+		public long getSize() {
+			return size;
+		}
+	}
+}
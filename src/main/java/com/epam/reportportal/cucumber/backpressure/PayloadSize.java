@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Rough payload size estimations of ReportPortal requests. They are not exact serialized sizes, but they are cheap
+ * and proportional to the memory a request holds while it is in flight.
+ */
+public class PayloadSize {
+	private static final long REQUEST_OVERHEAD = 256;
+	private static final long ENTRY_OVERHEAD = 64;
+
+	private PayloadSize() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	private static long length(@Nullable String value) {
+		return value == null ? 0 : value.length();
+	}
+
+	public static long of(@Nonnull StartTestItemRQ rq) {
+		long size = REQUEST_OVERHEAD + length(rq.getName()) + length(rq.getDescription()) + length(rq.getCodeRef());
+		if (rq.getAttributes() != null) {
+			size += rq.getAttributes().size() * ENTRY_OVERHEAD;
+		}
+		if (rq.getParameters() != null) {
+			size += rq.getParameters().size() * ENTRY_OVERHEAD;
+		}
+		return size;
+	}
+
+	public static long of(@Nonnull FinishTestItemRQ rq) {
+		return REQUEST_OVERHEAD + length(rq.getDescription());
+	}
+
+	public static long of(@Nullable String message, @Nullable SaveLogRQ.File file) {
+		long size = REQUEST_OVERHEAD + length(message);
+		if (file != null && file.getContent() != null) {
+			size += file.getContent().length;
+		}
+		return size;
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.budget;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Cheaper reporting modes a reporter switches into when its {@link RequestBudget} is exceeded. Each mode includes
+ * everything the previous ones do.
+ */
+public enum Degradation {
+	/**
+	 * Report everything
+	 */
+	NONE,
+	/**
+	 * Drop logs with levels below WARN and attachments, failures are still reported with their errors
+	 */
+	DROP_INFO_LOGS,
+	/**
+	 * Additionally report steps as log lines on their scenario item instead of separate items
+	 */
+	STEPS_AS_LOGS,
+	/**
+	 * Additionally skip passed and skipped steps, only failed steps are reported as log lines with their errors
+	 */
+	FAILURES_ONLY;
+
+	/**
+	 * @param other a mode to compare with
+	 * @return true if this mode is the same or cheaper than the given one
+	 */
+	public boolean includes(@Nonnull Degradation other) {
+		return ordinal() >= other.ordinal();
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.budget;
+
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Limits the number and the payload size of logs of one item. Once a limit is exceeded all further logs of the item are
+ * diverted into a ZIP archive, which is reported as a single attachment when the item finishes. Text logs are written
+ * into text entries as lines with the log time and level, attachments are written as separate entries, so the archive
+ * keeps the original log order.
+ */
+public class LogOverflow {
+	public static final String ATTACHMENT_NAME = "log-overflow.zip";
+	public static final String ATTACHMENT_CONTENT_TYPE = "application/zip";
+
+	private static final String TEXT_ENTRY_FORMAT = "%05d.log";
+	private static final String FILE_ENTRY_FORMAT = "%05d-%s";
+	private static final String LINE_FORMAT = "%s %-5s %s\n";
+	private static final String TIME_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+
+	private final int maxLogs;
+	private final long maxBytes;
+
+	private int logs;
+	private long bytes;
+	private int divertedLogs;
+	private long divertedBytes;
+	private int entries;
+	private boolean textEntry;
+	private ByteArrayOutputStream buffer;
+	private ZipOutputStream archive;
+	private SimpleDateFormat timeFormat;
+
+	/**
+	 * @param maxLogs  maximum number of logs of an item, zero or negative means no limit
+	 * @param maxBytes maximum payload size of logs of an item, zero or negative means no limit
+	 */
+	public LogOverflow(int maxLogs, long maxBytes) {
+		this.maxLogs = maxLogs;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Accounts a log of the item. Once a log is rejected, all further logs are rejected too, to keep the log order.
+	 *
+	 * @param size the log payload size
+	 * @return true if the log fits into the limits and should be sent as usual, false if it should be diverted
+	 */
+	public synchronized boolean accept(long size) {
+		if (divertedLogs == 0 && (maxLogs <= 0 || logs < maxLogs) && (maxBytes <= 0 || bytes + size <= maxBytes)) {
+			logs++;
+			bytes += size;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Writes a rejected log into the overflow archive
+	 *
+	 * @param size    the log payload size
+	 * @param level   a log level
+	 * @param time    a log time
+	 * @param message a log message
+	 * @param file    a log attachment
+	 * @throws IOException if the archive cannot be written
+	 */
+	public synchronized void divert(long size, @Nonnull String level, @Nonnull Date time, @Nullable String message,
+			@Nullable SaveLogRQ.File file) throws IOException {
+		if (archive == null) {
+			buffer = new ByteArrayOutputStream();
+			archive = new ZipOutputStream(buffer, StandardCharsets.UTF_8);
+			timeFormat = new SimpleDateFormat(TIME_FORMAT);
+		}
+		divertedLogs++;
+		divertedBytes += size;
+		if (!textEntry) {
+			archive.putNextEntry(new ZipEntry(String.format(TEXT_ENTRY_FORMAT, ++entries)));
+			textEntry = true;
+		}
+		String line = String.format(LINE_FORMAT, timeFormat.format(time), level, message == null ? "" : message);
+		archive.write(line.getBytes(StandardCharsets.UTF_8));
+		if (file != null && file.getContent() != null) {
+			archive.closeEntry();
+			String name = file.getName() == null || file.getName().isEmpty() ? "attachment" : file.getName();
+			archive.putNextEntry(new ZipEntry(String.format(FILE_ENTRY_FORMAT, ++entries, name)));
+			archive.write(file.getContent());
+			archive.closeEntry();
+			textEntry = false;
+		}
+	}
+
+	/**
+	 * @return true if any log was diverted into the archive
+	 */
+	public synchronized boolean isOverflown() {
+		return archive != null;
+	}
+
+	public synchronized int getDivertedLogs() {
+		return divertedLogs;
+	}
+
+	public synchronized long getDivertedBytes() {
+		return divertedBytes;
+	}
+
+	/**
+	 * Completes the overflow archive, no logs can be diverted after that
+	 *
+	 * @return the archive content
+	 * @throws IOException if the archive cannot be written
+	 */
+	@Nonnull
+	public synchronized byte[] finish() throws IOException {
+		if (archive == null) {
+			return new byte[0];
+		}
+		archive.close();
+		byte[] result = buffer.toByteArray();
+		archive = null;
+		buffer = null;
+		return result;
+	}
+}
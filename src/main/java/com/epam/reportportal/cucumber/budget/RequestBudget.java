@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.budget;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts requests a reporter produces during a launch: item starts, item finishes and logs, by number and by payload
+ * size. Once the launch budget is exceeded the rest of the launch is reported in a cheaper {@link Degradation} mode, once
+ * a scenario budget is exceeded the rest of the scenario is.
+ * <p>
+ * Budgets are not hard limits: requests which are necessary to keep the launch structure, like item finishes, are
+ * always sent, so the actual number of requests can slightly exceed the budget.
+ */
+public class RequestBudget {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RequestBudget.class);
+
+	private final long maxLaunchRequests;
+	private final long maxLaunchBytes;
+	private final long maxScenarioRequests;
+	private final Degradation degradation;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong bytes = new AtomicLong();
+	private final AtomicBoolean launchExceeded = new AtomicBoolean();
+	private final AtomicLong degradedScenarios = new AtomicLong();
+	private final AtomicLong droppedLogs = new AtomicLong();
+	private final AtomicLong collapsedSteps = new AtomicLong();
+
+	/**
+	 * @param maxLaunchRequests   maximum number of requests per launch, zero or negative means no limit
+	 * @param maxLaunchBytes      maximum payload size of requests per launch, zero or negative means no limit
+	 * @param maxScenarioRequests maximum number of requests per scenario, zero or negative means no limit
+	 * @param degradation         a reporting mode to switch into when a budget is exceeded
+	 */
+	public RequestBudget(long maxLaunchRequests, long maxLaunchBytes, long maxScenarioRequests, @Nonnull Degradation degradation) {
+		this.maxLaunchRequests = maxLaunchRequests;
+		this.maxLaunchBytes = maxLaunchBytes;
+		this.maxScenarioRequests = maxScenarioRequests;
+		this.degradation = degradation;
+	}
+
+	/**
+	 * @return a budget which only counts requests and never degrades reporting
+	 */
+	@Nonnull
+	public static RequestBudget unlimited() {
+		return new RequestBudget(0, 0, 0, Degradation.NONE);
+	}
+
+	public boolean isLimited() {
+		return degradation != Degradation.NONE && (maxLaunchRequests > 0 || maxLaunchBytes > 0 || maxScenarioRequests > 0);
+	}
+
+	/**
+	 * Accounts a request in the launch budget.
+	 *
+	 * @param size request payload size
+	 */
+	public void onRequest(long size) {
+		long launchRequests = requests.incrementAndGet();
+		long launchBytes = bytes.addAndGet(size);
+		if (degradation == Degradation.NONE || launchExceeded.get()) {
+			return;
+		}
+		if ((maxLaunchRequests > 0 && launchRequests > maxLaunchRequests) || (maxLaunchBytes > 0 && launchBytes > maxLaunchBytes)) {
+			if (launchExceeded.compareAndSet(false, true)) {
+				LOGGER.warn(
+						"Launch request budget exceeded: {} requests, {} bytes. The rest of the launch is reported in {} mode",
+						launchRequests,
+						launchBytes,
+						degradation
+				);
+			}
+		}
+	}
+
+	/**
+	 * Returns a reporting mode for a scenario which has already produced the given number of requests.
+	 *
+	 * @param scenarioRequests number of requests of the current scenario
+	 * @return current reporting mode
+	 */
+	@Nonnull
+	public Degradation getDegradation(long scenarioRequests) {
+		if (launchExceeded.get() || (maxScenarioRequests > 0 && scenarioRequests >= maxScenarioRequests)) {
+			return degradation;
+		}
+		return Degradation.NONE;
+	}
+
+	/**
+	 * @return maximum number of requests per scenario, zero or negative means no limit
+	 */
+	public long getMaxScenarioRequests() {
+		return maxScenarioRequests;
+	}
+
+	public boolean isLaunchExceeded() {
+		return launchExceeded.get();
+	}
+
+	public void onScenarioDegraded() {
+		degradedScenarios.incrementAndGet();
+	}
+
+	public void onLogDropped() {
+		droppedLogs.incrementAndGet();
+	}
+
+	public void onStepCollapsed() {
+		collapsedSteps.incrementAndGet();
+	}
+
+	/**
+	 * @return number of requests accounted during the launch
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * @return payload size of requests accounted during the launch
+	 */
+	public long getBytes() {
+		return bytes.get();
+	}
+
+	public long getDegradedScenarios() {
+		return degradedScenarios.get();
+	}
+
+	public long getDroppedLogs() {
+		return droppedLogs.get();
+	}
+
+	public long getCollapsedSteps() {
+		return collapsedSteps.get();
+	}
+
+	/**
+	 * @return true if any part of the launch was reported in a degraded mode
+	 */
+	public boolean isDegraded() {
+		return launchExceeded.get() || degradedScenarios.get() > 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"requests=%d, bytes=%d, launchExceeded=%s, degradedScenarios=%d, droppedLogs=%d, collapsedSteps=%d",
+				getRequests(),
+				getBytes(),
+				isLaunchExceeded(),
+				getDegradedScenarios(),
+				getDroppedLogs(),
+				getCollapsedSteps()
+		);
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.jfr;
+
+import jdk.jfr.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Flight Recorder event classes. Loaded only through {@link ReporterEvents} when Flight Recorder is available.
+ */
+final class JfrEvents {
+
+	private JfrEvents() {
+		throw new AssertionError("No instances should exist for the class!");
+	}
+
+	static boolean isAvailable() {
+		return FlightRecorder.isAvailable();
+	}
+
+	@Nonnull
+	static ReporterEvent begin(@Nonnull ReporterEvents.Type type) {
+		AgentEvent event;
+		switch (type) {
+			case FEATURE_PARSE:
+				event = new FeatureParse();
+				break;
+			case SCENARIO_START:
+				event = new ScenarioStart();
+				break;
+			case STEP_START:
+				event = new StepStart();
+				break;
+			case STEP_FINISH:
+				event = new StepFinish();
+				break;
+			case LOG_EMIT:
+				event = new LogEmit();
+				break;
+			case EMBEDDING:
+				event = new Embedding();
+				break;
+			default:
+				event = new LaunchFinish();
+		}
+		if (!event.isEnabled()) {
+			return ReporterEvent.NOOP;
+		}
+		event.begin();
+		return event;
+	}
+
+	@Category({ "ReportPortal", "Cucumber Agent" })
+	@StackTrace(false)
+	abstract static class AgentEvent extends Event implements ReporterEvent {
+		@Label("Feature URI")
+		String featureUri;
+
+		@Label("Line")
+		int line;
+
+		@Label("Payload Size")
+		@DataAmount
+		long payloadSize;
+
+		@Override
+		public void commit(@Nullable String featureUri, int line, long payloadSize) {
+			end();
+			if (shouldCommit()) {
+				this.featureUri = featureUri;
+				this.line = line;
+				this.payloadSize = payloadSize;
+				commit();
+			}
+		}
+	}
+
+	@Name("com.epam.reportportal.cucumber.FeatureParse")
+	@Label("Feature Parse")
+	@Description("Parsing of a feature file source into a feature context")
+	static class FeatureParse extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.ScenarioStart")
+	@Label("Scenario Start")
+	@Description("Handling of a test case start: feature and scenario items creation")
+	static class ScenarioStart extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.StepStart")
+	@Label("Step Start")
+	@Description("Handling of a test step or hook start")
+	static class StepStart extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.StepFinish")
+	@Label("Step Finish")
+	@Description("Handling of a test step or hook finish")
+	static class StepFinish extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.LogEmit")
+	@Label("Log Emit")
+	@Description("Passing a log or an attachment to the reporting sink")
+	static class LogEmit extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.Embedding")
+	@Label("Embedding")
+	@Description("Handling of an embedded attachment")
+	static class Embedding extends AgentEvent {
+	}
+
+	@Name("com.epam.reportportal.cucumber.LaunchFinish")
+	@Label("Launch Finish")
+	@Description("Finishing of the launch, including waiting for all requests to complete")
+	static class LaunchFinish extends AgentEvent {
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.jfr;
+
+import javax.annotation.Nullable;
+
+/**
+ * A reporter operation being recorded by JDK Flight Recorder. The operation duration is counted from
+ * {@link ReporterEvents#begin(ReporterEvents.Type)} to {@link #commit(String, int, long)}.
+ */
+public interface ReporterEvent {
+
+	ReporterEvent NOOP = (featureUri, line, payloadSize) -> {
+	};
+
+	/**
+	 * Finishes the operation and writes the event if it is enabled in the current recording.
+	 *
+	 * @param featureUri  a URI of the feature file the operation belongs to
+	 * @param line        a line of the scenario or step in the feature file, zero if not applicable
+	 * @param payloadSize a size of the data the operation sends, zero if not applicable
+	 */
+	void commit(@Nullable String featureUri, int line, long payloadSize);
+}
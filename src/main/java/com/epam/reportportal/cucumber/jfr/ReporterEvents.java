@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.jfr;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Entry point for JDK Flight Recorder events of reporter operations. JFR classes are touched only if the runtime has
+ * Flight Recorder, so the agent works unchanged on Java 8 builds without it.
+ */
+public final class ReporterEvents {
+
+	/**
+	 * Recorded reporter operations
+	 */
+	public enum Type {
+		FEATURE_PARSE,
+		SCENARIO_START,
+		STEP_START,
+		STEP_FINISH,
+		LOG_EMIT,
+		EMBEDDING,
+		LAUNCH_FINISH
+	}
+
+	private static final boolean AVAILABLE = checkAvailable();
+
+	private ReporterEvents() {
+		throw new AssertionError("No instances should exist for the class!");
+	}
+
+	private static boolean checkAvailable() {
+		try {
+			Class.forName("jdk.jfr.FlightRecorder", false, ReporterEvents.class.getClassLoader());
+			return JfrEvents.isAvailable();
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if the runtime supports Flight Recorder
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	/**
+	 * Starts timing of a reporter operation.
+	 *
+	 * @param type operation type
+	 * @return an event to commit when the operation is finished, does nothing if Flight Recorder is not available or
+	 * the event is not enabled
+	 */
+	@Nonnull
+	public static ReporterEvent begin(@Nonnull Type type) {
+		return AVAILABLE ? JfrEvents.begin(type) : ReporterEvent.NOOP;
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import com.epam.reportportal.cucumber.sink.ReportingSink;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Offline replacement of a ReportPortal launch: reporting events are written to a local journal instead of being sent
+ * to the server. Launch and item IDs are generated locally, {@link JournalReplayer} maps them to server IDs on upload.
+ */
+public class Journal implements ReportingSink, Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+
+	private final JournalWriter writer;
+
+	/**
+	 * @param writer a writer of the journal to put events to
+	 */
+	public Journal(@Nonnull JournalWriter writer) {
+		this.writer = writer;
+	}
+
+	private void append(byte type, @Nonnull byte[] payload) {
+		try {
+			writer.append(type, payload);
+		} catch (IOException e) {
+			LOGGER.error("Unable to write a record to the journal: " + writer.getDirectory(), e);
+		}
+	}
+
+	/**
+	 * Records a launch start
+	 *
+	 * @param rq launch start request
+	 * @return local launch ID
+	 */
+	@Nonnull
+	@Override
+	public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+		String uuid = UUID.randomUUID().toString();
+		append(JournalCodec.LAUNCH_START, JournalCodec.encodeLaunchStart(uuid, rq));
+		return Maybe.just(uuid);
+	}
+
+	/**
+	 * Records an item start
+	 *
+	 * @param parentId local parent item ID, or null for a root item
+	 * @param rq       item start request
+	 * @return local item ID
+	 */
+	@Nonnull
+	@Override
+	public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		String uuid = UUID.randomUUID().toString();
+		// local IDs are always resolved
+		String parentUuid = parentId == null ? null : parentId.blockingGet();
+		append(JournalCodec.ITEM_START, JournalCodec.encodeItemStart(uuid, parentUuid, rq));
+		return Maybe.just(uuid);
+	}
+
+	/**
+	 * Records an item finish
+	 *
+	 * @param itemId local item ID
+	 * @param rq     item finish request
+	 */
+	@Nonnull
+	@Override
+	public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		append(JournalCodec.ITEM_FINISH, JournalCodec.encodeItemFinish(itemId.blockingGet(), rq));
+		return Completable.complete();
+	}
+
+	/**
+	 * Records a log entry or an attachment
+	 *
+	 * @param itemId local item ID, or null for a launch log
+	 * @param rq     log request
+	 */
+	@Nonnull
+	@Override
+	public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+		append(JournalCodec.LOG, JournalCodec.encodeLog(itemId == null ? null : itemId.blockingGet(), rq));
+		return Completable.complete();
+	}
+
+	/**
+	 * Records a launch finish and closes the journal
+	 *
+	 * @param rq launch finish request
+	 */
+	@Override
+	public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+		append(JournalCodec.LAUNCH_FINISH, JournalCodec.encodeLaunchFinish(rq));
+		try {
+			close();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to close the journal: " + writer.getDirectory(), e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
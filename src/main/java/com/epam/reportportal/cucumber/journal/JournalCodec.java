@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.ParameterResource;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import com.epam.ta.reportportal.ws.model.launch.Mode;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary encoding of journal records. Only request fields which are set by the agent are stored: strings are
+ * length-prefixed UTF-8, dates are epoch milliseconds, absent values are marked with negative lengths or flags.
+ */
+public class JournalCodec {
+	public static final byte LAUNCH_START = 1;
+	public static final byte ITEM_START = 2;
+	public static final byte ITEM_FINISH = 3;
+	public static final byte LOG = 4;
+	public static final byte LAUNCH_FINISH = 5;
+
+	private static final long NO_DATE = Long.MIN_VALUE;
+
+	private JournalCodec() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+
+	@Nonnull
+	public static byte[] encodeLaunchStart(@Nonnull String uuid, @Nonnull StartLaunchRQ rq) {
+		return encode(out -> {
+			writeString(out, uuid);
+			writeString(out, rq.getName());
+			writeString(out, rq.getDescription());
+			writeDate(out, rq.getStartTime());
+			writeString(out, rq.getMode() == null ? null : rq.getMode().name());
+			writeAttributes(out, rq.getAttributes());
+			out.writeBoolean(rq.isRerun());
+			writeString(out, rq.getRerunOf());
+		});
+	}
+
+	@Nonnull
+	public static byte[] encodeItemStart(@Nonnull String uuid, @Nullable String parentUuid, @Nonnull StartTestItemRQ rq) {
+		return encode(out -> {
+			writeString(out, uuid);
+			writeString(out, parentUuid);
+			writeString(out, rq.getName());
+			writeString(out, rq.getDescription());
+			writeDate(out, rq.getStartTime());
+			writeString(out, rq.getType());
+			writeString(out, rq.getCodeRef());
+			writeString(out, rq.getTestCaseId());
+			out.writeBoolean(rq.isHasStats());
+			writeAttributes(out, rq.getAttributes());
+			List<ParameterResource> parameters = rq.getParameters();
+			out.writeInt(parameters == null ? -1 : parameters.size());
+			if (parameters != null) {
+				for (ParameterResource parameter : parameters) {
+					writeString(out, parameter.getKey());
+					writeString(out, parameter.getValue());
+				}
+			}
+		});
+	}
+
+	@Nonnull
+	public static byte[] encodeItemFinish(@Nonnull String uuid, @Nonnull FinishTestItemRQ rq) {
+		return encode(out -> {
+			writeString(out, uuid);
+			writeDate(out, rq.getEndTime());
+			writeString(out, rq.getStatus());
+			writeString(out, rq.getDescription());
+		});
+	}
+
+	@Nonnull
+	public static byte[] encodeLog(@Nullable String itemUuid, @Nonnull SaveLogRQ rq) {
+		return encode(out -> {
+			writeString(out, itemUuid);
+			writeString(out, rq.getLevel());
+			writeDate(out, rq.getLogTime());
+			writeString(out, rq.getMessage());
+			SaveLogRQ.File file = rq.getFile();
+			out.writeBoolean(file != null);
+			if (file != null) {
+				writeString(out, file.getName());
+				writeString(out, file.getContentType());
+				writeBytes(out, file.getContent());
+			}
+		});
+	}
+
+	@Nonnull
+	public static byte[] encodeLaunchFinish(@Nonnull FinishExecutionRQ rq) {
+		return encode(out -> {
+			writeDate(out, rq.getEndTime());
+			writeAttributes(out, rq.getAttributes());
+		});
+	}
+
+	/**
+	 * Decodes a record payload.
+	 *
+	 * @param type     record type
+	 * @param payload  record payload
+	 * @param position record position in the journal
+	 * @return decoded record
+	 * @throws IOException if the payload is malformed
+	 */
+	@Nonnull
+	public static JournalRecord decode(byte type, @Nonnull byte[] payload, long position) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+		switch (type) {
+			case LAUNCH_START: {
+				String uuid = readString(in);
+				StartLaunchRQ rq = new StartLaunchRQ();
+				rq.setName(readString(in));
+				rq.setDescription(readString(in));
+				rq.setStartTime(readDate(in));
+				String mode = readString(in);
+				rq.setMode(mode == null ? null : Mode.valueOf(mode));
+				rq.setAttributes(readAttributes(in));
+				rq.setRerun(in.readBoolean());
+				rq.setRerunOf(readString(in));
+				return new JournalRecord(type, position, uuid, null, rq);
+			}
+			case ITEM_START: {
+				String uuid = readString(in);
+				String parentUuid = readString(in);
+				StartTestItemRQ rq = new StartTestItemRQ();
+				rq.setName(readString(in));
+				rq.setDescription(readString(in));
+				rq.setStartTime(readDate(in));
+				rq.setType(readString(in));
+				rq.setCodeRef(readString(in));
+				rq.setTestCaseId(readString(in));
+				rq.setHasStats(in.readBoolean());
+				rq.setAttributes(readAttributes(in));
+				int parameterNumber = in.readInt();
+				if (parameterNumber >= 0) {
+					List<ParameterResource> parameters = new ArrayList<>(parameterNumber);
+					for (int i = 0; i < parameterNumber; i++) {
+						ParameterResource parameter = new ParameterResource();
+						parameter.setKey(readString(in));
+						parameter.setValue(readString(in));
+						parameters.add(parameter);
+					}
+					rq.setParameters(parameters);
+				}
+				return new JournalRecord(type, position, uuid, parentUuid, rq);
+			}
+			case ITEM_FINISH: {
+				String uuid = readString(in);
+				FinishTestItemRQ rq = new FinishTestItemRQ();
+				rq.setEndTime(readDate(in));
+				rq.setStatus(readString(in));
+				rq.setDescription(readString(in));
+				return new JournalRecord(type, position, uuid, null, rq);
+			}
+			case LOG: {
+				String itemUuid = readString(in);
+				SaveLogRQ rq = new SaveLogRQ();
+				rq.setLevel(readString(in));
+				rq.setLogTime(readDate(in));
+				rq.setMessage(readString(in));
+				if (in.readBoolean()) {
+					SaveLogRQ.File file = new SaveLogRQ.File();
+					file.setName(readString(in));
+					file.setContentType(readString(in));
+					file.setContent(readBytes(in));
+					rq.setFile(file);
+				}
+				return new JournalRecord(type, position, itemUuid, null, rq);
+			}
+			case LAUNCH_FINISH: {
+				FinishExecutionRQ rq = new FinishExecutionRQ();
+				rq.setEndTime(readDate(in));
+				// journals written before the attributes were added end with the date
+				if (in.available() > 0) {
+					rq.setAttributes(readAttributes(in));
+				}
+				return new JournalRecord(type, position, null, null, rq);
+			}
+			default:
+				throw new IOException("Unknown journal record type: " + type);
+		}
+	}
+
+	private interface Encoder {
+		void encode(DataOutputStream out) throws IOException;
+	}
+
+	@Nonnull
+	private static byte[] encode(@Nonnull Encoder encoder) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			encoder.encode(out);
+		} catch (IOException e) {
+			// never happens with an in-memory stream
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeBytes(@Nonnull DataOutputStream out, @Nullable byte[] value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(value.length);
+		out.write(value);
+	}
+
+	@Nullable
+	private static byte[] readBytes(@Nonnull DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] result = new byte[length];
+		in.readFully(result);
+		return result;
+	}
+
+	private static void writeString(@Nonnull DataOutputStream out, @Nullable String value) throws IOException {
+		writeBytes(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Nullable
+	private static String readString(@Nonnull DataInputStream in) throws IOException {
+		byte[] bytes = readBytes(in);
+		return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeDate(@Nonnull DataOutputStream out, @Nullable Date value) throws IOException {
+		out.writeLong(value == null ? NO_DATE : value.getTime());
+	}
+
+	@Nullable
+	private static Date readDate(@Nonnull DataInputStream in) throws IOException {
+		long value = in.readLong();
+		return value == NO_DATE ? null : new Date(value);
+	}
+
+	private static void writeAttributes(@Nonnull DataOutputStream out, @Nullable Set<ItemAttributesRQ> attributes) throws IOException {
+		out.writeInt(attributes == null ? -1 : attributes.size());
+		if (attributes != null) {
+			for (ItemAttributesRQ attribute : attributes) {
+				writeString(out, attribute.getKey());
+				writeString(out, attribute.getValue());
+				out.writeBoolean(attribute.isSystem());
+			}
+		}
+	}
+
+	@Nullable
+	private static Set<ItemAttributesRQ> readAttributes(@Nonnull DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		Set<ItemAttributesRQ> attributes = new HashSet<>(size * 2);
+		for (int i = 0; i < size; i++) {
+			ItemAttributesRQ attribute = new ItemAttributesRQ(readString(in), readString(in));
+			attribute.setSystem(in.readBoolean());
+			attributes.add(attribute);
+		}
+		return attributes;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential reader of journal segments written by {@link JournalWriter}. Reading of a segment stops at the zero end
+ * marker or at the first damaged record, which is the last record written before a crash.
+ */
+public class JournalReader implements Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalReader.class);
+
+	private final Path directory;
+
+	private int segment = -1;
+	private MappedByteBuffer buffer;
+
+	/**
+	 * @param directory a journal directory
+	 */
+	public JournalReader(@Nonnull Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return the next record or null if there are no more records
+	 * @throws IOException if unable to read a segment file
+	 */
+	@Nullable
+	public JournalRecord next() throws IOException {
+		while (true) {
+			if (buffer == null || buffer.remaining() < JournalWriter.HEADER_SIZE) {
+				if (!nextSegment()) {
+					return null;
+				}
+				continue;
+			}
+			int offset = buffer.position();
+			int length = buffer.getInt();
+			if (length <= 0 || length > buffer.remaining() - Integer.BYTES) {
+				buffer = null;
+				continue;
+			}
+			int checksum = buffer.getInt();
+			byte type = buffer.get();
+			byte[] payload = new byte[length - 1];
+			buffer.get(payload);
+			CRC32 crc = new CRC32();
+			crc.update(type);
+			crc.update(payload);
+			if ((int) crc.getValue() != checksum) {
+				LOGGER.warn("Damaged journal record at segment {} offset {}, skipping the rest of the segment", segment, offset);
+				buffer = null;
+				continue;
+			}
+			return JournalCodec.decode(type, payload, ((long) segment << 32) | offset);
+		}
+	}
+
+	private boolean nextSegment() throws IOException {
+		Path path = JournalWriter.segmentPath(directory, segment + 1);
+		if (!Files.exists(path)) {
+			buffer = null;
+			return false;
+		}
+		segment++;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		return true;
+	}
+
+	@Override
+	public void close() {
+		buffer = null;
+	}
+}
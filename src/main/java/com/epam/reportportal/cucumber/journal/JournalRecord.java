@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A decoded journal record: a reporting event with local identifiers of the items it belongs to.
+ */
+public class JournalRecord {
+	private final byte type;
+	private final long position;
+	private final String uuid;
+	private final String parentUuid;
+	private final Object request;
+
+	public JournalRecord(byte type, long position, @Nullable String uuid, @Nullable String parentUuid, @Nonnull Object request) {
+		this.type = type;
+		this.position = position;
+		this.uuid = uuid;
+		this.parentUuid = parentUuid;
+		this.request = request;
+	}
+
+	/**
+	 * @return record type, one of {@link JournalCodec} type constants
+	 */
+	public byte getType() {
+		return type;
+	}
+
+	/**
+	 * @return record position in the journal: segment number in high 32 bits and the offset in the segment in low 32 bits
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * @return local UUID of the launch or item the record describes, or which a log record belongs to
+	 */
+	@Nullable
+	public String getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * @return local UUID of the parent item for item start records
+	 */
+	@Nullable
+	public String getParentUuid() {
+		return parentUuid;
+	}
+
+	/**
+	 * @param <T> request type
+	 * @return the request to send to ReportPortal
+	 */
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	public <T> T getRequest() {
+		return (T) request;
+	}
+}
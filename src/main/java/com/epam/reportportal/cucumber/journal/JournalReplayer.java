@@ -0,0 +1,330 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Uploads a journal written in offline mode to ReportPortal. Launch and items are created sequentially in the journal
+ * order, since each item needs its parent's server ID, logs and attachments are uploaded in batches by a pool of
+ * threads. Every completed request is recorded in a progress file in the journal directory, so an interrupted replay
+ * continues from where it stopped when started again, and a replay of an already uploaded journal does nothing.
+ * <p>
+ * Can be started from the command line with the journal directory (or a directory of journals) and an optional number
+ * of upload threads as arguments, ReportPortal connection parameters are taken from 'reportportal.properties'.
+ */
+public class JournalReplayer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(JournalReplayer.class);
+
+	public static final String PROGRESS_FILE = "replay.progress";
+	public static final int DEFAULT_PARALLELISM = 4;
+	private static final int LOG_BATCH_SIZE = 20;
+
+	private final ReportPortalClient client;
+	private final int parallelism;
+
+	/**
+	 * @param client      ReportPortal client to upload the journal with
+	 * @param parallelism number of threads uploading logs and attachments
+	 */
+	public JournalReplayer(@Nonnull ReportPortalClient client, int parallelism) {
+		this.client = client;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Uploads a journal, or continues an interrupted upload.
+	 *
+	 * @param directory the journal directory
+	 * @return server launch ID
+	 * @throws IOException if the journal can't be read or some requests failed, in this case the replay can be resumed
+	 */
+	@Nonnull
+	public String replay(@Nonnull Path directory) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+			Thread thread = new Thread(r, "rp-journal-replay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (Progress progress = new Progress(directory.resolve(PROGRESS_FILE)); JournalReader reader = new JournalReader(directory)) {
+			if (progress.launchFinished) {
+				LOGGER.info("Journal {} is already uploaded to launch {}", directory, progress.launchUuid);
+				return progress.launchUuid;
+			}
+			Uploads uploads = new Uploads(executor, progress);
+			List<JournalRecord> logs = new ArrayList<>(LOG_BATCH_SIZE);
+			for (JournalRecord record = reader.next(); record != null; record = reader.next()) {
+				if (record.getType() == JournalCodec.LOG) {
+					if (!progress.logs.contains(record.getPosition())) {
+						logs.add(record);
+						if (logs.size() >= LOG_BATCH_SIZE) {
+							uploads.submit(logs);
+							logs = new ArrayList<>(LOG_BATCH_SIZE);
+						}
+					}
+					continue;
+				}
+				if (!logs.isEmpty()) {
+					uploads.submit(logs);
+					logs = new ArrayList<>(LOG_BATCH_SIZE);
+				}
+				switch (record.getType()) {
+					case JournalCodec.LAUNCH_START:
+						startLaunch(progress, record);
+						break;
+					case JournalCodec.ITEM_START:
+						startItem(progress, record);
+						break;
+					case JournalCodec.ITEM_FINISH:
+						finishItem(progress, record);
+						break;
+					case JournalCodec.LAUNCH_FINISH:
+						uploads.await();
+						finishLaunch(progress, record);
+						break;
+					default:
+						break;
+				}
+			}
+			if (!logs.isEmpty()) {
+				uploads.submit(logs);
+			}
+			uploads.await();
+			if (progress.launchUuid == null) {
+				throw new IOException("No launch found in journal: " + directory);
+			}
+			if (!progress.launchFinished) {
+				LOGGER.warn("Journal {} has no launch finish record, the launch {} is left in progress", directory, progress.launchUuid);
+			}
+			return progress.launchUuid;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void startLaunch(@Nonnull Progress progress, @Nonnull JournalRecord record) throws IOException {
+		if (progress.launchUuid != null) {
+			return;
+		}
+		StartLaunchRQ rq = record.getRequest();
+		progress.launchUuid = client.startLaunch(rq).blockingGet().getId();
+		progress.write("L " + progress.launchUuid);
+	}
+
+	private void startItem(@Nonnull Progress progress, @Nonnull JournalRecord record) throws IOException {
+		String localUuid = record.getUuid();
+		if (progress.items.containsKey(localUuid)) {
+			return;
+		}
+		StartTestItemRQ rq = record.getRequest();
+		rq.setLaunchUuid(progress.launchUuid);
+		String parentUuid = record.getParentUuid() == null ? null : progress.items.get(record.getParentUuid());
+		String uuid = parentUuid == null ?
+				client.startTestItem(rq).blockingGet().getId() :
+				client.startTestItem(parentUuid, rq).blockingGet().getId();
+		progress.items.put(localUuid, uuid);
+		progress.write("S " + localUuid + " " + uuid);
+	}
+
+	private void finishItem(@Nonnull Progress progress, @Nonnull JournalRecord record) throws IOException {
+		String localUuid = record.getUuid();
+		String uuid = progress.items.get(localUuid);
+		if (uuid == null || progress.finished.contains(localUuid)) {
+			return;
+		}
+		FinishTestItemRQ rq = record.getRequest();
+		rq.setLaunchUuid(progress.launchUuid);
+		client.finishTestItem(uuid, rq).blockingGet();
+		progress.finished.add(localUuid);
+		progress.write("F " + localUuid);
+	}
+
+	private void finishLaunch(@Nonnull Progress progress, @Nonnull JournalRecord record) throws IOException {
+		if (progress.launchUuid == null) {
+			return;
+		}
+		FinishExecutionRQ rq = record.getRequest();
+		client.finishLaunch(progress.launchUuid, rq).blockingGet();
+		progress.launchFinished = true;
+		progress.write("E");
+	}
+
+	/**
+	 * Log and attachment batches uploaded in parallel. The number of batches in the queue is limited, so memory usage
+	 * does not depend on the journal size.
+	 */
+	private class Uploads {
+		private final ExecutorService executor;
+		private final Progress progress;
+		private final int capacity = parallelism * 2;
+		private final Semaphore slots = new Semaphore(capacity);
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private Uploads(@Nonnull ExecutorService executor, @Nonnull Progress progress) {
+			this.executor = executor;
+			this.progress = progress;
+		}
+
+		private void submit(@Nonnull List<JournalRecord> logs) throws IOException {
+			List<SaveLogRQ> requests = logs.stream().map(l -> {
+				SaveLogRQ rq = l.getRequest();
+				rq.setLaunchUuid(progress.launchUuid);
+				rq.setItemUuid(l.getUuid() == null ? null : progress.items.get(l.getUuid()));
+				return rq;
+			}).collect(Collectors.toList());
+			try {
+				slots.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Journal replay was interrupted", e);
+			}
+			executor.execute(() -> {
+				try {
+					client.log(HttpRequestUtils.buildLogMultiPartRequest(requests)).blockingGet();
+					for (JournalRecord log : logs) {
+						progress.write("G " + log.getPosition());
+					}
+				} catch (Exception e) {
+					failures.incrementAndGet();
+					LOGGER.error("Unable to upload a log batch", e);
+				} finally {
+					slots.release();
+				}
+			});
+		}
+
+		private void await() throws IOException {
+			try {
+				slots.acquire(capacity);
+				slots.release(capacity);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Journal replay was interrupted", e);
+			}
+			if (failures.get() > 0) {
+				throw new IOException(failures.get() + " log batch(es) failed to upload, run the replay again to resume");
+			}
+		}
+	}
+
+	/**
+	 * Replay progress: server IDs of created launch and items, finished items and uploaded logs. Stored as an
+	 * append-only text file, a torn last line after a crash is ignored.
+	 */
+	private static class Progress implements Closeable {
+		private volatile String launchUuid;
+		private final Map<String, String> items = new ConcurrentHashMap<>();
+		private final Set<String> finished = new HashSet<>();
+		private final Set<Long> logs = new HashSet<>();
+		private boolean launchFinished;
+
+		private final BufferedWriter out;
+
+		private Progress(@Nonnull Path path) throws IOException {
+			if (Files.exists(path)) {
+				for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+					String[] parts = line.split(" ");
+					try {
+						switch (parts[0]) {
+							case "L":
+								launchUuid = parts[1];
+								break;
+							case "S":
+								items.put(parts[1], parts[2]);
+								break;
+							case "F":
+								finished.add(parts[1]);
+								break;
+							case "G":
+								logs.add(Long.parseLong(parts[1]));
+								break;
+							case "E":
+								launchFinished = true;
+								break;
+							default:
+								break;
+						}
+					} catch (RuntimeException e) {
+						LOGGER.warn("Skipping malformed replay progress line: {}", line);
+					}
+				}
+			}
+			out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+
+		private synchronized void write(@Nonnull String line) throws IOException {
+			out.write(line);
+			out.newLine();
+			out.flush();
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			out.close();
+		}
+	}
+
+	/**
+	 * Lists journals to upload: the directory itself if it is a journal, or its subdirectories in name order otherwise.
+	 *
+	 * @param directory a journal directory or a directory of journals
+	 * @return journal directories
+	 * @throws IOException if unable to list the directory
+	 */
+	@Nonnull
+	public static List<Path> findJournals(@Nonnull Path directory) throws IOException {
+		if (Files.exists(JournalWriter.segmentPath(directory, 0))) {
+			return Collections.singletonList(directory);
+		}
+		try (Stream<Path> children = Files.list(directory)) {
+			return children.filter(p -> Files.exists(JournalWriter.segmentPath(p, 0))).sorted().collect(Collectors.toList());
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Usage: " + JournalReplayer.class.getName() + " <journal directory> [parallelism]");
+			System.exit(1);
+		}
+		int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PARALLELISM;
+		JournalReplayer replayer = new JournalReplayer(ReportPortal.builder().build().getClient(), parallelism);
+		for (Path journal : findJournals(Paths.get(args[0]))) {
+			String launchUuid = replayer.replay(journal);
+			LOGGER.info("Journal {} is uploaded to launch {}", journal, launchUuid);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.journal;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal writer. Records are written into memory-mapped segment files of a fixed size, a new segment is
+ * started when the current one can't fit the next record. Each record is framed as: payload length (int), CRC32 of the
+ * type and payload (int), type (byte), payload. Unused segment space stays zero-filled, so a zero length marks the end
+ * of a segment and a torn write after a crash is detected by the checksum.
+ */
+public class JournalWriter implements Closeable {
+	static final String SEGMENT_FORMAT = "segment-%06d.rpj";
+	static final int HEADER_SIZE = Integer.BYTES * 2 + 1;
+
+	private final Path directory;
+	private final int segmentSize;
+
+	private int segment = -1;
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+
+	/**
+	 * @param directory   a directory to put segment files to, created if absent
+	 * @param segmentSize a size of each segment file in bytes, records larger than that get a dedicated segment
+	 * @throws IOException if unable to create the directory
+	 */
+	public JournalWriter(@Nonnull Path directory, int segmentSize) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = segmentSize;
+	}
+
+	static Path segmentPath(@Nonnull Path directory, int segment) {
+		return directory.resolve(String.format(SEGMENT_FORMAT, segment));
+	}
+
+	/**
+	 * Appends a record to the journal.
+	 *
+	 * @param type    record type
+	 * @param payload record payload
+	 * @return the record position: segment number in high 32 bits and the offset in the segment in low 32 bits
+	 * @throws IOException if unable to map a new segment
+	 */
+	public synchronized long append(byte type, @Nonnull byte[] payload) throws IOException {
+		int recordSize = HEADER_SIZE + payload.length;
+		// keep room for the zero end marker
+		if (buffer == null || buffer.remaining() < recordSize + Integer.BYTES) {
+			nextSegment(recordSize + Integer.BYTES);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(type);
+		crc.update(payload);
+		long position = ((long) segment << 32) | buffer.position();
+		buffer.putInt(payload.length + 1);
+		buffer.putInt((int) crc.getValue());
+		buffer.put(type);
+		buffer.put(payload);
+		return position;
+	}
+
+	private void nextSegment(int minSize) throws IOException {
+		closeSegment();
+		segment++;
+		channel = FileChannel.open(segmentPath(directory, segment),
+				StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ,
+				StandardOpenOption.WRITE
+		);
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, minSize));
+	}
+
+	private void closeSegment() throws IOException {
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+		}
+		if (channel != null) {
+			channel.close();
+			channel = null;
+		}
+	}
+
+	/**
+	 * Flushes written records to the storage device.
+	 */
+	public synchronized void flush() {
+		if (buffer != null) {
+			buffer.force();
+		}
+	}
+
+	/**
+	 * @return the journal directory
+	 */
+	@Nonnull
+	public Path getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		closeSegment();
+	}
+}
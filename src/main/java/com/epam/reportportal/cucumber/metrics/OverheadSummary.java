@@ -0,0 +1,152 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.metrics;
+
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The agent's own cost over a launch, reported when the launch finishes to track the overhead across launches.
+ */
+public class OverheadSummary {
+	private static final String ATTRIBUTE_PREFIX = "agent.overhead.";
+	private static final String FORMAT = "test time: %d ms, reporter handlers: %d ms (%.2f%%), threads blocked by in-flight window: %d ms, "
+			+ "item starts: %d, item finishes: %d, logs: %d, bytes uploaded: %d, peak in-flight requests: %d, dropped logs: %d, "
+			+ "spilled logs: %d";
+
+	private final long testTimeMillis;
+	private final long handlerMillis;
+	private final long blockedMillis;
+	private final long itemStarts;
+	private final long itemFinishes;
+	private final long logs;
+	private final long bytes;
+	private final int peakInFlight;
+	private final long droppedLogs;
+	private final long spilledLogs;
+
+	public OverheadSummary(long testTimeNanos, long handlerNanos, long blockedNanos, long itemStarts, long itemFinishes, long logs,
+			long bytes, int peakInFlight, long droppedLogs, long spilledLogs) {
+		this.testTimeMillis = TimeUnit.NANOSECONDS.toMillis(testTimeNanos);
+		this.handlerMillis = TimeUnit.NANOSECONDS.toMillis(handlerNanos);
+		this.blockedMillis = TimeUnit.NANOSECONDS.toMillis(blockedNanos);
+		this.itemStarts = itemStarts;
+		this.itemFinishes = itemFinishes;
+		this.logs = logs;
+		this.bytes = bytes;
+		this.peakInFlight = peakInFlight;
+		this.droppedLogs = droppedLogs;
+		this.spilledLogs = spilledLogs;
+	}
+
+	public long getTestTimeMillis() {
+		return testTimeMillis;
+	}
+
+	/**
+	 * @return time spent in reporter event handlers on test threads before the launch finish
+	 */
+	public long getHandlerMillis() {
+		return handlerMillis;
+	}
+
+	/**
+	 * @return reporter handlers time as a percentage of the test time
+	 */
+	public double getOverheadPercent() {
+		return testTimeMillis > 0 ? handlerMillis * 100.0 / testTimeMillis : 0;
+	}
+
+	public long getBlockedMillis() {
+		return blockedMillis;
+	}
+
+	public long getItemStarts() {
+		return itemStarts;
+	}
+
+	public long getItemFinishes() {
+		return itemFinishes;
+	}
+
+	public long getLogs() {
+		return logs;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public int getPeakInFlight() {
+		return peakInFlight;
+	}
+
+	public long getDroppedLogs() {
+		return droppedLogs;
+	}
+
+	public long getSpilledLogs() {
+		return spilledLogs;
+	}
+
+	/**
+	 * @return the summary as launch system attributes
+	 */
+	@Nonnull
+	public Set<ItemAttributesRQ> toAttributes() {
+		Set<ItemAttributesRQ> attributes = new LinkedHashSet<>();
+		addAttribute(attributes, "test.ms", testTimeMillis);
+		addAttribute(attributes, "handlers.ms", handlerMillis);
+		addAttribute(attributes, "blocked.ms", blockedMillis);
+		addAttribute(attributes, "item.starts", itemStarts);
+		addAttribute(attributes, "item.finishes", itemFinishes);
+		addAttribute(attributes, "logs", logs);
+		addAttribute(attributes, "bytes", bytes);
+		addAttribute(attributes, "in.flight.peak", peakInFlight);
+		addAttribute(attributes, "logs.dropped", droppedLogs);
+		addAttribute(attributes, "logs.spilled", spilledLogs);
+		return attributes;
+	}
+
+	private static void addAttribute(Set<ItemAttributesRQ> attributes, String key, long value) {
+		ItemAttributesRQ attribute = new ItemAttributesRQ(ATTRIBUTE_PREFIX + key, String.valueOf(value));
+		attribute.setSystem(true);
+		attributes.add(attribute);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT,
+				FORMAT,
+				testTimeMillis,
+				handlerMillis,
+				getOverheadPercent(),
+				blockedMillis,
+				itemStarts,
+				itemFinishes,
+				logs,
+				bytes,
+				peakInFlight,
+				droppedLogs,
+				spilledLogs
+		);
+	}
+}
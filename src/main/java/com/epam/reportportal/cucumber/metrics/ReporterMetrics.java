@@ -0,0 +1,251 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.metrics;
+
+import com.epam.reportportal.cucumber.backpressure.InFlightWindow;
+import cucumber.api.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Reporter's own cost: latency of each event handler, request counters and the state of the in-flight request window.
+ * Can be published as a JMX MBean to watch long-running suites.
+ */
+public class ReporterMetrics implements ReporterMetricsMXBean {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReporterMetrics.class);
+	private static final String OBJECT_NAME_FORMAT = "com.epam.reportportal.cucumber:type=ReporterMetrics,name=%s,id=%d";
+	private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+	/**
+	 * Measured reporter operations, one per Cucumber event type
+	 */
+	public enum Operation {
+		LAUNCH_START,
+		SOURCE_READ,
+		TEST_CASE_STARTED,
+		TEST_STEP_STARTED,
+		TEST_STEP_FINISHED,
+		TEST_CASE_FINISHED,
+		EMBEDDING,
+		LOG,
+		LAUNCH_FINISH
+	}
+
+	private final Map<Operation, LatencyHistogram> handlers = new EnumMap<>(Operation.class);
+	private final LongAdder itemsStarted = new LongAdder();
+	private final LongAdder itemsFinished = new LongAdder();
+	private final AtomicLong itemsOpen = new AtomicLong();
+	private final LongAdder logsSent = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	private final Supplier<InFlightWindow> window;
+
+	private volatile long launchStartNanos = System.nanoTime();
+	private volatile ObjectName objectName;
+
+	/**
+	 * @param window a supplier of the reporter's in-flight request window
+	 */
+	public ReporterMetrics(@Nonnull Supplier<InFlightWindow> window) {
+		this.window = window;
+		for (Operation operation : Operation.values()) {
+			handlers.put(operation, new LatencyHistogram());
+		}
+	}
+
+	/**
+	 * Wraps an event handler to measure its execution time.
+	 *
+	 * @param operation an operation the handler performs
+	 * @param handler   an event handler
+	 * @param <T>       event type
+	 * @return measuring event handler
+	 */
+	@Nonnull
+	public <T> EventHandler<T> timed(@Nonnull Operation operation, @Nonnull EventHandler<T> handler) {
+		LatencyHistogram histogram = handlers.get(operation);
+		return event -> {
+			long start = System.nanoTime();
+			try {
+				handler.receive(event);
+			} finally {
+				histogram.record(System.nanoTime() - start);
+			}
+		};
+	}
+
+	/**
+	 * Marks the launch start, the test time of the {@link #getSummary() summary} is counted from it.
+	 */
+	public void onLaunchStarted() {
+		launchStartNanos = System.nanoTime();
+	}
+
+	@Nonnull
+	public LatencyHistogram getHandler(@Nonnull Operation operation) {
+		return handlers.get(operation);
+	}
+
+	public void onItemStarted(long size) {
+		itemsStarted.increment();
+		itemsOpen.incrementAndGet();
+		bytesSent.add(size);
+	}
+
+	public void onItemFinished(long size) {
+		itemsFinished.increment();
+		itemsOpen.decrementAndGet();
+		bytesSent.add(size);
+	}
+
+	public void onLogSent(long size) {
+		logsSent.increment();
+		bytesSent.add(size);
+	}
+
+	@Override
+	public Map<String, LatencyStatistics> getHandlerLatencies() {
+		Map<String, LatencyStatistics> result = new LinkedHashMap<>();
+		handlers.forEach((k, v) -> result.put(k.name(), v.getStatistics()));
+		return result;
+	}
+
+	@Override
+	public long getHandlerNanos() {
+		return handlers.values().stream().mapToLong(LatencyHistogram::getTotalNanos).sum();
+	}
+
+	@Override
+	public long getItemsStarted() {
+		return itemsStarted.sum();
+	}
+
+	@Override
+	public long getItemsFinished() {
+		return itemsFinished.sum();
+	}
+
+	@Override
+	public long getItemsOpen() {
+		return itemsOpen.get();
+	}
+
+	@Override
+	public long getLogsSent() {
+		return logsSent.sum();
+	}
+
+	@Override
+	public long getBytesSent() {
+		return bytesSent.sum();
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return window.get().getRequests();
+	}
+
+	@Override
+	public int getPeakQueueDepth() {
+		return window.get().getPeakRequests();
+	}
+
+	@Override
+	public long getQueueBytes() {
+		return window.get().getBytes();
+	}
+
+	/**
+	 * @return the reporter's cost since the launch start
+	 */
+	@Nonnull
+	public OverheadSummary getSummary() {
+		InFlightWindow inFlightWindow = window.get();
+		return new OverheadSummary(System.nanoTime() - launchStartNanos,
+				getHandlerNanos(),
+				inFlightWindow.getBlockedNanos(),
+				getItemsStarted(),
+				getItemsFinished(),
+				getLogsSent(),
+				getBytesSent(),
+				inFlightWindow.getPeakRequests(),
+				inFlightWindow.getDroppedLogs(),
+				inFlightWindow.getSpilledLogs()
+		);
+	}
+
+	@Override
+	public void reset() {
+		handlers.values().forEach(LatencyHistogram::reset);
+		itemsStarted.reset();
+		itemsFinished.reset();
+		logsSent.reset();
+		bytesSent.reset();
+	}
+
+	/**
+	 * Registers the metrics in the platform MBean server.
+	 *
+	 * @param name a name to distinguish reporters, usually the reporter class name
+	 */
+	public void register(@Nonnull String name) {
+		try {
+			ObjectName newName = new ObjectName(String.format(OBJECT_NAME_FORMAT, ObjectName.quote(name), INSTANCE_COUNTER.incrementAndGet()));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+			objectName = newName;
+		} catch (JMException e) {
+			LOGGER.warn("Unable to register reporter metrics MBean", e);
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server if they were registered.
+	 */
+	public void unregister() {
+		ObjectName name = objectName;
+		if (name == null) {
+			return;
+		}
+		objectName = null;
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.unregisterMBean(name);
+		} catch (JMException e) {
+			LOGGER.warn("Unable to unregister reporter metrics MBean", e);
+		}
+	}
+
+	/**
+	 * @return the name the metrics are registered with, or null if they are not registered
+	 */
+	@Nullable
+	public ObjectName getObjectName() {
+		return objectName;
+	}
+}
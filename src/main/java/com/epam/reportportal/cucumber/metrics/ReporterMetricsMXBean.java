@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of reporter metrics.
+ */
+public interface ReporterMetricsMXBean {
+
+	/**
+	 * @return latency statistics of event handlers by operation name
+	 */
+	Map<String, LatencyStatistics> getHandlerLatencies();
+
+	/**
+	 * @return total time spent in event handlers on test threads, in nanoseconds
+	 */
+	long getHandlerNanos();
+
+	long getItemsStarted();
+
+	long getItemsFinished();
+
+	/**
+	 * @return number of items which are started, but not finished yet
+	 */
+	long getItemsOpen();
+
+	long getLogsSent();
+
+	/**
+	 * @return estimated payload size of all sent requests in bytes
+	 */
+	long getBytesSent();
+
+	/**
+	 * @return current number of requests which are sent, but not completed yet
+	 */
+	int getQueueDepth();
+
+	int getPeakQueueDepth();
+
+	/**
+	 * @return current payload size of requests which are sent, but not completed yet
+	 */
+	long getQueueBytes();
+
+	/**
+	 * Resets handler latencies and request counters.
+	 */
+	void reset();
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.recording;
+
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.*;
+import cucumber.api.formatter.Formatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.epam.reportportal.cucumber.recording.RecordingFormat.*;
+
+/**
+ * Cucumber formatter which records the event stream to a compact binary file, so it can be replayed against reporters
+ * with {@link EventReplayer} without running the tests. Usage example:
+ * <pre>
+ * --plugin com.epam.reportportal.cucumber.recording.EventRecorder:build/cucumber-events.rpe
+ * </pre>
+ * Events are written in the order of arrival, each one with the index of the thread which sent it.
+ */
+public class EventRecorder implements Formatter {
+	private static final Logger LOGGER = LoggerFactory.getLogger(EventRecorder.class);
+
+	private final DataOutputStream out;
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final Map<Throwable, Integer> errors = new WeakHashMap<>();
+	private final Map<TestCase, Integer> testCases = new IdentityHashMap<>();
+	private final Map<TestStep, int[]> testSteps = new IdentityHashMap<>();
+	private final AtomicInteger threads = new AtomicInteger();
+	private final ThreadLocal<Integer> thread = ThreadLocal.withInitial(threads::getAndIncrement);
+	private int nextTestCase;
+	private int nextError;
+	private boolean failed;
+
+	/**
+	 * @param file a file to write the recording to
+	 * @throws IOException if unable to create the file
+	 */
+	public EventRecorder(@Nonnull File file) throws IOException {
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * @param stream a stream to write the recording to, closed at the end of the run
+	 * @throws IOException if unable to write the header
+	 */
+	public EventRecorder(@Nonnull OutputStream stream) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+	}
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestRunStarted.class, e -> record(TEST_RUN_STARTED, e, () -> {
+		}));
+		publisher.registerHandlerFor(TestSourceRead.class, e -> record(TEST_SOURCE_READ, e, () -> {
+			writeString(e.uri);
+			writeString(e.language);
+			writeText(e.source);
+		}));
+		publisher.registerHandlerFor(TestCaseStarted.class, e -> record(TEST_CASE_STARTED, e, () -> writeTestCase(e.testCase)));
+		publisher.registerHandlerFor(TestStepStarted.class, e -> record(TEST_STEP_STARTED, e, () -> writeTestStep(e.testStep)));
+		publisher.registerHandlerFor(TestStepFinished.class, e -> record(TEST_STEP_FINISHED, e, () -> {
+			writeTestStep(e.testStep);
+			writeResult(e.result);
+		}));
+		publisher.registerHandlerFor(TestCaseFinished.class, e -> record(TEST_CASE_FINISHED, e, () -> {
+			Integer id = testCases.remove(e.testCase);
+			out.writeInt(id == null ? -1 : id);
+			writeResult(e.result);
+			e.testCase.getTestSteps().forEach(testSteps::remove);
+		}));
+		publisher.registerHandlerFor(EmbedEvent.class, e -> record(EMBED, e, () -> {
+			writeString(e.mimeType);
+			out.writeInt(e.data.length);
+			out.write(e.data);
+		}));
+		publisher.registerHandlerFor(WriteEvent.class, e -> record(WRITE, e, () -> writeText(e.text)));
+		publisher.registerHandlerFor(TestRunFinished.class, e -> {
+			record(TEST_RUN_FINISHED, e, () -> {
+			});
+			close();
+		});
+	}
+
+	private interface Payload {
+		void write() throws IOException;
+	}
+
+	private synchronized void record(byte type, @Nonnull Event event, @Nonnull Payload payload) {
+		if (failed) {
+			return;
+		}
+		try {
+			out.writeByte(type);
+			out.writeInt(thread.get());
+			Long timeStamp = event.getTimeStamp();
+			out.writeLong(timeStamp == null ? NO_TIME_STAMP : timeStamp);
+			payload.write();
+		} catch (IOException e) {
+			failed = true;
+			LOGGER.error("Unable to record Cucumber event, recording is stopped", e);
+		}
+	}
+
+	private synchronized void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOGGER.error("Unable to close Cucumber event recording", e);
+		}
+	}
+
+	private void writeString(@Nullable String value) throws IOException {
+		if (value == null) {
+			out.writeInt(NULL_STRING);
+			return;
+		}
+		Integer index = strings.get(value);
+		if (index != null) {
+			out.writeInt(index);
+			return;
+		}
+		strings.put(value, strings.size());
+		out.writeInt(NEW_STRING);
+		writeText(value);
+	}
+
+	private void writeText(@Nullable String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private void writeTestCase(@Nonnull TestCase testCase) throws IOException {
+		int id = nextTestCase++;
+		testCases.put(testCase, id);
+		out.writeInt(id);
+		writeString(testCase.getUri());
+		out.writeInt(testCase.getLine());
+		List<TestStep> steps = testCase.getTestSteps();
+		out.writeInt(steps.size());
+		for (int i = 0; i < steps.size(); i++) {
+			TestStep step = steps.get(i);
+			testSteps.put(step, new int[] { id, i });
+			out.writeBoolean(step.isHook());
+			if (step.isHook()) {
+				writeString(step.getHookType().name());
+			}
+			writeString(step.getCodeLocation());
+		}
+	}
+
+	private void writeTestStep(@Nonnull TestStep testStep) throws IOException {
+		int[] location = testSteps.get(testStep);
+		out.writeInt(location == null ? -1 : location[0]);
+		out.writeInt(location == null ? -1 : location[1]);
+	}
+
+	private void writeResult(@Nonnull Result result) throws IOException {
+		writeString(result.getStatus().name());
+		Long duration = result.getDuration();
+		out.writeLong(duration == null ? NO_TIME_STAMP : duration);
+		writeError(result.getError());
+	}
+
+	private void writeError(@Nullable Throwable error) throws IOException {
+		if (error == null) {
+			out.writeByte(NO_ERROR);
+			return;
+		}
+		Integer id = errors.get(error);
+		if (id != null) {
+			out.writeByte(ERROR_REFERENCE);
+			out.writeInt(id);
+			return;
+		}
+		id = nextError++;
+		errors.put(error, id);
+		out.writeByte(ERROR_DEFINITION);
+		out.writeInt(id);
+		writeString(error instanceof RecordedError ? ((RecordedError) error).getClassName() : error.getClass().getName());
+		writeText(error.getMessage());
+		StackTraceElement[] stackTrace = error.getStackTrace();
+		out.writeInt(stackTrace.length);
+		for (StackTraceElement element : stackTrace) {
+			writeString(element.getClassName());
+			writeString(element.getMethodName());
+			writeString(element.getFileName());
+			out.writeInt(element.getLineNumber());
+		}
+		Throwable cause = error.getCause();
+		writeError(cause == error ? null : cause);
+	}
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.recording;
+
+import cucumber.api.HookType;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.*;
+import cucumber.api.formatter.Formatter;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import gherkin.AstBuilder;
+import gherkin.Parser;
+import gherkin.TokenMatcher;
+import gherkin.events.PickleEvent;
+import gherkin.pickles.Compiler;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleStep;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.epam.reportportal.cucumber.recording.RecordingFormat.*;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Replays Cucumber events recorded by {@link EventRecorder} against any formatter, e.g. an
+ * {@link com.epam.reportportal.cucumber.AbstractReporter} subclass. The recording is decoded into memory once, so
+ * replays measure the formatter only and can be repeated with fresh formatter instances.
+ * <p>
+ * Test cases are restored from the recorded feature sources, test steps are not bound to glue code. Reporters keep
+ * scenario state per thread, so events are sent from a separate thread for each recorded thread.
+ */
+public class EventReplayer {
+	private final List<Event> events = new ArrayList<>();
+	private final List<Integer> eventThreads = new ArrayList<>();
+	private int threadCount;
+
+	// decoding state
+	private final List<String> strings = new ArrayList<>();
+	private final Map<Integer, Throwable> errors = new HashMap<>();
+	private final Map<String, Map<Integer, Pickle>> pickles = new HashMap<>();
+	private final Map<Integer, TestCase> testCases = new HashMap<>();
+
+	/**
+	 * @param file a recording file
+	 * @throws IOException if the file can't be read or is not a recording
+	 */
+	public EventReplayer(@Nonnull Path file) throws IOException {
+		try (InputStream stream = Files.newInputStream(file)) {
+			load(stream);
+		}
+	}
+
+	/**
+	 * @param stream a recording stream, not closed by the replayer
+	 * @throws IOException if the stream can't be read or is not a recording
+	 */
+	public EventReplayer(@Nonnull InputStream stream) throws IOException {
+		load(stream);
+	}
+
+	/**
+	 * @return recorded events in the order of arrival
+	 */
+	@Nonnull
+	public List<Event> getEvents() {
+		return Collections.unmodifiableList(events);
+	}
+
+	/**
+	 * @return number of threads which sent events during recording
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Replays the recording against a formatter in the recorded order.
+	 *
+	 * @param formatter a formatter to feed
+	 */
+	public void replay(@Nonnull Formatter formatter) {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		formatter.setEventPublisher(bus);
+		replay(bus);
+	}
+
+	/**
+	 * Sends the recorded events to an event bus in the recorded order, each event from a thread matching the recorded
+	 * one. With a single recorded thread events are sent from the calling thread.
+	 *
+	 * @param bus an event bus to send events to
+	 */
+	public void replay(@Nonnull EventBus bus) {
+		if (threadCount <= 1) {
+			events.forEach(bus::send);
+			return;
+		}
+		ExecutorService[] workers = new ExecutorService[threadCount];
+		try {
+			for (int i = 0; i < events.size(); i++) {
+				int thread = eventThreads.get(i);
+				if (workers[thread] == null) {
+					workers[thread] = Executors.newSingleThreadExecutor(r -> new Thread(r, "rp-event-replay-" + thread));
+				}
+				Event event = events.get(i);
+				await(workers[thread].submit(() -> bus.send(event)));
+			}
+		} finally {
+			Arrays.stream(workers).filter(Objects::nonNull).forEach(ExecutorService::shutdown);
+		}
+	}
+
+	/**
+	 * Replays the recording at full speed: test run and feature source events are sent first from the calling thread,
+	 * then event streams of all recorded threads are sent concurrently, then the test run finish event. The order of
+	 * events sent by the same recorded thread is preserved.
+	 *
+	 * @param bus an event bus to send events to
+	 */
+	public void replayConcurrently(@Nonnull EventBus bus) {
+		List<List<Event>> streams = new ArrayList<>(threadCount);
+		for (int i = 0; i < threadCount; i++) {
+			streams.add(new ArrayList<>());
+		}
+		List<Event> finish = new ArrayList<>(1);
+		for (int i = 0; i < events.size(); i++) {
+			Event event = events.get(i);
+			if (event instanceof TestRunStarted || event instanceof TestSourceRead) {
+				bus.send(event);
+			} else if (event instanceof TestRunFinished) {
+				finish.add(event);
+			} else {
+				streams.get(eventThreads.get(i)).add(event);
+			}
+		}
+		ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, threadCount));
+		try {
+			List<Future<?>> results = new ArrayList<>(threadCount);
+			for (List<Event> stream : streams) {
+				results.add(workers.submit(() -> stream.forEach(bus::send)));
+			}
+			results.forEach(EventReplayer::await);
+		} finally {
+			workers.shutdown();
+		}
+		finish.forEach(bus::send);
+	}
+
+	private static void await(@Nonnull Future<?> result) {
+		try {
+			result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Event replay was interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private void load(@Nonnull InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a Cucumber event recording");
+		}
+		byte version = in.readByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported Cucumber event recording version: " + version);
+		}
+		int type;
+		while ((type = in.read()) >= 0) {
+			int thread = in.readInt();
+			long time = in.readLong();
+			Long timeStamp = time == NO_TIME_STAMP ? null : time;
+			events.add(readEvent((byte) type, timeStamp, in));
+			eventThreads.add(thread);
+			threadCount = Math.max(threadCount, thread + 1);
+		}
+		strings.clear();
+		errors.clear();
+		pickles.clear();
+		testCases.clear();
+	}
+
+	@Nonnull
+	private Event readEvent(byte type, @Nullable Long timeStamp, @Nonnull DataInputStream in) throws IOException {
+		switch (type) {
+			case TEST_RUN_STARTED:
+				return new TestRunStarted(timeStamp);
+			case TEST_SOURCE_READ: {
+				String uri = readString(in);
+				String language = readString(in);
+				String source = readText(in);
+				compile(uri, source);
+				return new TestSourceRead(timeStamp, uri, language, source);
+			}
+			case TEST_CASE_STARTED:
+				return new TestCaseStarted(timeStamp, readTestCase(in));
+			case TEST_STEP_STARTED:
+				return new TestStepStarted(timeStamp, readTestStep(in));
+			case TEST_STEP_FINISHED: {
+				TestStep step = readTestStep(in);
+				return new TestStepFinished(timeStamp, step, readResult(in));
+			}
+			case TEST_CASE_FINISHED: {
+				TestCase testCase = testCases.remove(in.readInt());
+				if (testCase == null) {
+					throw new IOException("Test case finish without start in Cucumber event recording");
+				}
+				return new TestCaseFinished(timeStamp, testCase, readResult(in));
+			}
+			case EMBED: {
+				String mimeType = readString(in);
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				return new EmbedEvent(timeStamp, data, mimeType);
+			}
+			case WRITE:
+				return new WriteEvent(timeStamp, readText(in));
+			case TEST_RUN_FINISHED:
+				return new TestRunFinished(timeStamp);
+			default:
+				throw new IOException("Unknown event type in Cucumber event recording: " + type);
+		}
+	}
+
+	private void compile(@Nonnull String uri, @Nonnull String source) {
+		Map<Integer, Pickle> byLine = new HashMap<>();
+		for (Pickle pickle : new Compiler().compile(new Parser<>(new AstBuilder()).parse(source, new TokenMatcher()))) {
+			byLine.put(pickle.getLocations().get(0).getLine(), pickle);
+		}
+		pickles.put(uri, byLine);
+	}
+
+	@Nonnull
+	private TestCase readTestCase(@Nonnull DataInputStream in) throws IOException {
+		int id = in.readInt();
+		String uri = readString(in);
+		int line = in.readInt();
+		Pickle pickle = ofNullable(pickles.get(uri)).map(p -> p.get(line)).orElse(null);
+		if (pickle == null) {
+			throw new IOException("No recorded feature source for scenario " + uri + ":" + line);
+		}
+		int stepNumber = in.readInt();
+		List<TestStep> steps = new ArrayList<>(stepNumber);
+		Iterator<PickleStep> pickleSteps = pickle.getSteps().iterator();
+		for (int i = 0; i < stepNumber; i++) {
+			boolean hook = in.readBoolean();
+			if (hook) {
+				HookType hookType = HookType.valueOf(readString(in));
+				steps.add(RecordedTestStep.hook(uri, hookType, readString(in)));
+			} else {
+				steps.add(RecordedTestStep.step(uri, pickleSteps.next(), readString(in)));
+			}
+		}
+		TestCase testCase = new TestCase(steps, new PickleEvent(uri, pickle), false);
+		testCases.put(id, testCase);
+		return testCase;
+	}
+
+	@Nonnull
+	private TestStep readTestStep(@Nonnull DataInputStream in) throws IOException {
+		TestCase testCase = testCases.get(in.readInt());
+		int index = in.readInt();
+		if (testCase == null || index < 0) {
+			throw new IOException("Test step outside of a test case in Cucumber event recording");
+		}
+		return testCase.getTestSteps().get(index);
+	}
+
+	@Nonnull
+	private Result readResult(@Nonnull DataInputStream in) throws IOException {
+		Result.Type status = Result.Type.valueOf(readString(in));
+		long duration = in.readLong();
+		return new Result(status, duration == NO_TIME_STAMP ? null : duration, readError(in));
+	}
+
+	@Nullable
+	private Throwable readError(@Nonnull DataInputStream in) throws IOException {
+		byte tag = in.readByte();
+		if (tag == NO_ERROR) {
+			return null;
+		}
+		int id = in.readInt();
+		if (tag == ERROR_REFERENCE) {
+			return errors.get(id);
+		}
+		String className = readString(in);
+		String message = readText(in);
+		StackTraceElement[] stackTrace = new StackTraceElement[in.readInt()];
+		for (int i = 0; i < stackTrace.length; i++) {
+			String declaringClass = readString(in);
+			String methodName = readString(in);
+			String fileName = readString(in);
+			stackTrace[i] = new StackTraceElement(declaringClass, methodName, fileName, in.readInt());
+		}
+		RecordedError cause = (RecordedError) readError(in);
+		RecordedError error = new RecordedError(className, message, stackTrace, cause);
+		errors.put(id, error);
+		return error;
+	}
+
+	@Nullable
+	private String readString(@Nonnull DataInputStream in) throws IOException {
+		int index = in.readInt();
+		if (index == NULL_STRING) {
+			return null;
+		}
+		if (index == NEW_STRING) {
+			String value = readText(in);
+			strings.add(value);
+			return value;
+		}
+		return strings.get(index);
+	}
+
+	@Nullable
+	private static String readText(@Nonnull DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.recording;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An error restored from a recording. Keeps the original exception class name, message, stack trace and cause chain,
+ * and renders the same way as the original exception.
+ */
+public class RecordedError extends Throwable {
+	private static final long serialVersionUID = 1L;
+
+	private final String className;
+
+	public RecordedError(@Nonnull String className, @Nullable String message, @Nonnull StackTraceElement[] stackTrace,
+			@Nullable RecordedError cause) {
+		super(message, cause, false, true);
+		this.className = className;
+		setStackTrace(stackTrace);
+	}
+
+	/**
+	 * @return class name of the original exception
+	 */
+	@Nonnull
+	public String getClassName() {
+		return className;
+	}
+
+	@Override
+	public String toString() {
+		String message = getLocalizedMessage();
+		return message != null ? className + ": " + message : className;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.recording;
+
+/**
+ * Constants of the Cucumber event recording format.
+ * <p>
+ * A recording starts with {@link #MAGIC} and {@link #VERSION}, followed by events. Each event is: type (byte), index
+ * of the thread which sent the event (int), event time stamp (long) and the event payload. Repeated strings (URIs,
+ * code locations, stack frame elements) are written once and referenced by their index afterwards. Errors are written
+ * once per exception object and referenced afterwards, so a step failure and a scenario failure caused by it stay the
+ * same object after replay.
+ */
+final class RecordingFormat {
+	static final int MAGIC = 0x52504345;
+	static final byte VERSION = 1;
+
+	static final byte TEST_RUN_STARTED = 1;
+	static final byte TEST_SOURCE_READ = 2;
+	static final byte TEST_CASE_STARTED = 3;
+	static final byte TEST_STEP_STARTED = 4;
+	static final byte TEST_STEP_FINISHED = 5;
+	static final byte TEST_CASE_FINISHED = 6;
+	static final byte EMBED = 7;
+	static final byte WRITE = 8;
+	static final byte TEST_RUN_FINISHED = 9;
+
+	static final int NULL_STRING = -1;
+	static final int NEW_STRING = -2;
+
+	static final byte NO_ERROR = 0;
+	static final byte ERROR_REFERENCE = 1;
+	static final byte ERROR_DEFINITION = 2;
+
+	static final long NO_TIME_STAMP = Long.MIN_VALUE;
+
+	private RecordingFormat() {
+		throw new RuntimeException("No instances should exist for the class!");
+	}
+}
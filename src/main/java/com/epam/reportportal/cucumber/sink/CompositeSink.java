@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fans reporting events out to several sinks in one pass. IDs returned to the reporter resolve to the IDs of the first
+ * (primary) sink, so the item tree and callback reporting keep working with ReportPortal as the primary sink. Each sink
+ * gets back only its own IDs. Request objects are shared between sinks, so sinks should not modify them.
+ */
+public class CompositeSink implements ReportingSink {
+	private final List<ReportingSink> sinks;
+	// sink IDs by ID objects returned to the reporter, Maybe does not override equals, so the map works by identity
+	private final Map<Maybe<String>, List<Maybe<String>>> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * @param primary   a sink which IDs are returned to the reporter
+	 * @param secondary other sinks
+	 */
+	public CompositeSink(@Nonnull ReportingSink primary, @Nonnull ReportingSink... secondary) {
+		List<ReportingSink> all = new ArrayList<>(secondary.length + 1);
+		all.add(primary);
+		all.addAll(Arrays.asList(secondary));
+		sinks = all;
+	}
+
+	@Nonnull
+	private Maybe<String> register(@Nonnull List<Maybe<String>> sinkIds) {
+		// a distinct object for each item, even if the primary sink reuses IDs
+		Maybe<String> id = sinkIds.get(0).cache();
+		ids.put(id, sinkIds);
+		return id;
+	}
+
+	@Nullable
+	private Maybe<String> sinkId(@Nullable Maybe<String> id, @Nullable List<Maybe<String>> sinkIds, int sink) {
+		return sinkIds == null ? id : sinkIds.get(sink);
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+		List<Maybe<String>> sinkIds = new ArrayList<>(sinks.size());
+		for (ReportingSink sink : sinks) {
+			sinkIds.add(sink.startLaunch(rq));
+		}
+		return register(sinkIds);
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		List<Maybe<String>> parentIds = parentId == null ? null : ids.get(parentId);
+		List<Maybe<String>> sinkIds = new ArrayList<>(sinks.size());
+		for (int i = 0; i < sinks.size(); i++) {
+			sinkIds.add(sinks.get(i).startTestItem(sinkId(parentId, parentIds, i), rq));
+		}
+		return register(sinkIds);
+	}
+
+	@Nonnull
+	@Override
+	public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		List<Maybe<String>> sinkIds = ids.remove(itemId);
+		Completable[] results = new Completable[sinks.size()];
+		for (int i = 0; i < sinks.size(); i++) {
+			results[i] = sinks.get(i).finishTestItem(sinkId(itemId, sinkIds, i), rq);
+		}
+		return Completable.mergeArray(results);
+	}
+
+	@Nonnull
+	@Override
+	public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+		List<Maybe<String>> sinkIds = itemId == null ? null : ids.get(itemId);
+		Completable[] results = new Completable[sinks.size()];
+		for (int i = 0; i < sinks.size(); i++) {
+			results[i] = sinks.get(i).log(sinkId(itemId, sinkIds, i), rq);
+		}
+		return Completable.mergeArray(results);
+	}
+
+	@Override
+	public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+		for (ReportingSink sink : sinks) {
+			sink.finishLaunch(rq);
+		}
+		ids.clear();
+	}
+}
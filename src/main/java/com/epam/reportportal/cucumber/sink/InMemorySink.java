@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A sink which keeps reporting events in memory. Item IDs are sequential numbers, all requests complete immediately.
+ * Events can be inspected after the run, or only counted if events are not kept, which makes the sink suitable for
+ * benchmarks.
+ */
+public class InMemorySink implements ReportingSink {
+
+	public enum EventType {
+		LAUNCH_START,
+		ITEM_START,
+		ITEM_FINISH,
+		LOG,
+		LAUNCH_FINISH
+	}
+
+	/**
+	 * A reporting event
+	 */
+	public static class Event {
+		private final EventType type;
+		private final String id;
+		private final String parentId;
+		private final Object request;
+
+		private Event(@Nonnull EventType type, @Nullable String id, @Nullable String parentId, @Nonnull Object request) {
+			this.type = type;
+			this.id = id;
+			this.parentId = parentId;
+			this.request = request;
+		}
+
+		@Nonnull
+		public EventType getType() {
+			return type;
+		}
+
+		/**
+		 * @return ID of the launch or item the event describes, or which a log belongs to
+		 */
+		@Nullable
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * @return parent item ID for item start events
+		 */
+		@Nullable
+		public String getParentId() {
+			return parentId;
+		}
+
+		/**
+		 * @param <T> request type
+		 * @return the request passed to the sink
+		 */
+		@Nonnull
+		@SuppressWarnings("unchecked")
+		public <T> T getRequest() {
+			return (T) request;
+		}
+	}
+
+	private final boolean keepEvents;
+	private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+	private final AtomicLong ids = new AtomicLong();
+	private final AtomicLong itemStarts = new AtomicLong();
+	private final AtomicLong itemFinishes = new AtomicLong();
+	private final AtomicLong logs = new AtomicLong();
+
+	/**
+	 * Creates a sink which keeps all events
+	 */
+	public InMemorySink() {
+		this(true);
+	}
+
+	/**
+	 * @param keepEvents keep events for inspection, or only count them
+	 */
+	public InMemorySink(boolean keepEvents) {
+		this.keepEvents = keepEvents;
+	}
+
+	@Nullable
+	private static String id(@Nullable Maybe<String> id) {
+		// IDs of this sink are always resolved
+		return id == null ? null : id.blockingGet();
+	}
+
+	private void add(@Nonnull EventType type, @Nullable String id, @Nullable String parentId, @Nonnull Object request) {
+		if (keepEvents) {
+			events.add(new Event(type, id, parentId, request));
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+		String id = String.valueOf(ids.incrementAndGet());
+		add(EventType.LAUNCH_START, id, null, rq);
+		return Maybe.just(id);
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		itemStarts.incrementAndGet();
+		String id = String.valueOf(ids.incrementAndGet());
+		if (keepEvents) {
+			add(EventType.ITEM_START, id, id(parentId), rq);
+		}
+		return Maybe.just(id);
+	}
+
+	@Nonnull
+	@Override
+	public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		itemFinishes.incrementAndGet();
+		if (keepEvents) {
+			add(EventType.ITEM_FINISH, id(itemId), null, rq);
+		}
+		return Completable.complete();
+	}
+
+	@Nonnull
+	@Override
+	public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+		logs.incrementAndGet();
+		if (keepEvents) {
+			add(EventType.LOG, id(itemId), null, rq);
+		}
+		return Completable.complete();
+	}
+
+	@Override
+	public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+		add(EventType.LAUNCH_FINISH, null, null, rq);
+	}
+
+	/**
+	 * @return kept events in the order of arrival
+	 */
+	@Nonnull
+	public List<Event> getEvents() {
+		return new ArrayList<>(events);
+	}
+
+	public long getItemStarts() {
+		return itemStarts.get();
+	}
+
+	public long getItemFinishes() {
+		return itemFinishes.get();
+	}
+
+	public long getLogs() {
+		return logs.get();
+	}
+
+	/**
+	 * Forgets all events and resets counters
+	 */
+	public void clear() {
+		events.clear();
+		itemStarts.set(0);
+		itemFinishes.set(0);
+		logs.set(0);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A sink which discards everything. All items share the same ID, so nothing is allocated per request. Useful to
+ * measure the reporter's own overhead.
+ */
+public class NullSink implements ReportingSink {
+	public static final NullSink INSTANCE = new NullSink();
+
+	private static final Maybe<String> ID = Maybe.just("null");
+
+	@Nonnull
+	@Override
+	public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+		return ID;
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		return ID;
+	}
+
+	@Nonnull
+	@Override
+	public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		return Completable.complete();
+	}
+
+	@Nonnull
+	@Override
+	public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+		return Completable.complete();
+	}
+
+	@Override
+	public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.utils.http.HttpRequestUtils;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.CompletableSubject;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The default sink, which sends everything to ReportPortal through the client's {@link Launch} and logging context.
+ * <p>
+ * If a client is given, logs of known items are sent by the sink itself in batches of the launch log batch size, so
+ * their completion means the server responded. The client's logging context does not expose completion of its batches.
+ * Such logs bypass the client log processing: the logging context, image conversion and the batch payload limit.
+ */
+public class ReportPortalSink implements ReportingSink {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReportPortalSink.class);
+
+	// a partial batch is sent after this period, so logs never wait for more logs to complete
+	private static final long LOG_BATCH_PERIOD_MILLIS = 200;
+	private static final long LOG_FLUSH_TIMEOUT_MINUTES = 5;
+
+	private final Supplier<Launch> launch;
+	private final Supplier<ReportPortalClient> client;
+	private final Subject<PendingLog> logs = PublishSubject.<PendingLog>create().toSerialized();
+	private final CompletableSubject logsSent = CompletableSubject.create();
+	private volatile Maybe<String> launchUuid;
+
+	/**
+	 * @param launch ReportPortal launch supplier, the launch should be created with the same request which is passed to
+	 *               {@link #startLaunch(StartLaunchRQ)}
+	 */
+	public ReportPortalSink(@Nonnull Supplier<Launch> launch) {
+		this(launch, null);
+	}
+
+	/**
+	 * @param launch ReportPortal launch supplier, the launch should be created with the same request which is passed to
+	 *               {@link #startLaunch(StartLaunchRQ)}
+	 * @param client ReportPortal client to send logs of known items with, or null to pass all logs to the client's
+	 *               logging context
+	 */
+	public ReportPortalSink(@Nonnull Supplier<Launch> launch, @Nullable Supplier<ReportPortalClient> client) {
+		this.launch = launch;
+		this.client = client;
+	}
+
+	/**
+	 * Starts the launch. The launch object is already created with its request, so the request argument is not used.
+	 *
+	 * @param rq launch start request
+	 * @return launch ID
+	 */
+	@Nonnull
+	@Override
+	public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+		Launch rpLaunch = launch.get();
+		Maybe<String> id = rpLaunch.start();
+		if (client != null && launchUuid == null) {
+			launchUuid = id;
+			subscribeLogs(Math.max(1, rpLaunch.getParameters().getBatchLogsSize()));
+		}
+		return id;
+	}
+
+	private void subscribeLogs(int batchSize) {
+		//noinspection ResultOfMethodCallIgnored
+		logs.toFlowable(BackpressureStrategy.BUFFER)
+				.flatMapMaybe(PendingLog::resolve)
+				.buffer(LOG_BATCH_PERIOD_MILLIS, TimeUnit.MILLISECONDS, batchSize)
+				.filter(batch -> !batch.isEmpty())
+				.flatMapCompletable(this::sendLogs)
+				.subscribe(logsSent::onComplete, logsSent::onError);
+	}
+
+	@Nonnull
+	private Completable sendLogs(@Nonnull List<PendingLog> batch) {
+		return Completable.defer(() -> {
+			List<SaveLogRQ> rqs = batch.stream().map(l -> l.request).collect(Collectors.toList());
+			return client.get().log(HttpRequestUtils.buildLogMultiPartRequest(rqs)).ignoreElement();
+		}).subscribeOn(Schedulers.io()).doOnError(e -> LOGGER.warn("Unable to send logs", e)).onErrorComplete().doFinally(() -> {
+			for (PendingLog log : batch) {
+				log.sent.onComplete();
+			}
+		});
+	}
+
+	@Nonnull
+	@Override
+	public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+		return parentId == null ? launch.get().startTestItem(rq) : launch.get().startTestItem(parentId, rq);
+	}
+
+	@Nonnull
+	@Override
+	public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+		Maybe<?> response = launch.get().finishTestItem(itemId, rq);
+		return response == null ? Completable.complete() : response.ignoreElement();
+	}
+
+	/**
+	 * Sends a log. Logs of known items are sent by the sink if it has a client, and the returned completion fires when
+	 * the server responds to the batch. Other logs are passed to the client's logging context, their completion fires
+	 * when the client builds the request for the resolved item.
+	 *
+	 * @param itemId item ID, or null to log to the current item of the client's logging context
+	 * @param rq     log request
+	 * @return completion of the request
+	 */
+	@Nonnull
+	@Override
+	public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+		CompletableSubject sent = CompletableSubject.create();
+		Maybe<String> launchId = launchUuid;
+		if (itemId != null && launchId != null) {
+			logs.onNext(new PendingLog(itemId, launchId, rq, sent));
+			return sent;
+		}
+		boolean emitted;
+		if (itemId == null) {
+			emitted = ReportPortal.emitLog(itemUuid -> {
+				rq.setItemUuid(itemUuid);
+				sent.onComplete();
+				return rq;
+			});
+		} else {
+			emitted = ReportPortal.emitLog(itemId, itemUuid -> {
+				rq.setItemUuid(itemUuid);
+				sent.onComplete();
+				return rq;
+			});
+		}
+		if (!emitted) {
+			sent.onComplete();
+		}
+		return sent;
+	}
+
+	@Override
+	public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+		if (launchUuid != null) {
+			logs.onComplete();
+			if (!logsSent.onErrorComplete().blockingAwait(LOG_FLUSH_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+				LOGGER.warn("Timed out waiting for logs to be sent");
+			}
+		}
+		launch.get().finish(rq);
+	}
+
+	private static class PendingLog {
+		private final Maybe<String> itemId;
+		private final Maybe<String> launchId;
+		private final SaveLogRQ request;
+		private final CompletableSubject sent;
+
+		private PendingLog(Maybe<String> itemId, Maybe<String> launchId, SaveLogRQ request, CompletableSubject sent) {
+			this.itemId = itemId;
+			this.launchId = launchId;
+			this.request = request;
+			this.sent = sent;
+		}
+
+		@Nonnull
+		private Maybe<PendingLog> resolve() {
+			return itemId.zipWith(launchId, (itemUuid, launchUuid) -> {
+				request.setItemUuid(itemUuid);
+				request.setLaunchUuid(launchUuid);
+				return this;
+			}).doOnComplete(sent::onComplete).doOnError(e -> {
+				LOGGER.warn("Unable to resolve an item of a log", e);
+				sent.onComplete();
+			}).onErrorComplete();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Destination of reporting events. The reporter decides what to report and passes ready requests to a sink, which
+ * decides where they go: ReportPortal, a local journal, memory or nowhere.
+ * <p>
+ * Item IDs returned by a sink are passed back to the same sink as parent and item IDs, so each sink is free to choose
+ * its own ID format. Methods returning {@link Completable} should not block, the reporter accounts the request as in
+ * flight until it completes.
+ */
+public interface ReportingSink {
+
+	/**
+	 * Starts a launch
+	 *
+	 * @param rq launch start request
+	 * @return launch ID
+	 */
+	@Nonnull
+	Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq);
+
+	/**
+	 * Starts a test item
+	 *
+	 * @param parentId parent item ID, or null for a root item
+	 * @param rq       item start request
+	 * @return item ID
+	 */
+	@Nonnull
+	Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq);
+
+	/**
+	 * Finishes a test item
+	 *
+	 * @param itemId item ID
+	 * @param rq     item finish request
+	 * @return completion of the request
+	 */
+	@Nonnull
+	Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq);
+
+	/**
+	 * Sends a log entry or an attachment
+	 *
+	 * @param itemId item ID, or null if the log does not belong to an item known by the reporter
+	 * @param rq     log request
+	 * @return completion of the request
+	 */
+	@Nonnull
+	Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq);
+
+	/**
+	 * Finishes the launch, blocks until all requests are completed
+	 *
+	 * @param rq launch finish request
+	 */
+	void finishLaunch(@Nonnull FinishExecutionRQ rq);
+}
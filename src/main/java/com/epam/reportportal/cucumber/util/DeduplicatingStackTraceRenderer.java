@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Stack trace renderer which reports the full stack trace only for the first failure with a specific fingerprint. The
+ * fingerprint consists of the exception type, the message with variable parts (numbers, identifiers) masked and top
+ * stack trace frames of each exception in the cause chain. Failures with an already known fingerprint are rendered as a
+ * short reference to the first one and their own message.
+ */
+public class DeduplicatingStackTraceRenderer extends StackTraceRenderer {
+	private static final int MAX_FINGERPRINTS = 10_000;
+	private static final String FIRST_OCCURRENCE_FORMAT = "%sFailure fingerprint: #%d";
+	private static final String REPEATED_FORMAT = "Repeated failure #%d, the full stack trace is reported with its first occurrence\n%s";
+
+	private static final Pattern UUID = Pattern.compile("\\b[0-9a-fA-F]{8}(?:-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}\\b");
+	private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b|@[0-9a-fA-F]{4,}\\b");
+	private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+	// fingerprint hash codes may collide, so each new fingerprint gets the next number as its reference
+	private final ConcurrentMap<String, Integer> references = new ConcurrentHashMap<>();
+	private final AtomicInteger counter = new AtomicInteger();
+	private final int frames;
+
+	/**
+	 * @param trim   cut off stack trace frames shared with the reporter's call stack
+	 * @param depth  maximum number of frames rendered for each exception in a cause chain, zero or negative means no
+	 *               limit
+	 * @param frames number of top stack trace frames of each exception in a cause chain to include into the fingerprint
+	 */
+	public DeduplicatingStackTraceRenderer(boolean trim, int depth, int frames) {
+		super(trim, depth);
+		this.frames = frames;
+	}
+
+	@Nonnull
+	@Override
+	protected String doRender(@Nonnull Throwable error) {
+		String fingerprint = fingerprint(error);
+		Integer reference = references.get(fingerprint);
+		if (reference == null) {
+			if (references.size() >= MAX_FINGERPRINTS) {
+				return super.doRender(error);
+			}
+			int newReference = counter.incrementAndGet();
+			reference = references.putIfAbsent(fingerprint, newReference);
+			if (reference == null) {
+				String stackTrace = super.doRender(error);
+				return String.format(FIRST_OCCURRENCE_FORMAT,
+						stackTrace.endsWith("\n") ? stackTrace : stackTrace + "\n",
+						newReference
+				);
+			}
+		}
+		return String.format(REPEATED_FORMAT, reference, error);
+	}
+
+	/**
+	 * Calculates a normalized stack trace representation of an error, which is the same for errors caused by the same
+	 * problem.
+	 *
+	 * @param error an error to process
+	 * @return the error fingerprint
+	 */
+	@Nonnull
+	public String fingerprint(@Nonnull Throwable error) {
+		StringBuilder result = new StringBuilder();
+		Throwable current = error;
+		int causes = 0;
+		while (current != null && causes++ < 16) {
+			result.append(current.getClass().getName()).append(':').append(template(current.getMessage())).append('\n');
+			StackTraceElement[] stackTrace = current.getStackTrace();
+			for (int i = 0; i < frames && i < stackTrace.length; i++) {
+				result.append(stackTrace[i]).append('\n');
+			}
+			current = current.getCause() == current ? null : current.getCause();
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Masks variable parts of an error message: UUIDs, hexadecimal values and numbers.
+	 *
+	 * @param message an error message
+	 * @return message template
+	 */
+	@Nonnull
+	static String template(String message) {
+		if (message == null) {
+			return "";
+		}
+		String result = UUID.matcher(message).replaceAll("<uuid>");
+		result = HEX.matcher(result).replaceAll("<hex>");
+		return NUMBER.matcher(result).replaceAll("<n>");
+	}
+}
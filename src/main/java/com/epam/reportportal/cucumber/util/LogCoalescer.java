@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Coalesces consecutive text logs of an item which have the same level and the same message, or the same message
+ * template with numbers and identifiers masked, into one log with a repeat count. A run of logs is limited by a time
+ * window starting from its first log. Each log is held until the next log of the same item, the item finish or the end of
+ * the window, since only then it is known whether the run continues.
+ *
+ * @param <K> item key type
+ */
+public class LogCoalescer<K> {
+	private static final String REPEATED_FORMAT = "%s\n(repeated %d times from %s to %s)";
+	private static final String SIMILAR_FORMAT = "%s\n(%d similar messages from %s to %s)";
+	private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+	private final Map<K, Run> runs = new HashMap<>();
+	private final long window;
+
+	/**
+	 * @param window maximum time span of one run in milliseconds
+	 */
+	public LogCoalescer(long window) {
+		this.window = window;
+	}
+
+	/**
+	 * Adds a log to the current run of the item or starts a new run.
+	 *
+	 * @param key     the item key
+	 * @param level   a log level
+	 * @param time    a log time
+	 * @param message a log message
+	 * @return the previous run of the item if the log does not continue it, null otherwise
+	 */
+	@Nullable
+	public synchronized Run offer(@Nonnull K key, @Nonnull String level, @Nonnull Date time, @Nullable String message) {
+		String text = message == null ? "" : message;
+		Run run = runs.get(key);
+		if (run != null && run.add(level, time, text, window)) {
+			return null;
+		}
+		runs.put(key, new Run(level, time, text));
+		return run;
+	}
+
+	/**
+	 * Completes the current run of the item
+	 *
+	 * @param key the item key
+	 * @return the run or null if the item has no logs held
+	 */
+	@Nullable
+	public synchronized Run flush(@Nonnull K key) {
+		return runs.isEmpty() ? null : runs.remove(key);
+	}
+
+	/**
+	 * Completes the current run of the item if its time window has elapsed, since no further log can continue it
+	 *
+	 * @param key the item key
+	 * @param now the current time in milliseconds
+	 * @return the run or null if the item has no logs held or its run is not expired yet
+	 */
+	@Nullable
+	public synchronized Run flushExpired(@Nonnull K key, long now) {
+		Run run = runs.isEmpty() ? null : runs.get(key);
+		if (run == null || now - run.firstTime.getTime() <= window) {
+			return null;
+		}
+		return runs.remove(key);
+	}
+
+	/**
+	 * Consecutive logs coalesced into one
+	 */
+	public static class Run {
+		private final String level;
+		private final Date firstTime;
+		private final String message;
+		private String template;
+		private Date lastTime;
+		private int count = 1;
+		private boolean identical = true;
+
+		private Run(String level, Date time, String message) {
+			this.level = level;
+			this.firstTime = time;
+			this.lastTime = time;
+			this.message = message;
+		}
+
+		private boolean add(String level, Date time, String message, long window) {
+			if (!this.level.equals(level) || time.getTime() - firstTime.getTime() > window) {
+				return false;
+			}
+			if (!this.message.equals(message)) {
+				if (template == null) {
+					template = DeduplicatingStackTraceRenderer.template(this.message);
+				}
+				if (!template.equals(DeduplicatingStackTraceRenderer.template(message))) {
+					return false;
+				}
+				identical = false;
+			}
+			count++;
+			lastTime = time;
+			return true;
+		}
+
+		public String getLevel() {
+			return level;
+		}
+
+		/**
+		 * @return the time of the first log of the run
+		 */
+		public Date getTime() {
+			return firstTime;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the first message of the run, with the repeat count and the first and the last log times if there are
+		 * several logs
+		 */
+		public String getMessage() {
+			if (count == 1) {
+				return message;
+			}
+			return String.format(identical ? REPEATED_FORMAT : SIMILAR_FORMAT,
+					message,
+					count,
+					TIME_FORMAT.format(firstTime.toInstant()),
+					TIME_FORMAT.format(lastTime.toInstant())
+			);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import com.epam.reportportal.utils.MimeTypeDetector;
+import com.epam.reportportal.utils.files.ByteSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects MIME types of attachments and remembers types which are fully defined by a magic number, keyed by the first
+ * bytes of the data, so repeated screenshots of the same format skip full detection. Types which depend on the rest of
+ * the content, like ZIP based formats or text and XML based formats, are detected every time.
+ */
+public class MimeTypeCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MimeTypeCache.class);
+
+	private static final int PREFIX_LENGTH = 16;
+	private static final int MAX_ENTRIES = 256;
+
+	private final Map<String, String> types = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a MIME type of the data
+	 *
+	 * @param data data to detect
+	 * @return MIME type or null if it cannot be detected
+	 */
+	@Nullable
+	public String detect(@Nonnull byte[] data) {
+		// ISO-8859-1 maps each byte to one char, so the key is exactly the prefix bytes
+		String prefix = data.length >= PREFIX_LENGTH ? new String(data, 0, PREFIX_LENGTH, StandardCharsets.ISO_8859_1) : null;
+		if (prefix != null) {
+			String type = types.get(prefix);
+			if (type != null) {
+				return type;
+			}
+		}
+		String type = doDetect(data);
+		if (prefix != null && type != null && isDefinedByPrefix(type) && types.size() < MAX_ENTRIES) {
+			types.putIfAbsent(prefix, type);
+		}
+		return type;
+	}
+
+	@Nullable
+	protected String doDetect(@Nonnull byte[] data) {
+		try {
+			return MimeTypeDetector.detect(ByteSource.wrap(data), null);
+		} catch (IOException e) {
+			LOGGER.warn("Unable to detect MIME type", e);
+		}
+		return null;
+	}
+
+	/**
+	 * @return number of cached prefixes
+	 */
+	public int size() {
+		return types.size();
+	}
+
+	static boolean isDefinedByPrefix(@Nonnull String type) {
+		return (type.startsWith("image/") && !type.contains("xml")) || "application/pdf".equals(type);
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import com.epam.reportportal.utils.formatting.ExceptionUtils;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renders exception stack traces for logs and item descriptions. Each exception object is rendered only once: the
+ * result is cached until the exception is garbage collected, so a failure which is reported as a step log, a step
+ * description and a scenario description costs a single rendering.
+ */
+public class StackTraceRenderer {
+	private static final String FRAME_PREFIX = "\tat ";
+	private static final String MORE_FRAMES_PREFIX = "\t... ";
+	private static final String MORE_FRAMES_SUFFIX = " more";
+	private static final String MORE_FRAMES_FORMAT = MORE_FRAMES_PREFIX + "%d" + MORE_FRAMES_SUFFIX;
+
+	// Throwable does not override equals and hashCode, so the map works by object identity
+	private final Map<Throwable, String> renderings = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final boolean trim;
+	private final int depth;
+
+	/**
+	 * @param trim  cut off stack trace frames shared with the reporter's call stack
+	 * @param depth maximum number of frames rendered for each exception in a cause chain, zero or negative means no
+	 *              limit
+	 */
+	public StackTraceRenderer(boolean trim, int depth) {
+		this.trim = trim;
+		this.depth = depth;
+	}
+
+	/**
+	 * Returns a string representation of the exception stack trace.
+	 *
+	 * @param error an exception to render
+	 * @return the exception stack trace
+	 */
+	@Nonnull
+	public String render(@Nonnull Throwable error) {
+		String result = renderings.get(error);
+		if (result == null) {
+			result = doRender(error);
+			renderings.put(error, result);
+		}
+		return result;
+	}
+
+	@Nonnull
+	protected String doRender(@Nonnull Throwable error) {
+		String stackTrace = trim ?
+				ExceptionUtils.getStackTrace(error, new Throwable()) :
+				org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace(error);
+		return depth > 0 ? limitDepth(stackTrace, depth) : stackTrace;
+	}
+
+	/**
+	 * Leaves only first frames of each exception in a rendered stack trace. Frames the JVM has already omitted as
+	 * common with the enclosing trace are added to the counter of the exception instead of being kept as a separate line.
+	 *
+	 * @param stackTrace a rendered stack trace
+	 * @param depth      maximum number of frames to leave for each exception
+	 * @return the stack trace with excessive frames replaced by a counter
+	 */
+	@Nonnull
+	static String limitDepth(@Nonnull String stackTrace, int depth) {
+		StringBuilder result = new StringBuilder(stackTrace.length());
+		int frames = 0;
+		int skipped = 0;
+		int lineStart = 0;
+		int length = stackTrace.length();
+		while (lineStart < length) {
+			int lineEnd = stackTrace.indexOf('\n', lineStart);
+			lineEnd = lineEnd < 0 ? length : lineEnd + 1;
+			int omitted;
+			if (stackTrace.startsWith(FRAME_PREFIX, lineStart)) {
+				if (frames++ < depth) {
+					result.append(stackTrace, lineStart, lineEnd);
+				} else {
+					skipped++;
+				}
+			} else if ((omitted = parseOmittedFrames(stackTrace, lineStart, lineEnd)) >= 0) {
+				skipped += omitted;
+			} else {
+				skipped = appendSkipped(result, skipped);
+				frames = 0;
+				result.append(stackTrace, lineStart, lineEnd);
+			}
+			lineStart = lineEnd;
+		}
+		appendSkipped(result, skipped);
+		return result.toString();
+	}
+
+	/**
+	 * Parses a "... N more" line the JVM renders for frames common with the enclosing trace.
+	 *
+	 * @param stackTrace a rendered stack trace
+	 * @param lineStart  the line start index
+	 * @param lineEnd    the line end index, exclusive
+	 * @return the number of omitted frames or -1 if the line is not a counter line
+	 */
+	private static int parseOmittedFrames(String stackTrace, int lineStart, int lineEnd) {
+		if (!stackTrace.startsWith(MORE_FRAMES_PREFIX, lineStart)) {
+			return -1;
+		}
+		String line = stackTrace.substring(lineStart + MORE_FRAMES_PREFIX.length(), lineEnd).trim();
+		if (!line.endsWith(MORE_FRAMES_SUFFIX)) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(line.substring(0, line.length() - MORE_FRAMES_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static int appendSkipped(StringBuilder result, int skipped) {
+		if (skipped > 0) {
+			if (result.length() > 0 && result.charAt(result.length() - 1) != '\n') {
+				result.append('\n');
+			}
+			result.append(String.format(MORE_FRAMES_FORMAT, skipped)).append('\n');
+		}
+		return 0;
+	}
+}
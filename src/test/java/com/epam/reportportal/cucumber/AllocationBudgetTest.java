@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.InMemoryEventCollector;
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.TestUtils;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import cucumber.api.CucumberOptions;
+import cucumber.api.event.*;
+import cucumber.api.formatter.Formatter;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks bytes allocated by reporter event handlers per scenario and per step against the budget from
+ * 'allocation-budget.properties', so allocation regressions on the hot path fail the performance check. Events are
+ * recorded from a real Cucumber run, so steps carry real step definition matches.
+ */
+@Tag("performance")
+public class AllocationBudgetTest {
+	@CucumberOptions(features = { "src/test/resources/features/BasicScenarioOutlineParameters.feature",
+			"src/test/resources/features/DataTableParameter.feature" }, glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = {
+			"com.epam.reportportal.cucumber.integration.util.InMemoryEventCollector" })
+	public static class RecordedRun extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+	private static final String BUDGET_FILE = "allocation-budget.properties";
+	private static final int WARMUP_RUNS = 2_000;
+	private static final int MEASURED_RUNS = 500;
+
+	private static final List<TestSourceRead> SOURCES = new ArrayList<>();
+	private static final List<List<Event>> TEST_CASES = new ArrayList<>();
+	private static final Properties BUDGET = new Properties();
+
+	private static com.sun.management.ThreadMXBean threadBean;
+
+	@BeforeAll
+	public static void loadBudget() throws IOException {
+		try (InputStream is = AllocationBudgetTest.class.getClassLoader().getResourceAsStream(BUDGET_FILE)) {
+			BUDGET.load(is);
+		}
+		recordEvents();
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			threadBean = (com.sun.management.ThreadMXBean) bean;
+		}
+	}
+
+	private static void recordEvents() {
+		InMemoryEventCollector.EVENTS.clear();
+		TestUtils.runTests(RecordedRun.class);
+		List<Event> testCase = null;
+		for (Event event : InMemoryEventCollector.EVENTS) {
+			if (event instanceof TestSourceRead) {
+				SOURCES.add((TestSourceRead) event);
+			} else if (event instanceof TestCaseStarted) {
+				testCase = new ArrayList<>();
+				testCase.add(event);
+			} else if (testCase != null) {
+				testCase.add(event);
+				if (event instanceof TestCaseFinished) {
+					TEST_CASES.add(testCase);
+					testCase = null;
+				}
+			}
+		}
+		InMemoryEventCollector.EVENTS.clear();
+	}
+
+	private static long allocatedBytes() {
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static class Allocations {
+		private long scenarioBytes;
+		private long stepBytes;
+		private long scenarios;
+		private long steps;
+	}
+
+	private static void runScenarios(EventBus bus, List<List<Event>> testCases, Allocations allocations) {
+		for (List<Event> events : testCases) {
+			for (Event event : events) {
+				long before = allocatedBytes();
+				bus.send(event);
+				long bytes = allocatedBytes() - before;
+				if (allocations == null) {
+					continue;
+				}
+				if (event instanceof TestStepStarted || event instanceof TestStepFinished) {
+					allocations.stepBytes += bytes;
+				} else {
+					allocations.scenarioBytes += bytes;
+				}
+				if (event instanceof TestStepStarted) {
+					allocations.steps++;
+				} else if (event instanceof TestCaseStarted) {
+					allocations.scenarios++;
+				}
+			}
+		}
+	}
+
+	private static void verifyBudget(String name, Formatter reporter) {
+		assumeTrue(threadBean != null && threadBean.isThreadAllocatedMemorySupported(), "Thread allocation accounting is not supported");
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+
+		assertThat("Recorded test cases", TEST_CASES, hasSize(4));
+
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		reporter.setEventPublisher(bus);
+		bus.send(new TestRunStarted(0L));
+		SOURCES.forEach(bus::send);
+
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			runScenarios(bus, TEST_CASES, null);
+		}
+		Allocations allocations = new Allocations();
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			runScenarios(bus, TEST_CASES, allocations);
+		}
+		bus.send(new TestRunFinished(0L));
+
+		long perScenario = allocations.scenarioBytes / allocations.scenarios;
+		long perStep = allocations.stepBytes / allocations.steps;
+		LOGGER.info("{}: {} bytes per scenario, {} bytes per step", name, perScenario, perStep);
+		assertThat(name + " bytes per scenario", perScenario, lessThanOrEqualTo(Long.parseLong(BUDGET.getProperty(name + ".scenario"))));
+		assertThat(name + " bytes per step", perStep, lessThanOrEqualTo(Long.parseLong(BUDGET.getProperty(name + ".step"))));
+	}
+
+	@Test
+	public void verify_scenario_reporter_allocation_budget() {
+		verifyBudget("scenario.reporter", new SinkReporters.SinkScenarioReporter(new InMemorySink(false)));
+	}
+
+	@Test
+	public void verify_step_reporter_allocation_budget() {
+		verifyBudget("step.reporter", new SinkReporters.SinkStepReporter(new InMemorySink(false)));
+	}
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.reportportal.cucumber.sink.ReportingSink;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.CucumberOptions;
+import cucumber.api.event.EmbedEvent;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestStepStarted;
+import cucumber.api.event.WriteEvent;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.cucumber.integration.util.SinkReporters.events;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AsyncEmbeddingTest {
+	@CucumberOptions(features = "src/test/resources/features/embedding/TextEmbeddingFeature.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.embed.text" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkStepReporter" })
+	public static class EmbeddingStepReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	@CucumberOptions(features = "src/test/resources/features/embedding/TextEmbeddingFeature.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.embed.text" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter" })
+	public static class EmbeddingScenarioReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final String FEATURE = "Feature: Embedding feature\n\n" + "  Scenario: Embedding scenario\n"
+			+ "    Given I take a screenshot\n";
+	private static final String DETECTION_THREAD = "rp-cucumber-mime-detection";
+	private static final String TEXT_LOG = "Text after the attachment";
+
+	private final InMemorySink sink = new InMemorySink();
+	private final SlowAttachmentSink slowSink = new SlowAttachmentSink(sink);
+
+	/**
+	 * Sends attachments slowly, so a step finishes before its attachment is sent unless the finish waits for it
+	 */
+	private static class SlowAttachmentSink implements ReportingSink {
+		private final ReportingSink delegate;
+		private final List<String> attachmentThreads = new CopyOnWriteArrayList<>();
+
+		private SlowAttachmentSink(ReportingSink delegate) {
+			this.delegate = delegate;
+		}
+
+		@Nonnull
+		@Override
+		public Maybe<String> startLaunch(@Nonnull StartLaunchRQ rq) {
+			return delegate.startLaunch(rq);
+		}
+
+		@Nonnull
+		@Override
+		public Maybe<String> startTestItem(@Nullable Maybe<String> parentId, @Nonnull StartTestItemRQ rq) {
+			return delegate.startTestItem(parentId, rq);
+		}
+
+		@Nonnull
+		@Override
+		public Completable finishTestItem(@Nonnull Maybe<String> itemId, @Nonnull FinishTestItemRQ rq) {
+			return delegate.finishTestItem(itemId, rq);
+		}
+
+		@Nonnull
+		@Override
+		public Completable log(@Nullable Maybe<String> itemId, @Nonnull SaveLogRQ rq) {
+			if (rq.getFile() != null) {
+				attachmentThreads.add(Thread.currentThread().getName());
+				try {
+					TimeUnit.MILLISECONDS.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return delegate.log(itemId, rq);
+		}
+
+		@Override
+		public void finishLaunch(@Nonnull FinishExecutionRQ rq) {
+			delegate.finishLaunch(rq);
+		}
+	}
+
+	private static ReporterParameters parameters(boolean async, boolean coalesce) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setEmbeddingAsyncDetection(async);
+		parameters.setLogCoalesce(coalesce);
+		return parameters;
+	}
+
+	private void run(SinkReporters.Type type, boolean async, boolean coalesce) {
+		SyntheticFeature feature = new SyntheticFeature("features/embedding.feature", FEATURE);
+		List<Event> events = new ArrayList<>();
+		for (Event event : SyntheticFeature.getPassedEvents(feature.getTestCases().get(0))) {
+			events.add(event);
+			if (event instanceof TestStepStarted) {
+				events.add(new EmbedEvent(0L, new byte[] { 1, 2, 3 }, null));
+				events.add(new WriteEvent(0L, TEXT_LOG));
+			}
+		}
+		SinkReporters.run(type, slowSink, parameters(async, coalesce), feature, events);
+	}
+
+	private List<InMemorySink.Event> logsAndFinishes() {
+		return sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG || e.getType() == InMemorySink.EventType.ITEM_FINISH)
+				.collect(Collectors.toList());
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_attachment_is_detected_on_test_thread_by_default(SinkReporters.Type type) {
+		run(type, false, false);
+
+		assertThat(sink.getLogs(), equalTo(2L));
+		assertThat(slowSink.attachmentThreads, hasSize(1));
+		assertThat(slowSink.attachmentThreads.get(0), not(equalTo(DETECTION_THREAD)));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_step_finish_waits_for_asynchronous_attachment(SinkReporters.Type type) {
+		run(type, true, false);
+
+		assertThat(slowSink.attachmentThreads, contains(DETECTION_THREAD));
+		List<InMemorySink.Event> events = logsAndFinishes();
+		InMemorySink.Event attachment = events.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG && e.<SaveLogRQ>getRequest().getFile() != null)
+				.findAny()
+				.orElseThrow(() -> new AssertionError("The attachment is not sent"));
+		// the attachment goes to the step, which is finished right after it
+		InMemorySink.Event next = events.get(events.indexOf(attachment) + 1);
+		assertThat(next.getType(), equalTo(InMemorySink.EventType.ITEM_FINISH));
+		assertThat(next.getId(), equalTo(attachment.getId()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_held_logs_offered_after_asynchronous_attachment_go_after_it(SinkReporters.Type type) {
+		run(type, true, true);
+
+		List<InMemorySink.Event> events = logsAndFinishes();
+		assertThat(events.get(0).getType(), equalTo(InMemorySink.EventType.LOG));
+		assertThat(events.get(0).<SaveLogRQ>getRequest().getFile(), notNullValue());
+		assertThat(events.get(1).getType(), equalTo(InMemorySink.EventType.LOG));
+		assertThat(events.get(1).<SaveLogRQ>getRequest().getMessage(), equalTo(TEXT_LOG));
+		assertThat(events.get(1).getId(), equalTo(events.get(0).getId()));
+		assertThat(events.get(2).getType(), equalTo(InMemorySink.EventType.ITEM_FINISH));
+		assertThat(events.get(2).getId(), equalTo(events.get(0).getId()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_attachments_of_a_real_run_are_sent_before_their_item_finish(SinkReporters.Type type) {
+		SinkReporters.runTests(slowSink,
+				parameters(true, false),
+				type == SinkReporters.Type.STEP ? EmbeddingStepReporter.class : EmbeddingScenarioReporter.class
+		);
+
+		// only the attachment with a partially correct type is detected on the detection thread
+		assertThat(slowSink.attachmentThreads, hasSize(3));
+		assertThat(slowSink.attachmentThreads.stream().filter(DETECTION_THREAD::equals).count(), equalTo(1L));
+		List<InMemorySink.Event> attachments = events(sink, InMemorySink.EventType.LOG).stream()
+				.filter(e -> e.<SaveLogRQ>getRequest().getFile() != null)
+				.collect(Collectors.toList());
+		assertThat(attachments, hasSize(3));
+		List<InMemorySink.Event> events = sink.getEvents();
+		attachments.forEach(a -> {
+			InMemorySink.Event finish = events(sink, InMemorySink.EventType.ITEM_FINISH, a.getId()).get(0);
+			assertThat(events.indexOf(a), lessThan(events.indexOf(finish)));
+		});
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+}
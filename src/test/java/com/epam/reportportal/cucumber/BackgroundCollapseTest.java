@@ -0,0 +1,203 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.CucumberOptions;
+import cucumber.api.TestCase;
+import cucumber.api.event.Event;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.cucumber.integration.util.SinkReporters.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BackgroundCollapseTest {
+	@CucumberOptions(features = "src/test/resources/features/BackgroundScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkStepReporter" })
+	public static class BackgroundStepReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	@CucumberOptions(features = "src/test/resources/features/BackgroundScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter" })
+	public static class BackgroundScenarioReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final String FEATURE = "Feature: Background feature\n\n" + "  Background: Common steps\n"
+			+ "    Given I have background step one\n" + "    And I have background step two\n"
+			+ "    And I have background step three\n\n" + "  Scenario: First scenario\n" + "    Then I have the first step\n\n"
+			+ "  Scenario: Second scenario\n" + "    Then I have the second step\n";
+
+	private static final String DOC_STRING = "Background doc string";
+	private static final String ARGUMENT_FEATURE = "Feature: Background argument feature\n\n" + "  Background: Common steps\n"
+			+ "    Given I have a background doc string\n" + "      \"\"\"\n" + "      " + DOC_STRING + "\n" + "      \"\"\"\n"
+			+ "    And I have background step two\n\n" + "  Scenario: First scenario\n" + "    Then I have the first step\n";
+
+	private final InMemorySink sink = new InMemorySink();
+	private final SyntheticFeature feature = new SyntheticFeature("features/background.feature", FEATURE);
+	private final SyntheticFeature argumentFeature = new SyntheticFeature("features/background_argument.feature", ARGUMENT_FEATURE);
+
+	private static ReporterParameters parameters(BackgroundMode mode) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setBackgroundMode(mode);
+		return parameters;
+	}
+
+	private void run(SinkReporters.Type type, BackgroundMode mode, List<Event> events) {
+		SinkReporters.run(type, sink, parameters(mode), feature, events);
+	}
+
+	private List<Event> passedEvents() {
+		List<Event> events = new ArrayList<>();
+		feature.getTestCases().forEach(t -> events.addAll(SyntheticFeature.getPassedEvents(t)));
+		return events;
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_background_steps_are_reported_as_items_by_default(SinkReporters.Type type) {
+		run(type, BackgroundMode.STEPS, passedEvents());
+
+		// feature, two scenarios, each with three background steps and one own step
+		assertThat(itemStarts(sink), hasSize(11 + type.getRootItems()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_background_is_reported_as_one_item_per_scenario(SinkReporters.Type type) {
+		run(type, BackgroundMode.ITEM, passedEvents());
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		// feature, two scenarios, each with a background item and one own step
+		assertThat(items, hasSize(7 + type.getRootItems()));
+		assertThat(sink.getItemFinishes(), equalTo(7L + type.getRootItems()));
+		List<StartTestItemRQ> backgrounds = items.stream()
+				.filter(i -> i.getName().equals("Background: Common steps"))
+				.collect(Collectors.toList());
+		assertThat(backgrounds, hasSize(2));
+		String description = backgrounds.get(0).getDescription();
+		assertThat(description, allOf(containsString("Given I have background step one"),
+				containsString("And I have background step two"),
+				containsString("And I have background step three")
+		));
+		assertThat(items.get(3 + type.getRootItems()).getName(), equalTo("Then I have the first step"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_background_is_reported_as_one_log_per_scenario(SinkReporters.Type type) {
+		run(type, BackgroundMode.LOG, passedEvents());
+
+		// feature, two scenarios and their own steps
+		assertThat(itemStarts(sink), hasSize(5 + type.getRootItems()));
+		List<String> logs = logs(sink);
+		assertThat(logs, hasSize(2));
+		logs.forEach(l -> assertThat(l, allOf(startsWith("Background: Common steps\n"),
+				containsString("Given I have background step one"),
+				containsString("And I have background step three")
+		)));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_failed_background_step_is_expanded(SinkReporters.Type type) {
+		TestCase testCase = feature.getTestCases().get(0);
+		run(type, BackgroundMode.LOG, SyntheticFeature.getEvents(testCase, 1, new IllegalStateException("Background failed")));
+
+		List<String> items = itemStarts(sink).stream().map(StartTestItemRQ::getName).collect(Collectors.toList());
+		int root = type.getRootItems();
+		// the failed step and the skipped steps after it are reported as items
+		assertThat(items, hasSize(5 + root));
+		assertThat(items.get(2 + root), endsWith("I have background step two"));
+		assertThat(items.get(3 + root), endsWith("I have background step three"));
+		assertThat(items.get(4 + root), equalTo("Then I have the first step"));
+
+		List<String> logs = logs(sink);
+		assertThat(logs, hasItem(containsString("Background failed")));
+		String background = logs.stream().filter(l -> l.startsWith("Background: ")).findAny().orElse("");
+		assertThat(background, containsString("Given I have background step one"));
+		assertThat(background, not(containsString("I have background step two")));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_collapsed_background_keeps_step_arguments(SinkReporters.Type type) {
+		SinkReporters.run(type,
+				sink,
+				parameters(BackgroundMode.LOG),
+				argumentFeature,
+				SyntheticFeature.getPassedEvents(argumentFeature.getTestCases().get(0))
+		);
+
+		String background = logs(sink).stream().filter(l -> l.startsWith("Background: ")).findAny().orElse("");
+		assertThat(background, allOf(containsString("Given I have a background doc string"), containsString(DOC_STRING)));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_expanded_background_step_keeps_its_argument(SinkReporters.Type type) {
+		TestCase testCase = argumentFeature.getTestCases().get(0);
+		SinkReporters.run(type,
+				sink,
+				parameters(BackgroundMode.ITEM),
+				argumentFeature,
+				SyntheticFeature.getEvents(testCase, 0, new IllegalStateException("Background failed"))
+		);
+
+		InMemorySink.Event step = events(sink, InMemorySink.EventType.ITEM_START).stream()
+				.filter(e -> e.<StartTestItemRQ>getRequest().getName().endsWith("I have a background doc string"))
+				.findAny()
+				.orElseThrow(() -> new AssertionError("The failed background step is not reported"));
+		List<String> stepLogs = events(sink, InMemorySink.EventType.LOG, step.getId()).stream()
+				.map(e -> e.<SaveLogRQ>getRequest().getMessage())
+				.collect(Collectors.toList());
+		assertThat(step.<StartTestItemRQ>getRequest().getDescription(), containsString(DOC_STRING));
+		if (type == SinkReporters.Type.SCENARIO) {
+			// the scenario reporter logs step arguments, even if the step item was deferred
+			assertThat(stepLogs, hasItem(containsString(DOC_STRING)));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_background_of_a_real_run_is_reported_as_items(SinkReporters.Type type) {
+		SinkReporters.runTests(sink,
+				parameters(BackgroundMode.ITEM),
+				type == SinkReporters.Type.STEP ? BackgroundStepReporter.class : BackgroundScenarioReporter.class
+		);
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		// feature, two scenarios, each with a background item and one own step
+		assertThat(items, hasSize(7 + type.getRootItems()));
+		assertThat(items.stream().filter(i -> i.getName().equals("Background: Init our scenario")).count(), equalTo(2L));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+}
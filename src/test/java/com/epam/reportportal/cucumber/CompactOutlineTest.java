@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import cucumber.api.CucumberOptions;
+import cucumber.api.TestCase;
+import cucumber.api.event.Event;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.cucumber.integration.util.SinkReporters.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CompactOutlineTest {
+	@CucumberOptions(features = "src/test/resources/features/BasicScenarioOutlineParameters.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkStepReporter" })
+	public static class OutlineStepReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	@CucumberOptions(features = "src/test/resources/features/BasicScenarioOutlineParameters.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter" })
+	public static class OutlineScenarioReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final String FEATURE = "Feature: Outline feature\n\n" + "  Scenario Outline: Data driven scenario\n"
+			+ "    Given I have a value <value>\n" + "    Then I check the value\n\n" + "    Examples:\n" + "      | value |\n"
+			+ "      | 1     |\n" + "      | 2     |\n" + "      | 3     |\n";
+	private static final String OUTLINE_NAME = "Scenario Outline: Data driven scenario";
+
+	private final InMemorySink sink = new InMemorySink();
+	private final SyntheticFeature feature = new SyntheticFeature("features/outline.feature", FEATURE);
+
+	private static ReporterParameters parameters(OutlineMode mode) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setOutlineMode(mode);
+		return parameters;
+	}
+
+	private void run(SinkReporters.Type type, OutlineMode mode, List<Event> events) {
+		SinkReporters.run(type, sink, parameters(mode), feature, events);
+	}
+
+	private List<Event> passedEvents() {
+		List<Event> events = new ArrayList<>();
+		feature.getTestCases().forEach(t -> events.addAll(SyntheticFeature.getPassedEvents(t)));
+		return events;
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_outline_rows_are_reported_as_scenarios_by_default(SinkReporters.Type type) {
+		run(type, OutlineMode.SCENARIOS, passedEvents());
+
+		// feature, three rows, each with two steps
+		assertThat(itemStarts(sink), hasSize(10 + type.getRootItems()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_rows_are_reported_as_one_outline_item(SinkReporters.Type type) {
+		run(type, OutlineMode.COMPACT, passedEvents());
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		int outline = 1 + type.getRootItems();
+		assertThat(items, hasSize(outline + 1));
+		assertThat(sink.getItemFinishes(), equalTo((long) outline + 1));
+		assertThat(items.get(outline).getName(), equalTo(OUTLINE_NAME));
+		assertThat(items.get(outline).getDescription(), equalTo("3 of 3 example rows passed"));
+
+		List<String> logs = logs(sink);
+		assertThat(logs, hasSize(1));
+		assertThat(logs.get(0), allOf(containsString("[1]"), containsString("value=1"), containsString("value=3")));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_failed_row_is_reported_with_steps(SinkReporters.Type type) {
+		List<TestCase> testCases = feature.getTestCases();
+		List<Event> events = new ArrayList<>(SyntheticFeature.getPassedEvents(testCases.get(0)));
+		events.addAll(SyntheticFeature.getEvents(testCases.get(1), 1, new IllegalStateException("Row failed")));
+		events.addAll(SyntheticFeature.getPassedEvents(testCases.get(2)));
+		run(type, OutlineMode.COMPACT, events);
+
+		List<InMemorySink.Event> starts = events(sink, InMemorySink.EventType.ITEM_START);
+		List<String> items = starts.stream().map(e -> e.<StartTestItemRQ>getRequest().getName()).collect(Collectors.toList());
+		// feature, the outline item, the failed row and both its steps
+		assertThat(items, hasSize(5 + type.getRootItems()));
+		assertThat(sink.getItemFinishes(), equalTo(5L + type.getRootItems()));
+		InMemorySink.Event featureItem = starts.get(type.getRootItems());
+		int step = items.indexOf("Given I have a value 2");
+		assertThat(items.get(step + 1), equalTo("Then I check the value"));
+		String rowId = starts.get(step).getParentId();
+		assertThat(starts.get(step + 1).getParentId(), equalTo(rowId));
+		InMemorySink.Event rowItem = starts.stream()
+				.filter(e -> e.getId().equals(rowId))
+				.findAny()
+				.orElseThrow(() -> new AssertionError("Failed row item is not reported"));
+		// a row has the outline name too
+		InMemorySink.Event outlineItem = starts.stream()
+				.filter(e -> OUTLINE_NAME.equals(e.<StartTestItemRQ>getRequest().getName()) && !e.getId().equals(rowId))
+				.findAny()
+				.orElseThrow(() -> new AssertionError("Outline item is not reported"));
+		assertThat(outlineItem.getParentId(), equalTo(featureItem.getId()));
+
+		FinishTestItemRQ outlineFinish = events(sink, InMemorySink.EventType.ITEM_FINISH, outlineItem.getId()).stream()
+				.map(InMemorySink.Event::<FinishTestItemRQ>getRequest)
+				.findAny()
+				.orElseThrow(() -> new AssertionError("Outline item is not finished"));
+		assertThat(outlineFinish.getDescription(), equalTo("2 of 3 example rows passed"));
+		if (type == SinkReporters.Type.STEP) {
+			// the outline item is a suite of its reported rows and gets its status from them
+			assertThat(rowItem.getParentId(), equalTo(outlineItem.getId()));
+			assertThat(outlineFinish.getStatus(), nullValue());
+		} else {
+			// scenario items have statistics and can not be nested, the outline item reports passed rows only
+			assertThat(rowItem.getParentId(), equalTo(featureItem.getId()));
+			assertThat(outlineFinish.getStatus(), equalTo(ItemStatus.PASSED.name()));
+		}
+
+		List<String> logs = logs(sink);
+		assertThat(logs, hasItem(containsString("Row failed")));
+		String table = logs.get(logs.size() - 1);
+		assertThat(table, allOf(containsString("value=1"), containsString("value=3"), not(containsString("value=2"))));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_partially_run_outline_is_finished_with_feature(SinkReporters.Type type) {
+		List<Event> events = new ArrayList<>(SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)));
+		run(type, OutlineMode.COMPACT, events);
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		int outline = 1 + type.getRootItems();
+		assertThat(items, hasSize(outline + 1));
+		assertThat(items.get(outline).getDescription(), equalTo("1 of 3 example rows passed"));
+		assertThat(sink.getItemFinishes(), equalTo((long) outline + 1));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_rows_of_a_real_run_are_reported_as_one_outline_item(SinkReporters.Type type) {
+		SinkReporters.runTests(sink,
+				parameters(OutlineMode.COMPACT),
+				type == SinkReporters.Type.STEP ? OutlineStepReporter.class : OutlineScenarioReporter.class
+		);
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		int outline = 1 + type.getRootItems();
+		assertThat(items, hasSize(outline + 1));
+		assertThat(items.get(outline).getName(), equalTo("Scenario Outline: Test with different parameters"));
+		assertThat(items.get(outline).getDescription(), equalTo("3 of 3 example rows passed"));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+}
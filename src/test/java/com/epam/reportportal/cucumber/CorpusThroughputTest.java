@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.TestScenarioReporter;
+import com.epam.reportportal.cucumber.integration.TestStepReporter;
+import com.epam.reportportal.cucumber.integration.util.FeatureCorpus;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.integration.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.reportportal.util.test.CommonUtils;
+import com.epam.ta.reportportal.ws.model.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRS;
+import cucumber.api.TestCase;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.api.formatter.Formatter;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs a generated feature corpus through the reporters against a mocked client and reports scenario throughput and
+ * heap usage peak.
+ */
+public class CorpusThroughputTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CorpusThroughputTest.class);
+
+	private final FeatureCorpus corpus = new FeatureCorpus().withFeatures(10)
+			.withScenarios(10)
+			.withSteps(5)
+			.withOutlineRows(5)
+			.withBackgroundSteps(2)
+			.withDataTable(5, 3)
+			.withDocStringLines(5)
+			.withEmbeddingSize(1024);
+
+	// stub only, so the mock does not keep every invocation in memory
+	private final ReportPortalClient client = mock(ReportPortalClient.class, withSettings().stubOnly());
+	private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+	private final AtomicLong itemStarts = new AtomicLong();
+	private final AtomicLong itemFinishes = new AtomicLong();
+	private final AtomicLong logBatches = new AtomicLong();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		when(client.startLaunch(any())).thenReturn(Maybe.just(new StartLaunchRS(CommonUtils.namedId("launch_"), 1L)));
+		when(client.startTestItem(any())).thenAnswer(i -> startItem());
+		when(client.startTestItem(anyString(), any())).thenAnswer(i -> startItem());
+		when(client.finishTestItem(anyString(), any())).thenAnswer(i -> {
+			itemFinishes.incrementAndGet();
+			return Maybe.just(new OperationCompletionRS());
+		});
+		when(client.log(any(List.class))).thenAnswer(i -> {
+			logBatches.incrementAndGet();
+			return Maybe.just(new BatchSaveOperatingRS());
+		});
+		when(client.finishLaunch(anyString(), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+
+		ListenerParameters parameters = TestUtils.standardParameters();
+		parameters.setBatchLogsSize(20);
+		ReportPortal reportPortal = ReportPortal.create(client, parameters, executorService);
+		TestScenarioReporter.RP.set(reportPortal);
+		TestStepReporter.RP.set(reportPortal);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		CommonUtils.shutdownExecutorService(executorService);
+	}
+
+	private Maybe<ItemCreatedRS> startItem() {
+		itemStarts.incrementAndGet();
+		String id = CommonUtils.namedId("item_");
+		return Maybe.just(new ItemCreatedRS(id, id));
+	}
+
+	private void runCorpus(Formatter reporter) {
+		List<SyntheticFeature> features = corpus.generate();
+		List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+				.stream()
+				.filter(p -> p.getType() == MemoryType.HEAP)
+				.collect(Collectors.toList());
+		heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		reporter.setEventPublisher(bus);
+		long start = System.nanoTime();
+		bus.send(new TestRunStarted(0L));
+		for (SyntheticFeature feature : features) {
+			bus.send(feature.getSourceReadEvent());
+			for (TestCase testCase : feature.getTestCases()) {
+				corpus.getEvents(testCase).forEach(bus::send);
+			}
+		}
+		bus.send(new TestRunFinished(0L));
+		long time = System.nanoTime() - start;
+
+		long heapPeak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+		int scenarios = corpus.getTestCaseCount();
+		LOGGER.info("{}: {} scenarios, {} steps, {} scenarios/sec, heap peak {} MiB",
+				reporter.getClass().getSimpleName(),
+				scenarios,
+				corpus.getStepCount(),
+				scenarios * TimeUnit.SECONDS.toNanos(1) / Math.max(time, 1L),
+				heapPeak / (1024 * 1024)
+		);
+	}
+
+	private void verifyCorpusReported() {
+		assertThat(itemStarts.get(), greaterThanOrEqualTo((long) corpus.getTestCaseCount() + corpus.getStepCount()));
+		assertThat(itemFinishes.get(), equalTo(itemStarts.get()));
+		assertThat(logBatches.get(), greaterThan(0L));
+	}
+
+	@Test
+	public void verify_corpus_throughput_scenario_reporter() {
+		runCorpus(new TestScenarioReporter());
+		verifyCorpusReported();
+	}
+
+	@Test
+	public void verify_corpus_throughput_step_reporter() {
+		runCorpus(new TestStepReporter());
+		verifyCorpusReported();
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.TestScenarioReporter;
+import com.epam.reportportal.cucumber.integration.util.FakeReportPortalServer;
+import com.epam.reportportal.cucumber.integration.util.FakeReportPortalServer.Endpoint;
+import com.epam.reportportal.cucumber.integration.util.FeatureCorpus;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.service.ReportPortal;
+import cucumber.api.TestCase;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FakeServerReportingTest {
+	private final FeatureCorpus corpus = new FeatureCorpus().withScenarios(3).withSteps(3).withEmbeddingSize(16);
+
+	private FakeReportPortalServer server;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		server = new FakeReportPortalServer();
+		TestScenarioReporter.RP.set(ReportPortal.builder().withParameters(server.getParameters()).build());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.close();
+	}
+
+	private void runCorpus() {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new TestScenarioReporter().setEventPublisher(bus);
+		bus.send(new TestRunStarted(0L));
+		for (SyntheticFeature feature : corpus.generate()) {
+			bus.send(feature.getSourceReadEvent());
+			for (TestCase testCase : feature.getTestCases()) {
+				corpus.getEvents(testCase).forEach(bus::send);
+			}
+		}
+		bus.send(new TestRunFinished(0L));
+	}
+
+	@Test
+	public void verify_reporter_works_with_slow_server() {
+		server.withLatency(20, 10).withThrottling(Endpoint.START_ITEM, 1);
+
+		runCorpus();
+
+		assertThat(server.getRequestCount(Endpoint.START_LAUNCH), equalTo(1L));
+		assertThat(server.getRequestCount(Endpoint.FINISH_LAUNCH), equalTo(1L));
+		assertThat(server.getRequestCount(Endpoint.START_ITEM), greaterThanOrEqualTo((long) corpus.getStepCount()));
+		assertThat(server.getRequestCount(Endpoint.FINISH_ITEM), equalTo(server.getRequestCount(Endpoint.START_ITEM)));
+		assertThat(server.getRequestCount(Endpoint.LOG), greaterThan(0L));
+	}
+
+	@Test
+	public void verify_reporter_finishes_launch_when_logs_fail() {
+		server.withErrors(Endpoint.LOG, 1.0, 503);
+
+		runCorpus();
+
+		assertThat(server.getErrorCount(Endpoint.LOG), greaterThan(0L));
+		assertThat(server.getRequestCount(Endpoint.FINISH_LAUNCH), equalTo(1L));
+		assertThat(server.getRequestCount(Endpoint.FINISH_ITEM), equalTo(server.getRequestCount(Endpoint.START_ITEM)));
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FinishRequestOverrideTest {
+	private static final String FEATURE = "Feature: Finish request feature\n\n" + "  Scenario: Failing scenario\n"
+			+ "    Given I have the first step\n" + "    Then I have the second step\n";
+
+	private final InMemorySink sink = new InMemorySink();
+	private final List<ItemStatus> built = new ArrayList<>();
+
+	@Test
+	public void verify_overridden_finish_request_is_used_for_scenarios_and_steps() {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkStepReporter(sink) {
+			@Nonnull
+			@Override
+			protected FinishTestItemRQ buildFinishTestItemRequest(@Nonnull Maybe<String> itemId, @Nullable Date finishTime,
+					@Nullable ItemStatus status) {
+				built.add(status);
+				return super.buildFinishTestItemRequest(itemId, finishTime, status);
+			}
+		}.setEventPublisher(bus);
+
+		SyntheticFeature feature = new SyntheticFeature("features/finish.feature", FEATURE);
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		SyntheticFeature.getEvents(feature.getTestCases().get(0), 0, new IllegalStateException("Step failed")).forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+
+		// failed step, skipped step, scenario and feature
+		assertThat(built, contains(ItemStatus.FAILED, ItemStatus.SKIPPED, ItemStatus.FAILED, null));
+
+		List<FinishTestItemRQ> finishes = sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.ITEM_FINISH)
+				.map(InMemorySink.Event::<FinishTestItemRQ>getRequest)
+				.collect(Collectors.toList());
+		assertThat(finishes.get(0).getDescription(), containsString("Step failed"));
+		assertThat(finishes.get(2).getDescription(), containsString("Step failed"));
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.reportportal.listeners.ItemStatus;
+import com.epam.reportportal.listeners.ItemType;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.CucumberOptions;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestStepFinished;
+import cucumber.api.event.WriteEvent;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.epam.reportportal.cucumber.integration.util.SinkReporters.events;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class HookGroupingTest {
+	@CucumberOptions(features = "src/test/resources/features/DummyScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.hooks" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkStepReporter" })
+	public static class HooksStepReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	@CucumberOptions(features = "src/test/resources/features/DummyScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.hooks" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter" })
+	public static class HooksScenarioReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final String FEATURE = "Feature: Hooks feature\n\n" + "  Scenario: Hooks scenario\n" + "    Given I have a step\n"
+			+ "    Then I have the last step\n";
+	private static final int BEFORE_HOOKS = 5;
+	private static final int AFTER_HOOKS = 2;
+	private static final String HOOK_LOG = "Hook log";
+
+	private final InMemorySink sink = new InMemorySink();
+	private final SyntheticFeature feature = new SyntheticFeature("features/hooks.feature", FEATURE, BEFORE_HOOKS, AFTER_HOOKS);
+	private final TestCase testCase = feature.getTestCases().get(0);
+
+	private static ReporterParameters parameters(boolean group, boolean elide) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setHooksGroup(group);
+		parameters.setHooksElide(elide);
+		return parameters;
+	}
+
+	private void run(SinkReporters.Type type, boolean group, boolean elide, List<Event> events) {
+		SinkReporters.run(type, sink, parameters(group, elide), feature, events);
+	}
+
+	private List<InMemorySink.Event> hookStarts() {
+		return events(sink, InMemorySink.EventType.ITEM_START).stream().filter(e -> {
+			String type = e.<StartTestItemRQ>getRequest().getType();
+			return ItemType.BEFORE_TEST.name().equals(type) || ItemType.AFTER_TEST.name().equals(type);
+		}).collect(Collectors.toList());
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_each_hook_is_reported_as_an_item_by_default(SinkReporters.Type type) {
+		run(type, false, false, SyntheticFeature.getPassedEvents(testCase));
+
+		assertThat(hookStarts(), hasSize(BEFORE_HOOKS + AFTER_HOOKS));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_consecutive_hooks_of_the_same_type_are_grouped(SinkReporters.Type type) {
+		run(type, true, false, SyntheticFeature.getPassedEvents(testCase));
+
+		List<InMemorySink.Event> hooks = hookStarts();
+		assertThat(hooks, hasSize(2));
+		assertThat(hooks.get(0).<StartTestItemRQ>getRequest().getType(), equalTo(ItemType.BEFORE_TEST.name()));
+		assertThat(hooks.get(1).<StartTestItemRQ>getRequest().getType(), equalTo(ItemType.AFTER_TEST.name()));
+		assertThat(events(sink, InMemorySink.EventType.LOG, hooks.get(0).getId()), hasSize(BEFORE_HOOKS));
+		assertThat(events(sink, InMemorySink.EventType.ITEM_FINISH, hooks.get(0).getId()), hasSize(1));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_silent_passed_hooks_are_not_reported(SinkReporters.Type type) {
+		run(type, true, true, SyntheticFeature.getPassedEvents(testCase));
+
+		assertThat(hookStarts(), empty());
+		assertThat(sink.getLogs(), equalTo(0L));
+		// feature, scenario and two steps
+		assertThat(sink.getItemStarts(), equalTo(4L + type.getRootItems()));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_hook_with_a_log_is_reported(SinkReporters.Type type) {
+		List<Event> events = new ArrayList<>(SyntheticFeature.getPassedEvents(testCase));
+		// right after the first before-hook started
+		events.add(2, new WriteEvent(0L, HOOK_LOG));
+		run(type, false, true, events);
+
+		List<InMemorySink.Event> hooks = hookStarts();
+		assertThat(hooks, hasSize(1));
+		List<InMemorySink.Event> logs = events(sink, InMemorySink.EventType.LOG, hooks.get(0).getId());
+		assertThat(logs, hasSize(1));
+		assertThat(logs.get(0).<SaveLogRQ>getRequest().getMessage(), equalTo(HOOK_LOG));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_failed_hook_group_is_reported_with_its_failure(SinkReporters.Type type) {
+		run(type, true, true, SyntheticFeature.getEvents(testCase, 1, new IllegalStateException("Hook failed")));
+
+		List<InMemorySink.Event> hooks = hookStarts();
+		assertThat(hooks, hasSize(1));
+		String hookId = hooks.get(0).getId();
+		assertThat(hooks.get(0).<StartTestItemRQ>getRequest().getType(), equalTo(ItemType.BEFORE_TEST.name()));
+		List<InMemorySink.Event> finishes = events(sink, InMemorySink.EventType.ITEM_FINISH, hookId);
+		assertThat(finishes, hasSize(1));
+		assertThat(finishes.get(0).<FinishTestItemRQ>getRequest().getStatus(), equalTo(ItemStatus.FAILED.name()));
+		List<String> logs = events(sink, InMemorySink.EventType.LOG, hookId).stream()
+				.map(e -> e.<SaveLogRQ>getRequest().getMessage())
+				.collect(Collectors.toList());
+		assertThat(logs, hasItem(containsString("Hook failed")));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_hook_group_keeps_skipped_status_of_an_earlier_hook(SinkReporters.Type type) {
+		List<Event> events = new ArrayList<>(SyntheticFeature.getPassedEvents(testCase));
+		// the first before-hook is undefined, the next ones pass
+		TestStepFinished firstHook = (TestStepFinished) events.get(2);
+		events.set(2, new TestStepFinished(0L, firstHook.testStep, new Result(Result.Type.UNDEFINED, 0L, null)));
+		run(type, true, true, events);
+
+		List<InMemorySink.Event> hooks = hookStarts();
+		assertThat(hooks, hasSize(1));
+		assertThat(hooks.get(0).<StartTestItemRQ>getRequest().getType(), equalTo(ItemType.BEFORE_TEST.name()));
+		List<InMemorySink.Event> finishes = events(sink, InMemorySink.EventType.ITEM_FINISH, hooks.get(0).getId());
+		assertThat(finishes, hasSize(1));
+		assertThat(finishes.get(0).<FinishTestItemRQ>getRequest().getStatus(), equalTo(ItemStatus.SKIPPED.name()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_passed_hooks_of_a_real_run_are_not_reported(SinkReporters.Type type) {
+		SinkReporters.runTests(sink,
+				parameters(true, true),
+				type == SinkReporters.Type.STEP ? HooksStepReporter.class : HooksScenarioReporter.class
+		);
+
+		assertThat(hookStarts(), empty());
+		// feature, scenario and two steps
+		assertThat(sink.getItemStarts(), equalTo(4L + type.getRootItems()));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+}
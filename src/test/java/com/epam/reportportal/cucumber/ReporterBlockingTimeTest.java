@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.FakeReportPortalServer;
+import com.epam.reportportal.cucumber.integration.util.FeatureCorpus;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.service.ReportPortal;
+import cucumber.api.TestCase;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Verifies that a slow server does not stretch test execution: the time test threads spend inside reporter event
+ * handlers should fit into a per step budget. For that budget a warm-up launch is run before the measurement, so class
+ * loading, JIT compilation and client initialization are not measured, and the launch start is excluded. The launch
+ * start and the first scenario on a fresh client are a one-time cost, which is checked separately against the longest
+ * handler budget. The launch finish is not measured: it waits for all requests to complete by design.
+ * <p>
+ * The result depends on the machine, so the test is tagged as performance and runs with the 'performanceTest' task.
+ */
+@Tag("performance")
+public class ReporterBlockingTimeTest {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReporterBlockingTimeTest.class);
+
+	private static final String BUDGET_PROPERTY = "rp.test.blocking.budget";
+	private static final String HANDLER_BUDGET_PROPERTY = "rp.test.blocking.handler.budget";
+	private static final long SERVER_LATENCY = 100;
+
+	private final long budgetPerStep = TimeUnit.MILLISECONDS.toNanos(Long.getLong(BUDGET_PROPERTY, 10L));
+	private final long handlerBudget = TimeUnit.MILLISECONDS.toNanos(Long.getLong(HANDLER_BUDGET_PROPERTY, 200L));
+	private final FeatureCorpus warmUpCorpus = new FeatureCorpus().withFeatures(1)
+			.withScenarios(4)
+			.withSteps(4)
+			.withDocStringLines(3)
+			.withEmbeddingSize(256);
+	private final FeatureCorpus corpus = new FeatureCorpus().withFeatures(4)
+			.withScenarios(6)
+			.withSteps(5)
+			.withDocStringLines(3)
+			.withEmbeddingSize(256);
+
+	private FakeReportPortalServer server;
+	private ReportPortal reportPortal;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		server = new FakeReportPortalServer().withLatency(SERVER_LATENCY, SERVER_LATENCY / 2);
+		reportPortal = ReportPortal.builder().withParameters(server.getParameters()).build();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.close();
+	}
+
+	private long send(EventBus bus, Event event) {
+		long start = System.nanoTime();
+		bus.send(event);
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Runs a corpus through a new reporter
+	 *
+	 * @return time in nanoseconds spent in feature and test case event handlers, and the longest handler time including
+	 * the launch start
+	 */
+	private long[] run(FeatureCorpus features) {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new ScenarioReporter() {
+			@Override
+			protected ReportPortal buildReportPortal() {
+				return reportPortal;
+			}
+		}.setEventPublisher(bus);
+
+		long maxBlocked = send(bus, new TestRunStarted(0L));
+		long blocked = 0;
+		for (SyntheticFeature feature : features.generate()) {
+			long sourceTime = send(bus, feature.getSourceReadEvent());
+			blocked += sourceTime;
+			maxBlocked = Math.max(maxBlocked, sourceTime);
+			for (TestCase testCase : feature.getTestCases()) {
+				for (Event event : features.getEvents(testCase)) {
+					long time = send(bus, event);
+					blocked += time;
+					maxBlocked = Math.max(maxBlocked, time);
+				}
+			}
+		}
+		bus.send(new TestRunFinished(0L));
+		return new long[] { blocked, maxBlocked };
+	}
+
+	@Test
+	public void verify_test_threads_are_not_blocked_by_slow_server() {
+		run(warmUpCorpus);
+		long[] result = run(corpus);
+		long blocked = result[0];
+
+		long steps = corpus.getStepCount();
+		LOGGER.info("Test threads spent {} ms in reporter for {} steps, {} us per step, the longest handler took {} ms",
+				TimeUnit.NANOSECONDS.toMillis(blocked),
+				steps,
+				TimeUnit.NANOSECONDS.toMicros(blocked / steps),
+				TimeUnit.NANOSECONDS.toMillis(result[1])
+		);
+		assertThat(blocked / steps, lessThanOrEqualTo(budgetPerStep));
+	}
+
+	@Test
+	public void verify_launch_start_on_fresh_client_does_not_block_test_threads() {
+		// no warm-up: the launch start and the first scenario include the client and the launch initialization
+		long[] result = run(corpus);
+
+		LOGGER.info("The longest reporter handler on a fresh client took {} ms", TimeUnit.NANOSECONDS.toMillis(result[1]));
+		assertThat(result[1], lessThanOrEqualTo(handlerBudget));
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.TestCase;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ScenarioStepsAsLogsTest {
+	private static final String FEATURE = "Feature: Steps as logs\n\n" + "  Scenario: Steps as logs scenario\n" + "    Given I have a step\n"
+			+ "    When I have a data table\n" + "      | key   | value   |\n" + "      | myKey | myValue |\n"
+			+ "    Then I have a failed step\n" + "    And I have a skipped step\n";
+
+	private final InMemorySink sink = new InMemorySink();
+
+	private void run() {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setScenarioStepsAsLogs(true);
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkScenarioReporter(sink) {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				return parameters;
+			}
+		}.setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/steps-as-logs.feature", FEATURE);
+		TestCase testCase = feature.getTestCases().get(0);
+
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		SyntheticFeature.getEvents(testCase, 2, new IllegalStateException("Step failed")).forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+	}
+
+	private List<SaveLogRQ> logs() {
+		return sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG)
+				.map(InMemorySink.Event::<SaveLogRQ>getRequest)
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void verify_steps_are_not_reported_as_items() {
+		run();
+
+		List<String> items = sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.ITEM_START)
+				.map(e -> e.<StartTestItemRQ>getRequest().getName())
+				.collect(Collectors.toList());
+		assertThat(items, hasSize(3));
+		assertThat(items.get(2), equalTo("Scenario: Steps as logs scenario"));
+		assertThat(sink.getItemFinishes(), equalTo(3L));
+	}
+
+	@Test
+	public void verify_each_step_is_reported_as_a_single_log() {
+		run();
+
+		List<SaveLogRQ> logs = logs();
+		String scenarioId = sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.ITEM_START)
+				.reduce((first, second) -> second)
+				.map(InMemorySink.Event::getId)
+				.orElse(null);
+		sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG)
+				.forEach(e -> assertThat(e.getId(), equalTo(scenarioId)));
+
+		// four step logs and the failure stack trace
+		assertThat(logs, hasSize(5));
+		assertThat(logs.get(0).getMessage(), startsWith("Given I have a step\nStatus: PASSED, duration: "));
+		assertThat(logs.get(0).getLevel(), equalTo("INFO"));
+
+		assertThat(logs.get(1).getMessage(), startsWith("When I have a data table\nStatus: PASSED"));
+		assertThat(logs.get(1).getMessage(), allOf(containsString("myKey"), containsString("myValue")));
+
+		assertThat(logs.get(2).getMessage(), startsWith("Then I have a failed step\nStatus: FAILED"));
+		assertThat(logs.get(2).getLevel(), equalTo("ERROR"));
+		assertThat(logs.get(3).getMessage(), containsString("Step failed"));
+		assertThat(logs.get(3).getLevel(), equalTo("ERROR"));
+
+		assertThat(logs.get(4).getMessage(), startsWith("And I have a skipped step\nStatus: SKIPPED"));
+	}
+}
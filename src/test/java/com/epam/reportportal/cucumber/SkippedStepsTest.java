@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import cucumber.api.CucumberOptions;
+import cucumber.api.event.Event;
+import cucumber.api.testng.AbstractTestNGCucumberTests;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+
+import static com.epam.reportportal.cucumber.integration.util.SinkReporters.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SkippedStepsTest {
+	@CucumberOptions(features = "src/test/resources/features/SkippedStepsScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkStepReporter" })
+	public static class SkippedStepReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	@CucumberOptions(features = "src/test/resources/features/SkippedStepsScenario.feature", glue = {
+			"com.epam.reportportal.cucumber.integration.feature" }, plugin = { "pretty",
+			"com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter" })
+	public static class SkippedScenarioReporter extends AbstractTestNGCucumberTests {
+
+	}
+
+	private static final String FEATURE = "Feature: Skipped steps feature\n\n" + "  Scenario: Failing scenario\n"
+			+ "    Given I have the first step\n" + "    When I have the second step\n" + "    And I have the third step\n"
+			+ "    Then I have the fourth step\n";
+
+	private final InMemorySink sink = new InMemorySink();
+
+	private static ReporterParameters parameters(SkippedStepsMode mode) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setSkippedMode(mode);
+		return parameters;
+	}
+
+	private void run(SinkReporters.Type type, SkippedStepsMode mode, List<Event> events, SyntheticFeature feature) {
+		SinkReporters.run(type, sink, parameters(mode), feature, events);
+	}
+
+	private void runFailedFirstStep(SinkReporters.Type type, SkippedStepsMode mode) {
+		SyntheticFeature feature = new SyntheticFeature("features/skipped.feature", FEATURE);
+		run(type, mode, SyntheticFeature.getEvents(feature.getTestCases().get(0), 0, new IllegalStateException("Step failed")), feature);
+	}
+
+	private FinishTestItemRQ finishOf(InMemorySink.Event start) {
+		return events(sink, InMemorySink.EventType.ITEM_FINISH, start.getId()).stream()
+				.findFirst()
+				.map(InMemorySink.Event::<FinishTestItemRQ>getRequest)
+				.orElse(null);
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_skipped_steps_are_reported_as_items_by_default(SinkReporters.Type type) {
+		runFailedFirstStep(type, SkippedStepsMode.STEPS);
+
+		// feature, scenario, failed step and three skipped steps
+		assertThat(itemStarts(sink), hasSize(6 + type.getRootItems()));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_skipped_steps_are_reported_as_one_item(SinkReporters.Type type) {
+		runFailedFirstStep(type, SkippedStepsMode.ITEM);
+
+		List<InMemorySink.Event> starts = events(sink, InMemorySink.EventType.ITEM_START);
+		assertThat(starts, hasSize(4 + type.getRootItems()));
+		assertThat(sink.getItemFinishes(), equalTo(4L + type.getRootItems()));
+		InMemorySink.Event skippedItem = starts.get(3 + type.getRootItems());
+		StartTestItemRQ skipped = skippedItem.getRequest();
+		assertThat(skipped.getName(), equalTo("Skipped steps"));
+		assertThat(skipped.getDescription(),
+				equalTo("When I have the second step\nAnd I have the third step\nThen I have the fourth step")
+		);
+
+		FinishTestItemRQ finish = finishOf(skippedItem);
+		assertThat(finish, notNullValue());
+		assertThat(finish.getStatus(), equalTo("SKIPPED"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_skipped_steps_are_reported_as_one_log(SinkReporters.Type type) {
+		runFailedFirstStep(type, SkippedStepsMode.LOG);
+
+		// feature, scenario and the failed step
+		assertThat(itemStarts(sink), hasSize(3 + type.getRootItems()));
+		List<String> logs = logs(sink);
+		assertThat(logs, hasItem(containsString("Step failed")));
+		assertThat(logs, hasItem(equalTo(
+				"Skipped steps:\nWhen I have the second step\nAnd I have the third step\nThen I have the fourth step")));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_steps_skipped_after_failed_before_hook_are_collapsed(SinkReporters.Type type) {
+		SyntheticFeature feature = new SyntheticFeature("features/skipped.feature", FEATURE, 1, 0);
+		run(type,
+				SkippedStepsMode.ITEM,
+				SyntheticFeature.getEvents(feature.getTestCases().get(0), 0, new IllegalStateException("Hook failed")),
+				feature
+		);
+
+		List<StartTestItemRQ> items = itemStarts(sink);
+		// feature, scenario, the hook and all four steps as one item
+		assertThat(items, hasSize(4 + type.getRootItems()));
+		assertThat(items.get(3 + type.getRootItems()).getDescription(), startsWith("Given I have the first step\n"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(SinkReporters.Type.class)
+	public void verify_skipped_steps_of_a_real_run_are_reported_as_one_item(SinkReporters.Type type) {
+		SinkReporters.runTests(sink,
+				parameters(SkippedStepsMode.ITEM),
+				type == SinkReporters.Type.STEP ? SkippedStepReporter.class : SkippedScenarioReporter.class
+		);
+
+		List<InMemorySink.Event> starts = events(sink, InMemorySink.EventType.ITEM_START);
+		// feature, scenario, the failed step and both skipped steps as one item
+		assertThat(starts, hasSize(4 + type.getRootItems()));
+		InMemorySink.Event skippedItem = starts.get(3 + type.getRootItems());
+		StartTestItemRQ skipped = skippedItem.getRequest();
+		assertThat(skipped.getName(), equalTo("Skipped steps"));
+		assertThat(skipped.getDescription(), equalTo("When I have empty step\nThen I have another empty step"));
+		assertThat(finishOf(skippedItem).getStatus(), equalTo("SKIPPED"));
+		assertThat(sink.getItemFinishes(), equalTo(sink.getItemStarts()));
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class InFlightWindowTest {
+
+	@Test
+	public void verify_window_limits_requests_and_bytes() {
+		InFlightWindow window = new InFlightWindow(2, 100, BackpressurePolicy.DROP_LOGS, 0);
+
+		assertThat(window.acquireLog(60), equalTo(true));
+		assertThat(window.acquireLog(60), equalTo(false));
+		assertThat(window.acquireLog(40), equalTo(true));
+		assertThat(window.acquireLog(1), equalTo(false));
+		assertThat(window.getRequests(), equalTo(2));
+		assertThat(window.getBytes(), equalTo(100L));
+
+		window.release(60);
+		assertThat(window.getRequests(), equalTo(1));
+		assertThat(window.getBytes(), equalTo(40L));
+		assertThat(window.getPeakRequests(), equalTo(2));
+		assertThat(window.getPeakBytes(), equalTo(100L));
+	}
+
+	@Test
+	public void verify_oversize_request_passes_empty_window() {
+		InFlightWindow window = new InFlightWindow(10, 100, BackpressurePolicy.DROP_LOGS, 0);
+
+		assertThat(window.acquireLog(1000), equalTo(true));
+	}
+
+	@Test
+	public void verify_items_are_never_rejected_by_non_blocking_policies() {
+		InFlightWindow window = new InFlightWindow(1, 0, BackpressurePolicy.SPILL, 0);
+
+		window.acquireItem(10);
+		window.acquireItem(10);
+
+		assertThat(window.getRequests(), equalTo(2));
+	}
+
+	@Test
+	public void verify_blocking_policy_waits_for_release() throws Exception {
+		InFlightWindow window = new InFlightWindow(1, 0, BackpressurePolicy.BLOCK, 0);
+		window.acquireItem(10);
+
+		CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> window.acquireItem(10));
+		Thread.sleep(200);
+		assertThat(blocked.isDone(), equalTo(false));
+
+		window.release(10);
+		blocked.get(5, TimeUnit.SECONDS);
+		assertThat(window.getRequests(), equalTo(1));
+		assertThat(window.getBlockedNanos(), greaterThan(0L));
+	}
+
+	@Test
+	public void verify_blocking_policy_gives_up_after_timeout() {
+		InFlightWindow window = new InFlightWindow(1, 0, BackpressurePolicy.BLOCK, 100);
+		window.acquireItem(10);
+
+		window.acquireItem(10);
+
+		assertThat(window.getRequests(), equalTo(2));
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.backpressure;
+
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LogSpillTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void verify_logs_are_read_back_in_order() throws IOException {
+		SaveLogRQ.File file = new SaveLogRQ.File();
+		file.setName("attachment");
+		file.setContentType("text/plain");
+		file.setContent("attachment content".getBytes(StandardCharsets.UTF_8));
+		Date time = new Date();
+		Maybe<String> firstItem = Maybe.just("first item");
+		Maybe<String> secondItem = Maybe.just("second item");
+
+		try (LogSpill spill = new LogSpill(directory)) {
+			spill.write(firstItem, "INFO", time, "first log", null);
+			spill.write(secondItem, "ERROR", time, "second log", file);
+			assertThat(spill.size(), equalTo(2));
+
+			LogSpill.SpilledLog first = spill.poll();
+			assertThat(first, notNullValue());
+			assertThat(first.getItemId(), sameInstance(firstItem));
+			assertThat(first.getRequest().getMessage(), equalTo("first log"));
+			assertThat(first.getRequest().getLevel(), equalTo("INFO"));
+			assertThat(first.getRequest().getFile(), nullValue());
+
+			LogSpill.SpilledLog second = spill.poll();
+			assertThat(second, notNullValue());
+			assertThat(second.getItemId(), sameInstance(secondItem));
+			assertThat(second.getRequest().getMessage(), equalTo("second log"));
+			assertThat(second.getRequest().getLogTime(), equalTo(time));
+			assertThat(new String(second.getRequest().getFile().getContent(), StandardCharsets.UTF_8), equalTo("attachment content"));
+			assertThat(second.getRequest().getFile().getContentType(), equalTo("text/plain"));
+
+			assertThat(spill.poll(), nullValue());
+			assertThat(Files.size(spill.getPath()), equalTo(0L));
+		}
+	}
+
+	@Test
+	public void verify_spill_file_deleted_on_close() throws IOException {
+		LogSpill spill = new LogSpill(directory);
+		spill.write(Maybe.just("item"), "INFO", new Date(), "log", null);
+		Path path = spill.getPath();
+
+		spill.close();
+
+		assertThat(Files.exists(path), equalTo(false));
+	}
+}
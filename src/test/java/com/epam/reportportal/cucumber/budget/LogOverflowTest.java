@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.budget;
+
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.event.*;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LogOverflowTest {
+	private static final String FEATURE = "Feature: Chatty feature\n\n" + "  Scenario: Chatty scenario\n" + "    Given I have a chatty step\n"
+			+ "    Then I have a quiet step\n";
+
+	private static List<String> entries(byte[] archive) throws IOException {
+		List<String> result = new ArrayList<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				for (int read = zip.read(buffer); read >= 0; read = zip.read(buffer)) {
+					content.write(buffer, 0, read);
+				}
+				result.add(entry.getName() + ":" + new String(content.toByteArray(), StandardCharsets.UTF_8));
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void verify_logs_are_accepted_within_count_limit() {
+		LogOverflow overflow = new LogOverflow(2, 0);
+		assertThat(overflow.accept(100), equalTo(true));
+		assertThat(overflow.accept(100), equalTo(true));
+		assertThat(overflow.accept(1), equalTo(false));
+		assertThat(overflow.isOverflown(), equalTo(false));
+	}
+
+	@Test
+	public void verify_logs_are_accepted_within_byte_limit() {
+		LogOverflow overflow = new LogOverflow(0, 150);
+		assertThat(overflow.accept(100), equalTo(true));
+		assertThat(overflow.accept(100), equalTo(false));
+	}
+
+	@Test
+	public void verify_no_logs_are_accepted_after_overflow() throws IOException {
+		LogOverflow overflow = new LogOverflow(0, 150);
+		assertThat(overflow.accept(100), equalTo(true));
+		assertThat(overflow.accept(100), equalTo(false));
+		overflow.divert(100, "INFO", new Date(), "big", null);
+		assertThat(overflow.accept(10), equalTo(false));
+	}
+
+	@Test
+	public void verify_diverted_logs_keep_order_in_archive() throws IOException {
+		LogOverflow overflow = new LogOverflow(1, 0);
+		overflow.divert(10, "INFO", new Date(), "first", null);
+		SaveLogRQ.File file = new SaveLogRQ.File();
+		file.setName("screenshot.png");
+		file.setContent(new byte[] { 'p', 'n', 'g' });
+		overflow.divert(20, "UNKNOWN", new Date(), "attachment", file);
+		overflow.divert(30, "WARN", new Date(), "last", null);
+
+		assertThat(overflow.isOverflown(), equalTo(true));
+		assertThat(overflow.getDivertedLogs(), equalTo(3));
+		assertThat(overflow.getDivertedBytes(), equalTo(60L));
+
+		List<String> entries = entries(overflow.finish());
+		assertThat(entries, hasSize(3));
+		assertThat(entries.get(0), allOf(startsWith("00001.log:"), containsString("INFO  first\n"), containsString("attachment\n")));
+		assertThat(entries.get(1), equalTo("00002-screenshot.png:png"));
+		assertThat(entries.get(2), allOf(startsWith("00003.log:"), containsString("WARN  last\n")));
+	}
+
+	@Test
+	public void verify_item_logs_over_limit_are_reported_as_one_attachment() throws IOException {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setItemLogLimit(3);
+		InMemorySink sink = new InMemorySink();
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkStepReporter(sink) {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				return parameters;
+			}
+		}.setEventPublisher(bus);
+
+		SyntheticFeature feature = new SyntheticFeature("features/chatty.feature", FEATURE);
+		List<Event> events = new ArrayList<>();
+		for (Event event : SyntheticFeature.getPassedEvents(feature.getTestCases().get(0))) {
+			events.add(event);
+			if (event instanceof TestStepStarted && events.size() == 2) {
+				for (int i = 0; i < 10; i++) {
+					events.add(new WriteEvent(0L, "line " + i));
+				}
+			}
+		}
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		events.forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+
+		List<SaveLogRQ> logs = sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG)
+				.map(InMemorySink.Event::<SaveLogRQ>getRequest)
+				.collect(Collectors.toList());
+		assertThat(logs, hasSize(4));
+		assertThat(logs.subList(0, 3).stream().map(SaveLogRQ::getMessage).collect(Collectors.toList()),
+				contains("line 0", "line 1", "line 2")
+		);
+		SaveLogRQ marker = logs.get(3);
+		assertThat(marker.getMessage(), startsWith("7 log entries"));
+		assertThat(marker.getFile(), notNullValue());
+		assertThat(marker.getFile().getName(), equalTo(LogOverflow.ATTACHMENT_NAME));
+		List<String> entries = entries(marker.getFile().getContent());
+		assertThat(entries, hasSize(1));
+		assertThat(entries.get(0), allOf(containsString("line 3\n"), containsString("line 9\n")));
+	}
+}
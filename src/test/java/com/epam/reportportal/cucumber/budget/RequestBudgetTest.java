@@ -0,0 +1,163 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.budget;
+
+import com.epam.reportportal.cucumber.AbstractReporter;
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.event.*;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RequestBudgetTest {
+	private static final String FEATURE = "Feature: Budget feature\n\n" + "  Scenario: Budget scenario\n" + "    Given I have step one\n"
+			+ "    And I have step two\n" + "    And I have step three\n" + "    And I have step four\n" + "    And I have step five\n"
+			+ "    Then I have the last step\n";
+	private static final String WRITE_MESSAGE = "waiting for element...";
+
+	private static AbstractReporter reporter(InMemorySink sink, ReporterParameters parameters) {
+		return new SinkReporters.SinkStepReporter(sink) {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				return parameters;
+			}
+		};
+	}
+
+	private static void run(AbstractReporter reporter) {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		reporter.setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/budget.feature", FEATURE);
+		List<Event> events = new ArrayList<>();
+		for (Event event : SyntheticFeature.getPassedEvents(feature.getTestCases().get(0))) {
+			events.add(event);
+			if (event instanceof TestStepStarted) {
+				events.add(new WriteEvent(0L, WRITE_MESSAGE));
+			}
+		}
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		events.forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+	}
+
+	private static List<String> logMessages(InMemorySink sink) {
+		return sink.getEvents()
+				.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.LOG)
+				.map(e -> e.<SaveLogRQ>getRequest().getMessage())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void verify_launch_budget_degrades_reporting_once_exceeded() {
+		RequestBudget budget = new RequestBudget(3, 0, 0, Degradation.DROP_INFO_LOGS);
+		budget.onRequest(10);
+		budget.onRequest(10);
+		budget.onRequest(10);
+		assertThat(budget.getDegradation(0), equalTo(Degradation.NONE));
+
+		budget.onRequest(10);
+		assertThat(budget.isLaunchExceeded(), equalTo(true));
+		assertThat(budget.getDegradation(0), equalTo(Degradation.DROP_INFO_LOGS));
+		assertThat(budget.getRequests(), equalTo(4L));
+		assertThat(budget.getBytes(), equalTo(40L));
+	}
+
+	@Test
+	public void verify_launch_byte_budget_degrades_reporting_once_exceeded() {
+		RequestBudget budget = new RequestBudget(0, 1024, 0, Degradation.FAILURES_ONLY);
+		budget.onRequest(1024);
+		assertThat(budget.getDegradation(0), equalTo(Degradation.NONE));
+		budget.onRequest(1);
+		assertThat(budget.getDegradation(0), equalTo(Degradation.FAILURES_ONLY));
+	}
+
+	@Test
+	public void verify_scenario_budget_does_not_affect_other_scenarios() {
+		RequestBudget budget = new RequestBudget(0, 0, 5, Degradation.STEPS_AS_LOGS);
+		assertThat(budget.getDegradation(4), equalTo(Degradation.NONE));
+		assertThat(budget.getDegradation(5), equalTo(Degradation.STEPS_AS_LOGS));
+		assertThat(budget.isLaunchExceeded(), equalTo(false));
+		assertThat(budget.getDegradation(0), equalTo(Degradation.NONE));
+	}
+
+	@Test
+	public void verify_unlimited_budget_only_counts_requests() {
+		RequestBudget budget = RequestBudget.unlimited();
+		for (int i = 0; i < 1000; i++) {
+			budget.onRequest(100);
+		}
+		assertThat(budget.isLimited(), equalTo(false));
+		assertThat(budget.getDegradation(1000), equalTo(Degradation.NONE));
+		assertThat(budget.getRequests(), equalTo(1000L));
+	}
+
+	@Test
+	public void verify_reporter_reports_steps_as_logs_after_scenario_budget_exceeded() {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setBudgetScenarioRequests(5);
+		parameters.setBudgetDegradation(Degradation.STEPS_AS_LOGS);
+		InMemorySink sink = new InMemorySink();
+		AbstractReporter reporter = reporter(sink, parameters);
+
+		run(reporter);
+
+		// feature, scenario and two steps which fit into the budget
+		assertThat(sink.getItemStarts(), equalTo(4L));
+		assertThat(sink.getItemFinishes(), equalTo(4L));
+		List<String> logs = logMessages(sink);
+		// the second step's log is the sixth request of the scenario
+		assertThat(logs.stream().filter(WRITE_MESSAGE::equals).count(), equalTo(1L));
+		List<String> stepLogs = logs.stream().filter(m -> m.contains("Status: PASSED")).collect(Collectors.toList());
+		assertThat(stepLogs, hasSize(4));
+		assertThat(stepLogs.get(0), containsString("I have step three"));
+
+		RequestBudget budget = reporter.getRequestBudget();
+		assertThat(budget.getDegradedScenarios(), equalTo(1L));
+		assertThat(budget.getCollapsedSteps(), equalTo(4L));
+		assertThat(budget.getDroppedLogs(), equalTo(5L));
+	}
+
+	@Test
+	public void verify_reporter_skips_passed_steps_after_launch_budget_exceeded() {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setBudgetLaunchRequests(3);
+		parameters.setBudgetDegradation(Degradation.FAILURES_ONLY);
+		InMemorySink sink = new InMemorySink();
+		AbstractReporter reporter = reporter(sink, parameters);
+
+		run(reporter);
+
+		// feature, scenario and the first step, which is started before the budget is exceeded
+		assertThat(sink.getItemStarts(), equalTo(3L));
+		assertThat(sink.getItemFinishes(), equalTo(3L));
+		assertThat(logMessages(sink), contains(WRITE_MESSAGE));
+		assertThat(reporter.getRequestBudget().isLaunchExceeded(), equalTo(true));
+	}
+}
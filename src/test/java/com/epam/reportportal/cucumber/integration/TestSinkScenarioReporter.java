@@ -0,0 +1,29 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+
+/**
+ * A {@link SinkReporters.SinkScenarioReporter} for Cucumber plugin options, which reports to {@link SinkReporters#SINK} with
+ * {@link SinkReporters#PARAMETERS}
+ */
+public class TestSinkScenarioReporter extends SinkReporters.SinkScenarioReporter {
+	public TestSinkScenarioReporter() {
+		super(SinkReporters.SINK.get(), SinkReporters.PARAMETERS.get());
+	}
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-process HTTP stand-in of ReportPortal server, which implements launch, item and log endpoints used by the agent.
+ * Each endpoint can be slowed down with latency and jitter, throttled to a number of concurrently processed requests and
+ * made to fail with server errors, so reporters can be tested against a slow or degraded server.
+ */
+public class FakeReportPortalServer implements Closeable {
+	private static final Pattern START_LAUNCH = Pattern.compile(".*/launch/?");
+	private static final Pattern FINISH_LAUNCH = Pattern.compile(".*/launch/[^/]+/finish/?");
+	private static final Pattern START_ITEM = Pattern.compile(".*/item(/[^/]+)?/?");
+	private static final Pattern FINISH_ITEM = Pattern.compile(".*/item/[^/]+/?");
+	private static final Pattern LOG = Pattern.compile(".*/log/?");
+
+	private static final String ITEM_CREATED = "{\"id\":\"%1$s\",\"uniqueId\":\"%1$s\"}";
+	private static final String LAUNCH_STARTED = "{\"id\":\"%s\",\"number\":1}";
+	private static final String OPERATION_COMPLETED = "{\"message\":\"OK\"}";
+	private static final String LOGS_SAVED = "{\"responses\":[]}";
+	private static final String ERROR = "{\"errorCode\":5000,\"message\":\"Injected error\"}";
+
+	public enum Endpoint {
+		START_LAUNCH,
+		FINISH_LAUNCH,
+		START_ITEM,
+		FINISH_ITEM,
+		LOG
+	}
+
+	private static class Behavior {
+		private volatile long latency;
+		private volatile long jitter;
+		private volatile double errorRate;
+		private volatile int errorStatus = 500;
+		private volatile Semaphore throttle;
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+	}
+
+	private final Map<Endpoint, Behavior> behaviors = new EnumMap<>(Endpoint.class);
+	private final Random random = new Random(42);
+	private final AtomicLong receivedBytes = new AtomicLong();
+	private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "fake-rp-server");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final HttpServer server;
+
+	/**
+	 * Starts the server on a free port of the loopback interface.
+	 *
+	 * @throws IOException if the server is unable to bind
+	 */
+	public FakeReportPortalServer() throws IOException {
+		for (Endpoint endpoint : Endpoint.values()) {
+			behaviors.put(endpoint, new Behavior());
+		}
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	public String getBaseUrl() {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+	}
+
+	/**
+	 * @return standard test parameters pointing to the server
+	 */
+	public ListenerParameters getParameters() {
+		ListenerParameters parameters = TestUtils.standardParameters();
+		parameters.setBaseUrl(getBaseUrl());
+		parameters.setApiKey("test_api_key");
+		return parameters;
+	}
+
+	/**
+	 * Sets response latency of all endpoints.
+	 *
+	 * @param latency latency in milliseconds
+	 * @param jitter  maximum random addition to the latency in milliseconds
+	 * @return the server
+	 */
+	public FakeReportPortalServer withLatency(long latency, long jitter) {
+		for (Endpoint endpoint : Endpoint.values()) {
+			withLatency(endpoint, latency, jitter);
+		}
+		return this;
+	}
+
+	/**
+	 * Sets response latency of an endpoint.
+	 *
+	 * @param endpoint an endpoint to slow down
+	 * @param latency  latency in milliseconds
+	 * @param jitter   maximum random addition to the latency in milliseconds
+	 * @return the server
+	 */
+	public FakeReportPortalServer withLatency(Endpoint endpoint, long latency, long jitter) {
+		Behavior behavior = behaviors.get(endpoint);
+		behavior.latency = latency;
+		behavior.jitter = jitter;
+		return this;
+	}
+
+	/**
+	 * Limits number of requests to an endpoint processed at the same time, the rest wait in a queue.
+	 *
+	 * @param endpoint           an endpoint to throttle
+	 * @param concurrentRequests maximum number of requests processed at the same time, zero or negative means no limit
+	 * @return the server
+	 */
+	public FakeReportPortalServer withThrottling(Endpoint endpoint, int concurrentRequests) {
+		behaviors.get(endpoint).throttle = concurrentRequests > 0 ? new Semaphore(concurrentRequests, true) : null;
+		return this;
+	}
+
+	/**
+	 * Makes an endpoint fail a part of requests with a server error.
+	 *
+	 * @param endpoint  an endpoint to fail
+	 * @param errorRate a part of requests to fail, from 0 to 1
+	 * @param status    HTTP status code of failed responses
+	 * @return the server
+	 */
+	public FakeReportPortalServer withErrors(Endpoint endpoint, double errorRate, int status) {
+		Behavior behavior = behaviors.get(endpoint);
+		behavior.errorRate = errorRate;
+		behavior.errorStatus = status;
+		return this;
+	}
+
+	public long getRequestCount(Endpoint endpoint) {
+		return behaviors.get(endpoint).requests.get();
+	}
+
+	public long getErrorCount(Endpoint endpoint) {
+		return behaviors.get(endpoint).errors.get();
+	}
+
+	public long getReceivedBytes() {
+		return receivedBytes.get();
+	}
+
+	private static Endpoint resolve(String method, String path) {
+		if ("POST".equals(method)) {
+			if (START_LAUNCH.matcher(path).matches()) {
+				return Endpoint.START_LAUNCH;
+			}
+			if (LOG.matcher(path).matches()) {
+				return Endpoint.LOG;
+			}
+			if (START_ITEM.matcher(path).matches()) {
+				return Endpoint.START_ITEM;
+			}
+		} else if ("PUT".equals(method)) {
+			if (FINISH_LAUNCH.matcher(path).matches()) {
+				return Endpoint.FINISH_LAUNCH;
+			}
+			if (FINISH_ITEM.matcher(path).matches()) {
+				return Endpoint.FINISH_ITEM;
+			}
+		}
+		return null;
+	}
+
+	private static String response(Endpoint endpoint) {
+		switch (endpoint) {
+			case START_LAUNCH:
+				return String.format(LAUNCH_STARTED, UUID.randomUUID());
+			case START_ITEM:
+				return String.format(ITEM_CREATED, UUID.randomUUID());
+			case LOG:
+				return LOGS_SAVED;
+			default:
+				return OPERATION_COMPLETED;
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			receivedBytes.addAndGet(drain(exchange.getRequestBody()));
+			Endpoint endpoint = resolve(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+			if (endpoint == null) {
+				send(exchange, 404, ERROR);
+				return;
+			}
+			Behavior behavior = behaviors.get(endpoint);
+			behavior.requests.incrementAndGet();
+			Semaphore throttle = behavior.throttle;
+			if (throttle != null) {
+				throttle.acquireUninterruptibly();
+			}
+			try {
+				delay(behavior);
+				if (behavior.errorRate > 0 && nextDouble() < behavior.errorRate) {
+					behavior.errors.incrementAndGet();
+					send(exchange, behavior.errorStatus, ERROR);
+				} else {
+					send(exchange, 200, response(endpoint));
+				}
+			} finally {
+				if (throttle != null) {
+					throttle.release();
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void delay(Behavior behavior) {
+		long time = behavior.latency;
+		long jitter = behavior.jitter;
+		if (jitter > 0) {
+			synchronized (random) {
+				time += (long) (random.nextDouble() * jitter);
+			}
+		}
+		if (time > 0) {
+			try {
+				Thread.sleep(time);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private double nextDouble() {
+		synchronized (random) {
+			return random.nextDouble();
+		}
+	}
+
+	private static long drain(InputStream body) throws IOException {
+		byte[] buffer = new byte[8192];
+		long total = 0;
+		int read;
+		while ((read = body.read(buffer)) >= 0) {
+			total += read;
+		}
+		return total;
+	}
+
+	private static void send(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(bytes);
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
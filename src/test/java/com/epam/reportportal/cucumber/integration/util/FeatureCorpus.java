@@ -0,0 +1,193 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import cucumber.api.TestCase;
+import cucumber.api.event.EmbedEvent;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestStepStarted;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generator of feature file corpora of arbitrary size for scale testing. Each odd scenario of a feature is a Scenario
+ * Outline if outline rows are set, the first step of a scenario gets a data table and the second one a doc string if
+ * their sizes are set, and the last step of a scenario embeds an attachment if its size is set.
+ */
+public class FeatureCorpus {
+	private static final String EMBEDDING_MIME_TYPE = "text/plain";
+
+	private int features = 1;
+	private int scenarios = 1;
+	private int steps = 3;
+	private int outlineRows = 0;
+	private int backgroundSteps = 0;
+	private int dataTableRows = 0;
+	private int dataTableColumns = 2;
+	private int docStringLines = 0;
+	private int embeddingSize = 0;
+
+	public FeatureCorpus withFeatures(int features) {
+		this.features = features;
+		return this;
+	}
+
+	public FeatureCorpus withScenarios(int scenariosPerFeature) {
+		this.scenarios = scenariosPerFeature;
+		return this;
+	}
+
+	public FeatureCorpus withSteps(int stepsPerScenario) {
+		this.steps = stepsPerScenario;
+		return this;
+	}
+
+	public FeatureCorpus withOutlineRows(int outlineRows) {
+		this.outlineRows = outlineRows;
+		return this;
+	}
+
+	public FeatureCorpus withBackgroundSteps(int backgroundSteps) {
+		this.backgroundSteps = backgroundSteps;
+		return this;
+	}
+
+	public FeatureCorpus withDataTable(int rows, int columns) {
+		this.dataTableRows = rows;
+		this.dataTableColumns = columns;
+		return this;
+	}
+
+	public FeatureCorpus withDocStringLines(int docStringLines) {
+		this.docStringLines = docStringLines;
+		return this;
+	}
+
+	public FeatureCorpus withEmbeddingSize(int embeddingSize) {
+		this.embeddingSize = embeddingSize;
+		return this;
+	}
+
+	/**
+	 * @return generated features
+	 */
+	public List<SyntheticFeature> generate() {
+		return IntStream.range(0, features)
+				.mapToObj(i -> new SyntheticFeature("features/generated/feature_" + i + ".feature", generateSource(i)))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * @param featureIndex an index of the feature in the corpus
+	 * @return the feature file text
+	 */
+	public String generateSource(int featureIndex) {
+		StringBuilder source = new StringBuilder();
+		source.append("Feature: Generated feature ").append(featureIndex).append("\n\n");
+		if (backgroundSteps > 0) {
+			source.append("  Background:\n");
+			for (int i = 0; i < backgroundSteps; i++) {
+				source.append("    Given background step ").append(i).append('\n');
+			}
+			source.append('\n');
+		}
+		for (int i = 0; i < scenarios; i++) {
+			boolean outline = outlineRows > 0 && i % 2 == 1;
+			source.append(outline ? "  Scenario Outline: Generated outline " : "  Scenario: Generated scenario ")
+					.append(i)
+					.append('\n');
+			for (int j = 0; j < steps; j++) {
+				source.append(j == 0 ? "    Given" : "    When").append(" step ").append(j).append(" of scenario ").append(i);
+				source.append(outline ? " with parameter <parameter>\n" : "\n");
+				if (j == 0 && dataTableRows > 0) {
+					appendDataTable(source);
+				} else if (j == 1 && docStringLines > 0) {
+					appendDocString(source);
+				}
+			}
+			if (outline) {
+				source.append("\n    Examples:\n      | parameter |\n");
+				for (int r = 0; r < outlineRows; r++) {
+					source.append("      | value ").append(r).append(" |\n");
+				}
+			}
+			source.append('\n');
+		}
+		return source.toString();
+	}
+
+	private void appendDataTable(StringBuilder source) {
+		for (int r = 0; r < dataTableRows; r++) {
+			source.append("      |");
+			for (int c = 0; c < dataTableColumns; c++) {
+				source.append(" cell ").append(r).append('-').append(c).append(" |");
+			}
+			source.append('\n');
+		}
+	}
+
+	private void appendDocString(StringBuilder source) {
+		source.append("      \"\"\"\n");
+		for (int i = 0; i < docStringLines; i++) {
+			source.append("      Doc string line ").append(i).append('\n');
+		}
+		source.append("      \"\"\"\n");
+	}
+
+	/**
+	 * Builds the events Cucumber sends for a passed test case, including embedding of the last step.
+	 *
+	 * @param testCase a test case of a generated feature
+	 * @return event list in the order of publishing
+	 */
+	public List<Event> getEvents(TestCase testCase) {
+		List<Event> events = new ArrayList<>(SyntheticFeature.getPassedEvents(testCase));
+		if (embeddingSize > 0) {
+			int lastStepStarted = -1;
+			for (int i = 0; i < events.size(); i++) {
+				if (events.get(i) instanceof TestStepStarted) {
+					lastStepStarted = i;
+				}
+			}
+			if (lastStepStarted >= 0) {
+				byte[] data = new byte[embeddingSize];
+				Arrays.fill(data, (byte) 'a');
+				events.add(lastStepStarted + 1, new EmbedEvent(0L, data, EMBEDDING_MIME_TYPE));
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * @return number of test cases (scenarios and outline examples) in the corpus
+	 */
+	public int getTestCaseCount() {
+		int outlines = outlineRows > 0 ? scenarios / 2 : 0;
+		return features * (scenarios - outlines + outlines * outlineRows);
+	}
+
+	/**
+	 * @return number of steps of all test cases in the corpus, including background steps
+	 */
+	public int getStepCount() {
+		return getTestCaseCount() * (steps + backgroundSteps);
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import cucumber.api.event.*;
+import cucumber.api.formatter.Formatter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A Cucumber plugin which collects test source and test case events of a real run, so they can be replayed to a
+ * reporter later. Unlike {@link com.epam.reportportal.cucumber.recording.EventRecorder} it keeps events in memory only.
+ */
+public class InMemoryEventCollector implements Formatter {
+	public static final List<Event> EVENTS = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void setEventPublisher(EventPublisher publisher) {
+		publisher.registerHandlerFor(TestSourceRead.class, EVENTS::add);
+		publisher.registerHandlerFor(TestCaseStarted.class, EVENTS::add);
+		publisher.registerHandlerFor(TestStepStarted.class, EVENTS::add);
+		publisher.registerHandlerFor(TestStepFinished.class, EVENTS::add);
+		publisher.registerHandlerFor(TestCaseFinished.class, EVENTS::add);
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import com.epam.reportportal.cucumber.AbstractReporter;
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.ScenarioReporter;
+import com.epam.reportportal.cucumber.StepReporter;
+import com.epam.reportportal.cucumber.integration.TestSinkScenarioReporter;
+import com.epam.reportportal.cucumber.integration.TestSinkStepReporter;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.reportportal.cucumber.sink.ReportingSink;
+import com.epam.reportportal.service.Launch;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reporters which send everything to a given sink instead of ReportPortal, and helpers to run a feature against them
+ * and to read the sink.
+ */
+public class SinkReporters {
+	/**
+	 * A sink for reporters created by Cucumber as plugins: {@link TestSinkStepReporter} and {@link TestSinkScenarioReporter}
+	 */
+	public static final ThreadLocal<ReportingSink> SINK = new ThreadLocal<>();
+
+	/**
+	 * Parameters for reporters created by Cucumber as plugins, default parameters are used if not set
+	 */
+	public static final ThreadLocal<ReporterParameters> PARAMETERS = new ThreadLocal<>();
+
+	private SinkReporters() {
+	}
+
+	/**
+	 * Reporter kinds, so the same feature can be verified against each of them
+	 */
+	public enum Type {
+		STEP(0) {
+			@Override
+			public AbstractReporter create(@Nonnull ReportingSink sink, @Nullable ReporterParameters parameters) {
+				return new SinkStepReporter(sink, parameters);
+			}
+		},
+		SCENARIO(1) {
+			@Override
+			public AbstractReporter create(@Nonnull ReportingSink sink, @Nullable ReporterParameters parameters) {
+				return new SinkScenarioReporter(sink, parameters);
+			}
+		};
+
+		private final int rootItems;
+
+		Type(int rootItems) {
+			this.rootItems = rootItems;
+		}
+
+		/**
+		 * @return number of items the reporter starts above features
+		 */
+		public int getRootItems() {
+			return rootItems;
+		}
+
+		public abstract AbstractReporter create(@Nonnull ReportingSink sink, @Nullable ReporterParameters parameters);
+	}
+
+	/**
+	 * Sends a whole run of the feature to the reporter
+	 *
+	 * @param reporter a reporter to run
+	 * @param feature  a feature of the run
+	 * @param events   test case events of the run
+	 */
+	public static void run(@Nonnull AbstractReporter reporter, @Nonnull SyntheticFeature feature, @Nonnull List<Event> events) {
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		reporter.setEventPublisher(bus);
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		events.forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+	}
+
+	/**
+	 * Sends a whole run of the feature to a reporter of the given type
+	 *
+	 * @param type       a reporter type
+	 * @param sink       a sink for the reporter
+	 * @param parameters reporter parameters
+	 * @param feature    a feature of the run
+	 * @param events     test case events of the run
+	 */
+	public static void run(@Nonnull Type type, @Nonnull ReportingSink sink, @Nonnull ReporterParameters parameters,
+			@Nonnull SyntheticFeature feature, @Nonnull List<Event> events) {
+		run(type.create(sink, parameters), feature, events);
+	}
+
+	/**
+	 * Runs Cucumber tests with {@link TestSinkStepReporter} or {@link TestSinkScenarioReporter} reporting to the sink
+	 *
+	 * @param sink       a sink for the reporters
+	 * @param parameters reporter parameters
+	 * @param classes    Cucumber test classes
+	 */
+	public static void runTests(@Nonnull ReportingSink sink, @Nonnull ReporterParameters parameters, Class<?>... classes) {
+		SINK.set(sink);
+		PARAMETERS.set(parameters);
+		try {
+			TestUtils.runTests(classes);
+		} finally {
+			SINK.remove();
+			PARAMETERS.remove();
+		}
+	}
+
+	@Nonnull
+	public static List<InMemorySink.Event> events(@Nonnull InMemorySink sink, @Nonnull InMemorySink.EventType type) {
+		return sink.getEvents().stream().filter(e -> e.getType() == type).collect(Collectors.toList());
+	}
+
+	@Nonnull
+	public static List<InMemorySink.Event> events(@Nonnull InMemorySink sink, @Nonnull InMemorySink.EventType type, @Nonnull String id) {
+		return sink.getEvents().stream().filter(e -> e.getType() == type && id.equals(e.getId())).collect(Collectors.toList());
+	}
+
+	@Nonnull
+	public static List<StartTestItemRQ> itemStarts(@Nonnull InMemorySink sink) {
+		return events(sink, InMemorySink.EventType.ITEM_START).stream()
+				.map(InMemorySink.Event::<StartTestItemRQ>getRequest)
+				.collect(Collectors.toList());
+	}
+
+	@Nonnull
+	public static List<String> logs(@Nonnull InMemorySink sink) {
+		return events(sink, InMemorySink.EventType.LOG).stream()
+				.map(e -> e.<SaveLogRQ>getRequest().getMessage())
+				.collect(Collectors.toList());
+	}
+
+	public static class SinkStepReporter extends StepReporter {
+		private final ReportingSink sink;
+		private final ReporterParameters parameters;
+
+		public SinkStepReporter(ReportingSink sink) {
+			this(sink, null);
+		}
+
+		public SinkStepReporter(ReportingSink sink, ReporterParameters parameters) {
+			this.sink = sink;
+			this.parameters = parameters;
+		}
+
+		@Override
+		protected void startLaunch() {
+			launch = () -> Launch.NOOP_LAUNCH;
+		}
+
+		@Override
+		protected ReporterParameters buildReporterParameters() {
+			return parameters == null ? super.buildReporterParameters() : parameters;
+		}
+
+		@Nonnull
+		@Override
+		protected ReportingSink buildReportingSink() {
+			return sink;
+		}
+	}
+
+	public static class SinkScenarioReporter extends ScenarioReporter {
+		private final ReportingSink sink;
+		private final ReporterParameters parameters;
+
+		public SinkScenarioReporter(ReportingSink sink) {
+			this(sink, null);
+		}
+
+		public SinkScenarioReporter(ReportingSink sink, ReporterParameters parameters) {
+			this.sink = sink;
+			this.parameters = parameters;
+		}
+
+		@Override
+		protected void startLaunch() {
+			launch = () -> Launch.NOOP_LAUNCH;
+		}
+
+		@Override
+		protected ReporterParameters buildReporterParameters() {
+			return parameters == null ? super.buildReporterParameters() : parameters;
+		}
+
+		@Nonnull
+		@Override
+		protected ReportingSink buildReportingSink() {
+			return sink;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import cucumber.api.HookType;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.TestStep;
+import cucumber.api.event.*;
+import gherkin.AstBuilder;
+import gherkin.Parser;
+import gherkin.TokenMatcher;
+import gherkin.ast.GherkinDocument;
+import gherkin.events.PickleEvent;
+import gherkin.pickles.Compiler;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A feature file source compiled into Cucumber test cases, which allows to drive reporters with a real event sequence
+ * without glue code and Cucumber runtime.
+ */
+public class SyntheticFeature {
+	private static final Result PASSED = new Result(Result.Type.PASSED, 1L, null);
+	private static final Result SKIPPED = new Result(Result.Type.SKIPPED, 0L, null);
+
+	private final String uri;
+	private final String source;
+	private final List<TestCase> testCases;
+
+	public SyntheticFeature(String uri, String source) {
+		this(uri, source, 0, 0);
+	}
+
+	/**
+	 * @param uri         a feature file URI
+	 * @param source      a feature file text
+	 * @param beforeHooks a number of before-hooks to add to each test case
+	 * @param afterHooks  a number of after-hooks to add to each test case
+	 */
+	public SyntheticFeature(String uri, String source, int beforeHooks, int afterHooks) {
+		this.uri = uri;
+		this.source = source;
+		GherkinDocument document = new Parser<>(new AstBuilder()).parse(source, new TokenMatcher());
+		List<Pickle> pickles = new Compiler().compile(document);
+		testCases = Collections.unmodifiableList(pickles.stream().map(p -> {
+			List<TestStep> steps = new ArrayList<>();
+			for (int i = 0; i < beforeHooks; i++) {
+				steps.add(SyntheticTestStep.hook(uri, HookType.Before));
+			}
+			for (PickleStep step : p.getSteps()) {
+				steps.add(SyntheticTestStep.step(uri, step));
+			}
+			for (int i = 0; i < afterHooks; i++) {
+				steps.add(SyntheticTestStep.hook(uri, HookType.After));
+			}
+			return new TestCase(steps, new PickleEvent(uri, p), false);
+		}).collect(Collectors.toList()));
+	}
+
+	public String getUri() {
+		return uri;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public List<TestCase> getTestCases() {
+		return testCases;
+	}
+
+	public TestSourceRead getSourceReadEvent() {
+		return new TestSourceRead(0L, uri, "en", source);
+	}
+
+	/**
+	 * Builds the events Cucumber sends for a passed test case.
+	 *
+	 * @param testCase a test case of the feature
+	 * @return event list in the order of publishing
+	 */
+	public static List<Event> getPassedEvents(TestCase testCase) {
+		return getEvents(testCase, -1, null);
+	}
+
+	/**
+	 * Builds the events Cucumber sends for a test case which has a failed step: the step fails with the error and all
+	 * further steps are skipped.
+	 *
+	 * @param testCase    a test case of the feature
+	 * @param failedIndex an index of the failed test step
+	 * @param error       an error of the failed step
+	 * @return event list in the order of publishing
+	 */
+	public static List<Event> getEvents(TestCase testCase, int failedIndex, Throwable error) {
+		List<TestStep> steps = testCase.getTestSteps();
+		List<Event> events = new ArrayList<>(steps.size() * 2 + 2);
+		events.add(new TestCaseStarted(0L, testCase));
+		Result caseResult = PASSED;
+		for (int i = 0; i < steps.size(); i++) {
+			TestStep step = steps.get(i);
+			Result result;
+			if (i == failedIndex) {
+				result = new Result(Result.Type.FAILED, 1L, error);
+				caseResult = result;
+			} else if (failedIndex >= 0 && i > failedIndex && !step.isHook()) {
+				result = SKIPPED;
+			} else {
+				result = PASSED;
+			}
+			events.add(new TestStepStarted(0L, step));
+			events.add(new TestStepFinished(0L, step, result));
+		}
+		events.add(new TestCaseFinished(0L, testCase, caseResult));
+		return events;
+	}
+}
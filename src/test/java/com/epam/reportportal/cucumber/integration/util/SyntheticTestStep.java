@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.integration.util;
+
+import cucumber.api.HookType;
+import cucumber.api.TestStep;
+import gherkin.pickles.Argument;
+import gherkin.pickles.PickleLocation;
+import gherkin.pickles.PickleStep;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Cucumber test step which is not bound to any glue code. Used to feed reporters with events without running Cucumber.
+ */
+public class SyntheticTestStep extends TestStep {
+	private final String uri;
+	private final PickleStep step;
+	private final HookType hookType;
+	private final String codeLocation;
+
+	private SyntheticTestStep(String uri, PickleStep step, HookType hookType, String codeLocation) {
+		super(null);
+		this.uri = uri;
+		this.step = step;
+		this.hookType = hookType;
+		this.codeLocation = codeLocation;
+	}
+
+	public static SyntheticTestStep step(String uri, PickleStep step) {
+		return new SyntheticTestStep(uri, step, null, "com.example.glue.Steps.step()");
+	}
+
+	public static SyntheticTestStep hook(String uri, HookType hookType) {
+		return new SyntheticTestStep(uri, null, hookType, "com.example.glue.Hooks." + hookType.name().toLowerCase() + "()");
+	}
+
+	@Override
+	public boolean isHook() {
+		return hookType != null;
+	}
+
+	@Override
+	public PickleStep getPickleStep() {
+		return step;
+	}
+
+	@Override
+	public String getStepText() {
+		return step == null ? null : step.getText();
+	}
+
+	@Override
+	public List<Argument> getStepArgument() {
+		return step == null ? Collections.emptyList() : step.getArgument();
+	}
+
+	@Override
+	public int getStepLine() {
+		if (step == null) {
+			return 0;
+		}
+		List<PickleLocation> locations = step.getLocations();
+		return locations.get(locations.size() - 1).getLine();
+	}
+
+	@Override
+	public String getStepLocation() {
+		return uri + ":" + getStepLine();
+	}
+
+	@Override
+	public HookType getHookType() {
+		return hookType;
+	}
+
+	@Override
+	public String getPattern() {
+		return getStepText();
+	}
+
+	@Override
+	public String getCodeLocation() {
+		return codeLocation;
+	}
+
+	@Override
+	public List<cucumber.runtime.Argument> getDefinitionArgument() {
+		return Collections.emptyList();
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.jfr;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ReporterEventsTest {
+	private static final String FEATURE_URI = "features/jfr.feature";
+	private static final String FEATURE = "Feature: JFR feature\n\n" + "  Scenario: JFR scenario\n" + "    Given I have a step\n"
+			+ "    When I have one more step\n";
+	private static final List<String> EVENT_NAMES = Stream.of("FeatureParse",
+			"ScenarioStart",
+			"StepStart",
+			"StepFinish",
+			"LogEmit",
+			"Embedding",
+			"LaunchFinish"
+	).map(n -> "com.epam.reportportal.cucumber." + n).collect(Collectors.toList());
+
+	@Test
+	public void verify_reporter_operations_are_recorded(@TempDir Path tempDir) throws Exception {
+		assumeTrue(ReporterEvents.isAvailable(), "Flight Recorder is not available");
+
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkScenarioReporter(new InMemorySink()).setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature(FEATURE_URI, FEATURE);
+
+		Path file = tempDir.resolve("reporter.jfr");
+		try (Recording recording = new Recording()) {
+			EVENT_NAMES.forEach(recording::enable);
+			recording.start();
+			bus.send(new TestRunStarted(0L));
+			bus.send(feature.getSourceReadEvent());
+			SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)).forEach(bus::send);
+			bus.send(new TestRunFinished(0L));
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+				.stream()
+				.filter(e -> EVENT_NAMES.contains(e.getEventType().getName()))
+				.collect(Collectors.toList());
+		Map<String, Long> counts = events.stream()
+				.collect(Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+		assertThat(counts, hasEntry("com.epam.reportportal.cucumber.FeatureParse", 1L));
+		assertThat(counts, hasEntry("com.epam.reportportal.cucumber.ScenarioStart", 1L));
+		assertThat(counts, hasEntry("com.epam.reportportal.cucumber.StepStart", 2L));
+		assertThat(counts, hasEntry("com.epam.reportportal.cucumber.StepFinish", 2L));
+		assertThat(counts, hasEntry("com.epam.reportportal.cucumber.LaunchFinish", 1L));
+
+		RecordedEvent scenarioStart = events.stream()
+				.filter(e -> e.getEventType().getName().endsWith("ScenarioStart"))
+				.findAny()
+				.orElseThrow(AssertionError::new);
+		assertThat(scenarioStart.getString("featureUri"), equalTo(FEATURE_URI));
+		assertThat(scenarioStart.getInt("line"), equalTo(3));
+	}
+}
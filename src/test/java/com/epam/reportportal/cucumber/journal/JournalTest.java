@@ -0,0 +1,231 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.journal;
+
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.StepReporter;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.integration.util.TestUtils;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.OperationCompletionRS;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.item.ItemCreatedRS;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRS;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import io.reactivex.Maybe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class JournalTest {
+
+	@TempDir
+	Path directory;
+
+	private static StartTestItemRQ item(String name) {
+		StartTestItemRQ rq = new StartTestItemRQ();
+		rq.setName(name);
+		rq.setType("STEP");
+		rq.setStartTime(new Date());
+		return rq;
+	}
+
+	private static SaveLogRQ log(String message) {
+		SaveLogRQ rq = new SaveLogRQ();
+		rq.setLevel("INFO");
+		rq.setLogTime(new Date());
+		rq.setMessage(message);
+		return rq;
+	}
+
+	private static FinishTestItemRQ finish() {
+		FinishTestItemRQ rq = new FinishTestItemRQ();
+		rq.setEndTime(new Date());
+		rq.setStatus("PASSED");
+		return rq;
+	}
+
+	private void writeLaunch(int segmentSize) throws IOException {
+		StartLaunchRQ launchRq = new StartLaunchRQ();
+		launchRq.setName("Offline launch");
+		launchRq.setStartTime(new Date());
+		try (Journal journal = new Journal(new JournalWriter(directory, segmentSize))) {
+			journal.startLaunch(launchRq);
+			Maybe<String> suite = journal.startTestItem(null, item("Suite"));
+			Maybe<String> test = journal.startTestItem(suite, item("Test"));
+			SaveLogRQ attachment = log("Attachment");
+			SaveLogRQ.File file = new SaveLogRQ.File();
+			file.setName("file.txt");
+			file.setContentType("text/plain");
+			file.setContent("file content".getBytes(StandardCharsets.UTF_8));
+			attachment.setFile(file);
+			journal.log(test, log("Log"));
+			journal.log(test, attachment);
+			journal.finishTestItem(test, finish());
+			journal.finishTestItem(suite, finish());
+			FinishExecutionRQ finishRq = new FinishExecutionRQ();
+			finishRq.setEndTime(new Date());
+			journal.finishLaunch(finishRq);
+		}
+	}
+
+	private List<JournalRecord> readAll() throws IOException {
+		List<JournalRecord> records = new ArrayList<>();
+		try (JournalReader reader = new JournalReader(directory)) {
+			for (JournalRecord record = reader.next(); record != null; record = reader.next()) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	@Test
+	public void verify_records_are_read_back_in_order_across_segments() throws IOException {
+		writeLaunch(128);
+
+		assertThat(Files.exists(JournalWriter.segmentPath(directory, 1)), equalTo(true));
+		List<JournalRecord> records = readAll();
+		assertThat(records, hasSize(8));
+		assertThat(records.get(0).getType(), equalTo(JournalCodec.LAUNCH_START));
+		assertThat(records.get(0).<StartLaunchRQ>getRequest().getName(), equalTo("Offline launch"));
+
+		JournalRecord suite = records.get(1);
+		JournalRecord test = records.get(2);
+		assertThat(suite.getParentUuid(), nullValue());
+		assertThat(test.getParentUuid(), equalTo(suite.getUuid()));
+		assertThat(test.<StartTestItemRQ>getRequest().getName(), equalTo("Test"));
+
+		JournalRecord attachment = records.get(4);
+		assertThat(attachment.getUuid(), equalTo(test.getUuid()));
+		SaveLogRQ.File file = attachment.<SaveLogRQ>getRequest().getFile();
+		assertThat(new String(file.getContent(), StandardCharsets.UTF_8), equalTo("file content"));
+		assertThat(file.getContentType(), equalTo("text/plain"));
+
+		assertThat(records.get(5).getType(), equalTo(JournalCodec.ITEM_FINISH));
+		assertThat(records.get(5).<FinishTestItemRQ>getRequest().getStatus(), equalTo("PASSED"));
+		assertThat(records.get(7).getType(), equalTo(JournalCodec.LAUNCH_FINISH));
+	}
+
+	@Test
+	public void verify_reading_stops_at_damaged_record() throws IOException {
+		writeLaunch(64 * 1024);
+		List<JournalRecord> records = readAll();
+		int offset = (int) records.get(3).getPosition();
+
+		try (FileChannel channel = FileChannel.open(JournalWriter.segmentPath(directory, 0), StandardOpenOption.WRITE)) {
+			// damage the payload of the fourth record
+			channel.write(ByteBuffer.wrap(new byte[] { 0x7f, 0x7f }), offset + JournalWriter.HEADER_SIZE + 2);
+		}
+
+		assertThat(readAll(), hasSize(3));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_interrupted_replay_resumes_without_duplicates() throws IOException {
+		writeLaunch(64 * 1024);
+		ReportPortalClient client = mock(ReportPortalClient.class);
+		when(client.startLaunch(any())).thenReturn(Maybe.just(new StartLaunchRS("launch", 1L)));
+		when(client.startTestItem(any())).thenReturn(Maybe.just(new ItemCreatedRS("suite", "suite")));
+		when(client.startTestItem(eq("suite"), any())).thenReturn(Maybe.just(new ItemCreatedRS("test", "test")));
+		when(client.finishTestItem(anyString(), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+		when(client.finishLaunch(anyString(), any())).thenReturn(Maybe.just(new OperationCompletionRS()));
+		when(client.log(any(List.class))).thenReturn(Maybe.error(new IOException("Service unavailable")),
+				Maybe.just(new BatchSaveOperatingRS())
+		);
+
+		JournalReplayer replayer = new JournalReplayer(client, 2);
+		assertThrows(IOException.class, () -> replayer.replay(directory));
+		verify(client, never()).finishLaunch(anyString(), any());
+
+		assertThat(replayer.replay(directory), equalTo("launch"));
+		assertThat(replayer.replay(directory), equalTo("launch"));
+
+		verify(client, times(1)).startLaunch(any());
+		verify(client, times(1)).startTestItem(any());
+		verify(client, times(1)).startTestItem(eq("suite"), any());
+		verify(client, times(2)).finishTestItem(anyString(), any());
+		verify(client, times(2)).log(any(List.class));
+		verify(client, times(1)).finishLaunch(eq("launch"), any());
+	}
+
+	@Test
+	public void verify_offline_reporter_does_not_create_launch() throws IOException {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setJournalEnable(true);
+		parameters.setJournalDirectory(directory.toString());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		ReportPortal reportPortal = spy(ReportPortal.create(mock(ReportPortalClient.class), TestUtils.standardParameters(), executor));
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new StepReporter() {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				return parameters;
+			}
+
+			@Override
+			protected ReportPortal buildReportPortal() {
+				return reportPortal;
+			}
+		}.setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/offline.feature",
+				"Feature: Offline feature\n\n  Scenario: Offline scenario\n    Given I have a step\n"
+		);
+
+		try {
+			bus.send(new TestRunStarted(0L));
+			bus.send(feature.getSourceReadEvent());
+			SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)).forEach(bus::send);
+			bus.send(new TestRunFinished(0L));
+		} finally {
+			executor.shutdownNow();
+		}
+
+		verify(reportPortal, never()).newLaunch(any());
+		try (Stream<Path> journals = Files.list(directory)) {
+			assertThat(journals.count(), equalTo(1L));
+		}
+	}
+}
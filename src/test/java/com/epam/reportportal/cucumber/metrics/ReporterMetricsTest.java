@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.epam.reportportal.cucumber.metrics;
+
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.attribute.ItemAttributesRQ;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ReporterMetricsTest {
+	private static final String FEATURE = "Feature: Metrics feature\n\n" + "  Scenario: Metrics scenario\n" + "    Given I have a step\n"
+			+ "    When I have one more step\n" + "    Then I have the last step\n";
+
+	@Test
+	public void verify_histogram_statistics() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+		}
+
+		LatencyStatistics statistics = histogram.getStatistics();
+		assertThat(statistics.getCount(), equalTo(1000L));
+		assertThat(statistics.getMaxNanos(), equalTo(TimeUnit.MICROSECONDS.toNanos(1000)));
+		assertThat(statistics.getMeanNanos(), equalTo(500_500L));
+		assertThat(statistics.getP50Nanos(), allOf(greaterThanOrEqualTo(500_000L), lessThan(1_000_000L)));
+		assertThat(statistics.getP99Nanos(), allOf(greaterThanOrEqualTo(990_000L), lessThanOrEqualTo(1_000_000L)));
+
+		histogram.reset();
+		assertThat(histogram.getCount(), equalTo(0L));
+		assertThat(histogram.getPercentileNanos(99), equalTo(0L));
+	}
+
+	@Test
+	public void verify_reporter_publishes_metrics_while_launch_is_running() throws Exception {
+		InMemorySink sink = new InMemorySink();
+		SinkReporters.SinkScenarioReporter reporter = new SinkReporters.SinkScenarioReporter(sink) {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				ReporterParameters parameters = new ReporterParameters();
+				parameters.setMetricsJmx(true);
+				return parameters;
+			}
+		};
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		reporter.setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/metrics.feature", FEATURE);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)).forEach(bus::send);
+
+		ObjectName name = reporter.getMetrics().getObjectName();
+		assertThat(name, notNullValue());
+		assertThat(server.getAttribute(name, "ItemsStarted"), equalTo(sink.getItemStarts()));
+		assertThat(server.getAttribute(name, "ItemsOpen"), equalTo(2L)); // root suite and feature are still running
+
+		bus.send(new TestRunFinished(0L));
+
+		assertThat(server.isRegistered(name), equalTo(false));
+		ReporterMetrics metrics = reporter.getMetrics();
+		assertThat(metrics.getItemsStarted(), equalTo(sink.getItemStarts()));
+		assertThat(metrics.getItemsFinished(), equalTo(sink.getItemFinishes()));
+		assertThat(metrics.getItemsOpen(), equalTo(0L));
+		assertThat(metrics.getBytesSent(), greaterThan(0L));
+		assertThat(metrics.getHandler(ReporterMetrics.Operation.TEST_STEP_STARTED).getCount(), equalTo(3L));
+		assertThat(metrics.getHandler(ReporterMetrics.Operation.TEST_CASE_FINISHED).getCount(), equalTo(1L));
+		assertThat(metrics.getHandlerLatencies().keySet(), hasSize(ReporterMetrics.Operation.values().length));
+	}
+
+	private static FinishExecutionRQ runSummaryFeature(InMemorySink sink, boolean summary) {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setMetricsSummary(summary);
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkStepReporter(sink) {
+			@Override
+			protected ReporterParameters buildReporterParameters() {
+				return parameters;
+			}
+		}.setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/summary.feature", FEATURE);
+
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)).forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+
+		List<InMemorySink.Event> events = sink.getEvents();
+		InMemorySink.Event launchFinish = events.get(events.size() - 1);
+		assertThat(launchFinish.getType(), equalTo(InMemorySink.EventType.LAUNCH_FINISH));
+		return launchFinish.getRequest();
+	}
+
+	@Test
+	public void verify_overhead_summary_is_not_attached_by_default() {
+		FinishExecutionRQ rq = runSummaryFeature(new InMemorySink(), new ReporterParameters().isMetricsSummary());
+
+		assertThat(rq.getAttributes(), anyOf(nullValue(), empty()));
+	}
+
+	@Test
+	public void verify_overhead_summary_is_attached_to_launch_finish() {
+		InMemorySink sink = new InMemorySink();
+		FinishExecutionRQ rq = runSummaryFeature(sink, true);
+		Map<String, ItemAttributesRQ> attributes = rq.getAttributes()
+				.stream()
+				.filter(a -> a.getKey() != null && a.getKey().startsWith("agent.overhead."))
+				.collect(Collectors.toMap(ItemAttributesRQ::getKey, a -> a));
+		assertThat(attributes.keySet(), hasItems("agent.overhead.test.ms", "agent.overhead.handlers.ms", "agent.overhead.bytes"));
+		assertThat(attributes.get("agent.overhead.item.starts").getValue(), equalTo(String.valueOf(sink.getItemStarts())));
+		assertThat(attributes.get("agent.overhead.logs").getValue(), equalTo("0"));
+		attributes.values().forEach(a -> assertThat(a.isSystem(), equalTo(true)));
+	}
+}
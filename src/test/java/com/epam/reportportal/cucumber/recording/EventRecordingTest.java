@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.recording;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import cucumber.api.Result;
+import cucumber.api.TestCase;
+import cucumber.api.event.*;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class EventRecordingTest {
+	private static final String URI = "features/recording.feature";
+	private static final String FEATURE = "Feature: Recording feature\n\n" + "  Background:\n" + "    Given I have a background step\n\n"
+			+ "  Scenario: Recorded scenario\n" + "    Given I have a step\n" + "    Then I have the last step\n\n"
+			+ "  Scenario Outline: Recorded outline\n" + "    Given I have <parameter>\n\n" + "    Examples:\n"
+			+ "      | parameter |\n" + "      | first     |\n" + "      | second    |\n";
+
+	private static List<Event> runEvents() {
+		SyntheticFeature feature = new SyntheticFeature(URI, FEATURE, 1, 1);
+		List<TestCase> testCases = feature.getTestCases();
+		List<Event> events = new ArrayList<>();
+		events.add(new TestRunStarted(1L));
+		events.add(feature.getSourceReadEvent());
+		events.addAll(SyntheticFeature.getPassedEvents(testCases.get(0)));
+		List<Event> failed = SyntheticFeature.getEvents(testCases.get(1), 2, new IllegalStateException("Row 1 failed",
+				new IllegalArgumentException("Bad row")
+		));
+		events.addAll(failed.subList(0, 3));
+		events.add(new WriteEvent(2L, "Scenario text"));
+		events.add(new EmbedEvent(3L, "attachment".getBytes(StandardCharsets.UTF_8), "text/plain"));
+		events.addAll(failed.subList(3, failed.size()));
+		events.addAll(SyntheticFeature.getPassedEvents(testCases.get(2)));
+		events.add(new TestRunFinished(4L));
+		return events;
+	}
+
+	private static EventReplayer record(List<Event> events) throws IOException {
+		ByteArrayOutputStream recording = new ByteArrayOutputStream();
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new EventRecorder(recording).setEventPublisher(bus);
+		events.forEach(bus::send);
+		return new EventReplayer(new ByteArrayInputStream(recording.toByteArray()));
+	}
+
+	@Test
+	public void verify_recorded_events_are_restored() throws IOException {
+		List<Event> original = runEvents();
+
+		EventReplayer replayer = record(original);
+
+		List<Event> replayed = replayer.getEvents();
+		assertThat(replayer.getThreadCount(), equalTo(1));
+		assertThat(replayed.stream().map(Object::getClass).collect(Collectors.toList()),
+				equalTo(original.stream().map(Object::getClass).collect(Collectors.toList()))
+		);
+		assertThat(((TestSourceRead) replayed.get(1)).source, equalTo(FEATURE));
+
+		TestCaseStarted outlineStarted = (TestCaseStarted) replayed.stream()
+				.filter(e -> e instanceof TestCaseStarted)
+				.skip(1)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		TestCase outline = outlineStarted.testCase;
+		assertThat(outline.getName(), equalTo("Recorded outline"));
+		assertThat(outline.getTestSteps(), hasSize(4));
+		assertThat(outline.getTestSteps().get(0).isHook(), equalTo(true));
+		assertThat(outline.getTestSteps().get(2).getStepText(), equalTo("I have first"));
+
+		TestStepFinished failedStep = replayed.stream()
+				.filter(e -> e instanceof TestStepFinished)
+				.map(e -> (TestStepFinished) e)
+				.filter(e -> e.result.getStatus() == Result.Type.FAILED)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		assertThat(failedStep.testStep, sameInstance(outline.getTestSteps().get(2)));
+		Throwable error = failedStep.result.getError();
+		assertThat(error.toString(), equalTo("java.lang.IllegalStateException: Row 1 failed"));
+		assertThat(error.getCause().toString(), equalTo("java.lang.IllegalArgumentException: Bad row"));
+		assertThat(error.getStackTrace().length, greaterThan(0));
+
+		TestCaseFinished failedCase = (TestCaseFinished) replayed.stream()
+				.filter(e -> e instanceof TestCaseFinished)
+				.skip(1)
+				.findFirst()
+				.orElseThrow(IllegalStateException::new);
+		assertThat(failedCase.testCase, sameInstance(outline));
+		assertThat(failedCase.result.getError(), sameInstance(error));
+	}
+
+	@Test
+	public void verify_replay_drives_reporter_the_same_way_as_original_events() throws IOException {
+		List<Event> original = runEvents();
+		InMemorySink expected = new InMemorySink();
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkScenarioReporter(expected).setEventPublisher(bus);
+		original.forEach(bus::send);
+
+		InMemorySink actual = new InMemorySink();
+		record(original).replay(new SinkReporters.SinkScenarioReporter(actual));
+
+		assertThat(actual.getItemStarts(), equalTo(expected.getItemStarts()));
+		assertThat(actual.getItemFinishes(), equalTo(expected.getItemFinishes()));
+		assertThat(actual.getLogs(), equalTo(expected.getLogs()));
+		assertThat(actual.getEvents().stream().map(InMemorySink.Event::getType).collect(Collectors.toList()),
+				equalTo(expected.getEvents().stream().map(InMemorySink.Event::getType).collect(Collectors.toList()))
+		);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.sink;
+
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.integration.util.TestUtils;
+import com.epam.reportportal.listeners.ListenerParameters;
+import com.epam.reportportal.service.Launch;
+import com.epam.reportportal.service.ReportPortal;
+import com.epam.reportportal.service.ReportPortalClient;
+import com.epam.ta.reportportal.ws.model.BatchSaveOperatingRS;
+import com.epam.ta.reportportal.ws.model.FinishExecutionRQ;
+import com.epam.ta.reportportal.ws.model.FinishTestItemRQ;
+import com.epam.ta.reportportal.ws.model.StartTestItemRQ;
+import com.epam.ta.reportportal.ws.model.launch.StartLaunchRQ;
+import com.epam.ta.reportportal.ws.model.log.SaveLogRQ;
+import cucumber.api.event.TestRunFinished;
+import cucumber.api.event.TestRunStarted;
+import cucumber.runner.EventBus;
+import cucumber.runner.TimeService;
+import io.reactivex.Completable;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ReportingSinkTest {
+	private static final String FEATURE = "Feature: Sink feature\n\n" + "  Scenario: Sink scenario\n" + "    Given I have a step\n"
+			+ "    When I have one more step\n" + "    Then I have the last step\n";
+
+	@Test
+	public void verify_reporter_sends_everything_to_the_sink() {
+		InMemorySink sink = new InMemorySink();
+		EventBus bus = new EventBus(TimeService.SYSTEM);
+		new SinkReporters.SinkStepReporter(sink).setEventPublisher(bus);
+		SyntheticFeature feature = new SyntheticFeature("features/sink.feature", FEATURE);
+
+		bus.send(new TestRunStarted(0L));
+		bus.send(feature.getSourceReadEvent());
+		SyntheticFeature.getPassedEvents(feature.getTestCases().get(0)).forEach(bus::send);
+		bus.send(new TestRunFinished(0L));
+
+		List<InMemorySink.Event> events = sink.getEvents();
+		assertThat(events.get(0).getType(), equalTo(InMemorySink.EventType.LAUNCH_START));
+		assertThat(events.get(events.size() - 1).getType(), equalTo(InMemorySink.EventType.LAUNCH_FINISH));
+		assertThat(sink.getItemStarts(), equalTo(5L));
+		assertThat(sink.getItemFinishes(), equalTo(5L));
+
+		List<InMemorySink.Event> starts = events.stream()
+				.filter(e -> e.getType() == InMemorySink.EventType.ITEM_START)
+				.collect(Collectors.toList());
+		assertThat(starts.get(0).<StartTestItemRQ>getRequest().getName(), startsWith("Feature: Sink feature"));
+		assertThat(starts.get(0).getParentId(), nullValue());
+		assertThat(starts.get(1).getParentId(), equalTo(starts.get(0).getId()));
+		starts.subList(2, 5).forEach(s -> assertThat(s.getParentId(), equalTo(starts.get(1).getId())));
+	}
+
+	@Test
+	public void verify_composite_sink_passes_each_sink_its_own_ids() {
+		InMemorySink first = new InMemorySink();
+		InMemorySink second = new InMemorySink();
+		// the null sink returns the same ID for every item
+		CompositeSink sink = new CompositeSink(NullSink.INSTANCE, first, second);
+
+		sink.startLaunch(new StartLaunchRQ());
+		Maybe<String> parent = sink.startTestItem(null, new StartTestItemRQ());
+		Maybe<String> child = sink.startTestItem(parent, new StartTestItemRQ());
+		assertThat(child, not(sameInstance(parent)));
+		sink.log(child, new SaveLogRQ());
+		sink.finishTestItem(child, new FinishTestItemRQ()).blockingAwait();
+		sink.finishTestItem(parent, new FinishTestItemRQ()).blockingAwait();
+		sink.finishLaunch(new FinishExecutionRQ());
+
+		for (InMemorySink s : new InMemorySink[] { first, second }) {
+			List<InMemorySink.Event> events = s.getEvents();
+			assertThat(events, hasSize(7));
+			String parentId = events.get(1).getId();
+			String childId = events.get(2).getId();
+			assertThat(events.get(2).getParentId(), equalTo(parentId));
+			assertThat(events.get(3).getType(), equalTo(InMemorySink.EventType.LOG));
+			assertThat(events.get(3).getId(), equalTo(childId));
+			assertThat(events.get(4).getId(), equalTo(childId));
+			assertThat(events.get(5).getId(), equalTo(parentId));
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void verify_tracked_log_completes_when_server_responds() {
+		ReportPortalClient client = mock(ReportPortalClient.class);
+		TestUtils.mockLaunch(client, "launch", "suite", "test", "step");
+		MaybeSubject<BatchSaveOperatingRS> response = MaybeSubject.create();
+		when(client.log(any(List.class))).thenReturn(response);
+		ListenerParameters parameters = TestUtils.standardParameters();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Launch launch = ReportPortal.create(client, parameters, executor).newLaunch(new StartLaunchRQ());
+			ReportPortalSink sink = new ReportPortalSink(() -> launch, () -> client);
+			sink.startLaunch(new StartLaunchRQ());
+			StartTestItemRQ rq = new StartTestItemRQ();
+			rq.setName("Item");
+			rq.setStartTime(new Date());
+			Maybe<String> item = sink.startTestItem(null, rq);
+
+			Completable sent = sink.log(item, new SaveLogRQ());
+
+			verify(client, timeout(5000)).log(any(List.class));
+			assertThat(sent.blockingAwait(200, TimeUnit.MILLISECONDS), equalTo(false));
+			response.onSuccess(new BatchSaveOperatingRS());
+			assertThat(sent.blockingAwait(5, TimeUnit.SECONDS), equalTo(true));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DeduplicatingStackTraceRendererTest {
+
+	private static IllegalStateException connectionError(int port) {
+		return new IllegalStateException("Connection refused: localhost:" + port);
+	}
+
+	@Test
+	public void verify_only_first_failure_with_same_fingerprint_is_rendered_in_full() {
+		DeduplicatingStackTraceRenderer renderer = new DeduplicatingStackTraceRenderer(false, 0, 5);
+		// frames include line numbers, so both errors are created at the same call site
+		IllegalStateException[] errors = new IllegalStateException[2];
+		for (int i = 0; i < errors.length; i++) {
+			errors[i] = connectionError(8080 + i);
+		}
+		IllegalStateException first = errors[0];
+		IllegalStateException second = errors[1];
+
+		String firstStackTrace = renderer.render(first);
+		String secondStackTrace = renderer.render(second);
+
+		assertThat(firstStackTrace, startsWith("java.lang.IllegalStateException: Connection refused: localhost:8080\n\tat "));
+		assertThat(firstStackTrace, endsWith("Failure fingerprint: #1"));
+		assertThat(secondStackTrace, startsWith("Repeated failure #1, "));
+		assertThat(secondStackTrace, endsWith("java.lang.IllegalStateException: Connection refused: localhost:8081"));
+		assertThat(secondStackTrace, not(containsString("\tat ")));
+		assertThat(renderer.render(first), sameInstance(firstStackTrace));
+	}
+
+	@Test
+	public void verify_different_failures_are_rendered_in_full() {
+		DeduplicatingStackTraceRenderer renderer = new DeduplicatingStackTraceRenderer(false, 0, 5);
+
+		renderer.render(connectionError(8080));
+		String otherStackTrace = renderer.render(new IllegalArgumentException("Connection refused: localhost:8080"));
+
+		assertThat(otherStackTrace, startsWith("java.lang.IllegalArgumentException"));
+		assertThat(otherStackTrace, endsWith("Failure fingerprint: #2"));
+	}
+
+	@Test
+	public void verify_message_template_masks_variable_parts() {
+		assertThat(DeduplicatingStackTraceRenderer.template("Item 123e4567-e89b-12d3-a456-426614174000 at 0x1F took 15 ms"),
+				equalTo("Item <uuid> at <hex> took <n> ms")
+		);
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import com.epam.reportportal.cucumber.ReporterParameters;
+import com.epam.reportportal.cucumber.integration.util.SinkReporters;
+import com.epam.reportportal.cucumber.integration.util.SyntheticFeature;
+import com.epam.reportportal.cucumber.sink.InMemorySink;
+import cucumber.api.event.EmbedEvent;
+import cucumber.api.event.Event;
+import cucumber.api.event.TestStepStarted;
+import cucumber.api.event.WriteEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LogCoalescerTest {
+	private static final Object ITEM = new Object();
+	private static final String FEATURE = "Feature: Polling feature\n\n" + "  Scenario: Polling scenario\n" + "    Given I wait for an element\n";
+
+	@Test
+	public void verify_identical_messages_are_coalesced() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		assertThat(coalescer.offer(ITEM, "INFO", new Date(1000), "waiting for element..."), nullValue());
+		assertThat(coalescer.offer(ITEM, "INFO", new Date(1100), "waiting for element..."), nullValue());
+		assertThat(coalescer.offer(ITEM, "INFO", new Date(1200), "waiting for element..."), nullValue());
+
+		LogCoalescer.Run run = coalescer.flush(ITEM);
+		assertThat(run, notNullValue());
+		assertThat(run.getCount(), equalTo(3));
+		assertThat(run.getTime(), equalTo(new Date(1000)));
+		assertThat(run.getMessage(), startsWith("waiting for element...\n(repeated 3 times from "));
+		assertThat(coalescer.flush(ITEM), nullValue());
+	}
+
+	@Test
+	public void verify_template_identical_messages_are_coalesced() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		coalescer.offer(ITEM, "INFO", new Date(1000), "attempt 1 of 10");
+		coalescer.offer(ITEM, "INFO", new Date(1100), "attempt 2 of 10");
+
+		LogCoalescer.Run run = coalescer.flush(ITEM);
+		assertThat(run.getCount(), equalTo(2));
+		assertThat(run.getMessage(), startsWith("attempt 1 of 10\n(2 similar messages from "));
+	}
+
+	@Test
+	public void verify_single_message_is_not_changed() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		coalescer.offer(ITEM, "INFO", new Date(1000), "a message");
+
+		assertThat(coalescer.flush(ITEM).getMessage(), equalTo("a message"));
+	}
+
+	@Test
+	public void verify_different_message_or_level_starts_new_run() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		coalescer.offer(ITEM, "INFO", new Date(1000), "first message");
+		LogCoalescer.Run run = coalescer.offer(ITEM, "INFO", new Date(1100), "second message");
+		assertThat(run, notNullValue());
+		assertThat(run.getMessage(), equalTo("first message"));
+
+		run = coalescer.offer(ITEM, "WARN", new Date(1200), "second message");
+		assertThat(run, notNullValue());
+		assertThat(run.getLevel(), equalTo("INFO"));
+	}
+
+	@Test
+	public void verify_run_is_limited_by_window() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		coalescer.offer(ITEM, "INFO", new Date(1000), "waiting");
+		coalescer.offer(ITEM, "INFO", new Date(1900), "waiting");
+		LogCoalescer.Run run = coalescer.offer(ITEM, "INFO", new Date(2100), "waiting");
+
+		assertThat(run, notNullValue());
+		assertThat(run.getCount(), equalTo(2));
+		assertThat(coalescer.flush(ITEM).getTime(), equalTo(new Date(2100)));
+	}
+
+	@Test
+	public void verify_items_are_coalesced_separately() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		Object otherItem = new Object();
+		coalescer.offer(ITEM, "INFO", new Date(1000), "waiting");
+		assertThat(coalescer.offer(otherItem, "INFO", new Date(1100), "other"), nullValue());
+		coalescer.offer(ITEM, "INFO", new Date(1200), "waiting");
+
+		assertThat(coalescer.flush(ITEM).getCount(), equalTo(2));
+		assertThat(coalescer.flush(otherItem).getCount(), equalTo(1));
+	}
+
+	@Test
+	public void verify_expired_runs_are_flushed() {
+		LogCoalescer<Object> coalescer = new LogCoalescer<>(1000);
+		Object otherItem = new Object();
+		coalescer.offer(ITEM, "INFO", new Date(1000), "waiting");
+		coalescer.offer(ITEM, "INFO", new Date(1500), "waiting");
+		coalescer.offer(otherItem, "INFO", new Date(1800), "other");
+
+		assertThat(coalescer.flushExpired(ITEM, 1900), nullValue());
+		LogCoalescer.Run expired = coalescer.flushExpired(ITEM, 2900);
+		assertThat(expired, notNullValue());
+		assertThat(expired.getCount(), equalTo(2));
+		assertThat(coalescer.flush(ITEM), nullValue());
+		// an expired run of another item is left to the thread which runs it
+		assertThat(coalescer.flush(otherItem), notNullValue());
+	}
+
+	private static List<String> runPollingFeature(ReporterParameters parameters, List<Event> stepEvents) {
+		parameters.setLogCoalesce(true);
+		InMemorySink sink = new InMemorySink();
+		SyntheticFeature feature = new SyntheticFeature("features/polling.feature", FEATURE);
+		List<Event> events = new ArrayList<>();
+		for (Event event : SyntheticFeature.getPassedEvents(feature.getTestCases().get(0))) {
+			events.add(event);
+			if (event instanceof TestStepStarted) {
+				events.addAll(stepEvents);
+			}
+		}
+		SinkReporters.run(SinkReporters.Type.STEP, sink, parameters, feature, events);
+
+		return SinkReporters.logs(sink);
+	}
+
+	@Test
+	public void verify_repeated_write_events_are_reported_as_one_log() {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setLogCoalesceWindow(60_000);
+		List<Event> stepEvents = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			stepEvents.add(new WriteEvent(0L, "waiting for element..."));
+		}
+		stepEvents.add(new WriteEvent(0L, "element found"));
+
+		List<String> logs = runPollingFeature(parameters, stepEvents);
+		assertThat(logs, hasSize(2));
+		assertThat(logs.get(0), startsWith("waiting for element...\n(repeated 100 times from "));
+		assertThat(logs.get(1), equalTo("element found"));
+	}
+
+	@Test
+	public void verify_held_logs_are_not_coalesced_across_asynchronous_attachment() {
+		ReporterParameters parameters = new ReporterParameters();
+		parameters.setLogCoalesceWindow(60_000);
+		parameters.setEmbeddingAsyncDetection(true);
+		List<Event> stepEvents = Arrays.asList(new WriteEvent(0L, "waiting for element..."),
+				new EmbedEvent(0L, new byte[] { 1, 2, 3 }, null),
+				new WriteEvent(0L, "waiting for element...")
+		);
+
+		List<String> logs = runPollingFeature(parameters, stepEvents);
+		assertThat(logs, hasSize(3));
+		assertThat(logs.get(0), equalTo("waiting for element..."));
+		assertThat(logs, not(hasItem(startsWith("waiting for element...\n("))));
+	}
+}
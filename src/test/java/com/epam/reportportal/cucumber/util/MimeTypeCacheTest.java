@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class MimeTypeCacheTest {
+	private static class CountingCache extends MimeTypeCache {
+		private final AtomicInteger detections = new AtomicInteger();
+
+		@Override
+		protected String doDetect(@Nonnull byte[] data) {
+			detections.incrementAndGet();
+			return super.doDetect(data);
+		}
+	}
+
+	private static byte[] read(String resource) throws IOException {
+		return IOUtils.toByteArray(Objects.requireNonNull(MimeTypeCacheTest.class.getClassLoader().getResourceAsStream(resource)));
+	}
+
+	@Test
+	public void verify_image_type_is_detected_once_per_prefix() throws IOException {
+		byte[] image = read("files/unlucky.jpg");
+		CountingCache cache = new CountingCache();
+
+		assertThat(cache.detect(image), equalTo("image/jpeg"));
+		assertThat(cache.detect(image), equalTo("image/jpeg"));
+		assertThat(cache.detect(image.clone()), equalTo("image/jpeg"));
+		assertThat(cache.detections.get(), equalTo(1));
+		assertThat(cache.size(), equalTo(1));
+	}
+
+	@Test
+	public void verify_archive_type_is_detected_every_time() throws IOException {
+		byte[] archive = read("files/demo.zip");
+		CountingCache cache = new CountingCache();
+
+		assertThat(cache.detect(archive), equalTo("application/zip"));
+		assertThat(cache.detect(archive), equalTo("application/zip"));
+		assertThat(cache.detections.get(), equalTo(2));
+		assertThat(cache.size(), equalTo(0));
+	}
+
+	@Test
+	public void verify_text_type_is_not_cached() throws IOException {
+		byte[] text = read("files/plain.txt");
+		CountingCache cache = new CountingCache();
+
+		assertThat(cache.detect(text), equalTo("text/plain"));
+		assertThat(cache.size(), equalTo(0));
+	}
+
+	@Test
+	public void verify_types_defined_by_prefix() {
+		assertThat(MimeTypeCache.isDefinedByPrefix("image/png"), equalTo(true));
+		assertThat(MimeTypeCache.isDefinedByPrefix("application/pdf"), equalTo(true));
+		assertThat(MimeTypeCache.isDefinedByPrefix("image/svg+xml"), equalTo(false));
+		assertThat(MimeTypeCache.isDefinedByPrefix("application/zip"), equalTo(false));
+		assertThat(MimeTypeCache.isDefinedByPrefix("text/plain"), equalTo(false));
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 EPAM Systems
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.reportportal.cucumber.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StackTraceRendererTest {
+
+	private static final String STACK_TRACE = "java.lang.IllegalStateException: outer\n" + "\tat a.B.c(B.java:1)\n"
+			+ "\tat a.B.d(B.java:2)\n" + "\tat a.B.e(B.java:3)\n" + "Caused by: java.lang.NullPointerException\n"
+			+ "\tat a.C.c(C.java:1)\n" + "\tat a.C.d(C.java:2)\n";
+
+	@Test
+	public void verify_error_rendered_once_per_object() {
+		StackTraceRenderer renderer = new StackTraceRenderer(true, 0);
+		IllegalStateException error = new IllegalStateException("test");
+
+		String first = renderer.render(error);
+		String second = renderer.render(error);
+
+		assertThat(first, startsWith("java.lang.IllegalStateException: test"));
+		assertThat(second, sameInstance(first));
+		assertThat(renderer.render(new IllegalStateException("test")), not(sameInstance(first)));
+	}
+
+	@Test
+	public void verify_depth_limit_applied_to_each_exception_in_chain() {
+		String result = StackTraceRenderer.limitDepth(STACK_TRACE, 1);
+
+		assertThat(result,
+				equalTo("java.lang.IllegalStateException: outer\n" + "\tat a.B.c(B.java:1)\n" + "\t... 2 more\n"
+						+ "Caused by: java.lang.NullPointerException\n" + "\tat a.C.c(C.java:1)\n" + "\t... 1 more\n")
+		);
+	}
+
+	@Test
+	public void verify_depth_limit_merges_frames_omitted_by_jvm() {
+		String stackTrace = "java.lang.IllegalStateException: outer\n" + "\tat a.B.c(B.java:1)\n" + "\tat a.B.d(B.java:2)\n"
+				+ "Caused by: java.lang.NullPointerException\n" + "\tat a.C.c(C.java:1)\n" + "\tat a.C.d(C.java:2)\n"
+				+ "\t... 2 more\n";
+
+		String result = StackTraceRenderer.limitDepth(stackTrace, 1);
+
+		assertThat(result,
+				equalTo("java.lang.IllegalStateException: outer\n" + "\tat a.B.c(B.java:1)\n" + "\t... 1 more\n"
+						+ "Caused by: java.lang.NullPointerException\n" + "\tat a.C.c(C.java:1)\n" + "\t... 3 more\n")
+		);
+	}
+
+	@Test
+	public void verify_no_depth_limit_keeps_stack_trace() {
+		StackTraceRenderer renderer = new StackTraceRenderer(false, 0);
+		Throwable error = new IllegalStateException("test", new NullPointerException());
+
+		assertThat(renderer.render(error), containsString("Caused by: java.lang.NullPointerException"));
+	}
+}
@@ -0,0 +1,6 @@
+Feature: Test failed scenario with skipped steps
+
+  Scenario: The scenario
+    Given I have a failed step
+    When I have empty step
+    Then I have another empty step